@@ -0,0 +1,102 @@
+package com.xumumi.benchmark;
+
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.util.JwtUtils;
+import com.xumumi.util.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各签名算法签发和校验的性能测试，用于按实测开销选择算法
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmBenchmark {
+    /**
+     * RSA 密钥长度
+     */
+    private static final int RSA_KEY_SIZE = 2048;
+
+    /**
+     * 签名算法
+     */
+    @Param({"HS256", "HS512", "ES256", "RS256"})
+    private SigningAlgorithm algorithm;
+
+    private Map<String, String> claims;
+    private SigningKey key;
+    private SigningKey verifyOnlyKey;
+    private String token;
+
+    /**
+     * 生成密钥和测试令牌
+     *
+     * @throws GeneralSecurityException 当前 JVM 不支持该算法
+     */
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        claims = BenchmarkData.claims(4, 8);
+        if (algorithm.isSymmetric()) {
+            key = algorithm.createKey("benchmark", BenchmarkData.SECRET);
+            verifyOnlyKey = key;
+        } else {
+            final KeyPairGenerator generator;
+            if (SigningAlgorithm.ES256 == algorithm) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(RSA_KEY_SIZE);
+            }
+            final KeyPair pair = generator.generateKeyPair();
+            key = algorithm.createKey("benchmark", pair.getPublic(), pair.getPrivate());
+            /* 只持有公钥的校验节点 */
+            verifyOnlyKey = algorithm.createKey("benchmark", pair.getPublic(), null);
+        }
+        token = JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, key);
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @return 令牌
+     */
+    @Benchmark
+    public String sign() {
+        return JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, key);
+    }
+
+    /**
+     * 使用可复用的校验器校验令牌，非对称算法只使用公钥
+     *
+     * @return 校验结果
+     */
+    @Benchmark
+    public VerifiedToken verify() {
+        return JwtUtils.verify(token, verifyOnlyKey);
+    }
+}
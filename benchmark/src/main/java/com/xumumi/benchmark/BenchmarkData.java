@@ -0,0 +1,83 @@
+package com.xumumi.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 性能测试共用数据
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+enum BenchmarkData {
+    /* 工具类 */;
+
+    /**
+     * 测试用密钥
+     */
+    static final String SECRET = "xumumi-system-security-benchmark-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+    /**
+     * 测试用主体
+     */
+    static final String SUBJECT = "benchmark-user";
+    /**
+     * 测试用角色字段名
+     */
+    static final String ROLE_PARAMETER = "role";
+    /**
+     * 测试用角色
+     */
+    static final String ROLE = "ROLE_USER";
+    /**
+     * 1 小时
+     */
+    static final long ONE_HOUR = 3600000L;
+    /**
+     * 1 分钟
+     */
+    static final long ONE_MINUTE = 60000L;
+
+    /**
+     * 生成指定数量和长度的附加信息
+     *
+     * @param count 信息数量
+     * @param size  每条信息值的长度
+     * @return 附加信息表
+     */
+    static Map<String, String> claims(final int count, final int size) {
+        final Map<String, String> claims = new HashMap<>(count * 2 + 1);
+        final StringBuilder value = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+        for (int i = 0; i < count; i++) {
+            claims.put("claim" + i, value.toString());
+        }
+        claims.put(ROLE_PARAMETER, ROLE);
+        return claims;
+    }
+
+    /**
+     * 测试用主体类，角色存放在私有字段中
+     */
+    static final class User {
+        private final String name;
+        private final String role;
+
+        /**
+         * 构造器
+         *
+         * @param name 用户名
+         * @param role 角色
+         */
+        User(final String name, final String role) {
+            this.name = name;
+            this.role = role;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.xumumi.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * 性能测试入口
+ * 先在项目根目录执行 mvn install -Dgpg.skip 安装当前快照版本，打包后执行 java -jar target/benchmarks.jar [正则]，依次以 1、4 和 CPU 核数个线程运行匹配的测试，并开启 gc 分析
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public enum BenchmarkRunner {
+    /* 工具类 */;
+
+    /**
+     * 默认运行全部测试
+     */
+    private static final String ALL = "com\\.xumumi\\.benchmark\\..*Benchmark.*";
+
+    /**
+     * 入口函数
+     *
+     * @param args 第一个参数为需要运行的测试的正则，可省略
+     * @throws RunnerException 运行异常
+     */
+    public static void main(final String[] args) throws RunnerException {
+        final String include = 0 < args.length ? args[0] : ALL;
+        final SortedSet<Integer> threads = new TreeSet<>();
+        threads.add(1);
+        threads.add(4);
+        threads.add(Runtime.getRuntime().availableProcessors());
+        for (final int thread : threads) {
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(thread)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
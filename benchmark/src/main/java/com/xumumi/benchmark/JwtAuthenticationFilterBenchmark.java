@@ -0,0 +1,121 @@
+package com.xumumi.benchmark;
+
+import com.xumumi.filter.JwtAuthenticationFilter;
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
+import com.xumumi.secret.impl.StaticSecretProvider;
+import com.xumumi.util.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilterImpl} 处理单个请求的性能测试
+ * 每次调用都使用新的模拟请求，以免 OncePerRequestFilter 的已过滤标记跳过处理
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    /**
+     * 空过滤链
+     */
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    /**
+     * 附加信息数量
+     */
+    @Param({"0", "4", "16"})
+    private int claimCount;
+    /**
+     * 每条附加信息的长度
+     */
+    @Param({"8", "64"})
+    private int claimSize;
+    /**
+     * 已校验令牌缓存容量，0 为关闭
+     */
+    @Param({"0", "1024"})
+    private int tokenCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private Cookie cookie;
+
+    /**
+     * 生成过滤器和令牌
+     */
+    @Setup
+    public void setup() {
+        filter = JwtAuthenticationFilterImpl.createJwtAuthenticationFilter(
+                StaticSecretProvider.createSecretProvider(BenchmarkData.SECRET));
+        filter.setRoleParameter(BenchmarkData.ROLE_PARAMETER);
+        filter.setTokenCacheSize(tokenCacheSize);
+        final String token = JwtUtils.sign(BenchmarkData.SUBJECT, BenchmarkData.claims(claimCount, claimSize),
+                BenchmarkData.ONE_HOUR, BenchmarkData.SECRET);
+        cookie = new Cookie(Parameter.TOKEN_NAME, token);
+    }
+
+    /**
+     * 清理安全上下文
+     */
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 处理携带有效令牌的请求
+     *
+     * @return 响应
+     * @throws IOException      读写异常
+     * @throws ServletException Servlet 异常
+     */
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.setCookies(cookie);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, CHAIN);
+        return response;
+    }
+
+    /**
+     * 处理未携带令牌的请求
+     *
+     * @return 响应
+     * @throws IOException      读写异常
+     * @throws ServletException Servlet 异常
+     */
+    @Benchmark
+    public MockHttpServletResponse doFilterAnonymous() throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, CHAIN);
+        return response;
+    }
+}
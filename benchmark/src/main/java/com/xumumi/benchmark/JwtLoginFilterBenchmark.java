@@ -0,0 +1,81 @@
+package com.xumumi.benchmark;
+
+import com.xumumi.filter.JwtLoginFilter;
+import com.xumumi.filter.constant.Path;
+import com.xumumi.filter.impl.JwtLoginFilterImpl;
+import com.xumumi.secret.impl.StaticSecretProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.servlet.http.Cookie;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtLoginFilterImpl#getCookies} 登录成功后签发令牌的性能测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtLoginFilterBenchmark {
+    /**
+     * 附加信息数量
+     */
+    @Param({"0", "4", "16"})
+    private int claimCount;
+    /**
+     * 每条附加信息的长度
+     */
+    @Param({"8", "64"})
+    private int claimSize;
+
+    private JwtLoginFilter filter;
+    private MockHttpServletRequest request;
+    private Authentication authResult;
+
+    /**
+     * 生成过滤器和认证信息
+     */
+    @Setup
+    public void setup() {
+        filter = JwtLoginFilterImpl.createJwtLoginFilter(authentication -> authentication, Path.LOGIN,
+                StaticSecretProvider.createSecretProvider(BenchmarkData.SECRET));
+        filter.setRoleParameter(BenchmarkData.ROLE_PARAMETER);
+        final Map<String, String> claims = BenchmarkData.claims(claimCount, claimSize);
+        filter.setClaimCallback(authentication -> claims);
+        request = new MockHttpServletRequest("POST", Path.LOGIN);
+        final BenchmarkData.User user = new BenchmarkData.User(BenchmarkData.SUBJECT, BenchmarkData.ROLE);
+        authResult = new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority(BenchmarkData.ROLE)));
+    }
+
+    /**
+     * 生成登录成功的 cookies
+     *
+     * @return cookies 列表
+     */
+    @Benchmark
+    public List<Cookie> getCookies() {
+        return filter.getCookies(request, authResult);
+    }
+}
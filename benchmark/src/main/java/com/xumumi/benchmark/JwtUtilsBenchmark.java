@@ -0,0 +1,139 @@
+package com.xumumi.benchmark;
+
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.util.JwtUtils;
+import com.xumumi.util.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtils} 签发、校验、读取信息和刷新的性能测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+    /**
+     * 附加信息数量
+     */
+    @Param({"0", "4", "16"})
+    private int claimCount;
+    /**
+     * 每条附加信息的长度，用于改变令牌大小
+     */
+    @Param({"8", "64"})
+    private int claimSize;
+
+    private Map<String, String> claims;
+    private String token;
+    private String expiringToken;
+    private KeyRing keyRing;
+    private String activeToken;
+    private String retiredToken;
+
+    /**
+     * 生成测试令牌
+     */
+    @Setup
+    public void setup() {
+        claims = BenchmarkData.claims(claimCount, claimSize);
+        token = JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, BenchmarkData.SECRET);
+        /* 剩余有效期小于刷新阈值，每次刷新都会签发新令牌 */
+        expiringToken = JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_MINUTE / 2,
+                BenchmarkData.SECRET);
+        /* 轮换一次，旧密钥签发的令牌仍按 kid 直接选取旧密钥校验 */
+        final KeyRing initial = KeyRing.of(SigningKey.hmac256("k1", BenchmarkData.SECRET));
+        retiredToken = JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, initial);
+        keyRing = initial.rotate(SigningKey.hmac256("k2", BenchmarkData.SECRET + "k2"), BenchmarkData.ONE_HOUR);
+        activeToken = JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, keyRing);
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @return 令牌
+     */
+    @Benchmark
+    public String sign() {
+        return JwtUtils.sign(BenchmarkData.SUBJECT, claims, BenchmarkData.ONE_HOUR, BenchmarkData.SECRET);
+    }
+
+    /**
+     * 校验令牌
+     *
+     * @return 有效布尔值
+     */
+    @Benchmark
+    public boolean isValid() {
+        return JwtUtils.isValid(token, BenchmarkData.SECRET);
+    }
+
+    /**
+     * 读取角色
+     *
+     * @return 角色
+     */
+    @Benchmark
+    public String getClaimValue() {
+        return JwtUtils.getClaimValue(token, BenchmarkData.SECRET, BenchmarkData.ROLE_PARAMETER);
+    }
+
+    /**
+     * 刷新即将过期的令牌
+     *
+     * @return 新令牌
+     */
+    @Benchmark
+    public String refresh() {
+        return JwtUtils.refresh(expiringToken, BenchmarkData.ONE_MINUTE, BenchmarkData.SECRET);
+    }
+
+    /**
+     * 刷新无需刷新的令牌，只包含校验开销
+     *
+     * @return null
+     */
+    @Benchmark
+    public String refreshNotNeeded() {
+        return JwtUtils.refresh(token, BenchmarkData.ONE_MINUTE, BenchmarkData.SECRET);
+    }
+
+    /**
+     * 使用密钥环校验当前密钥签发的令牌
+     *
+     * @return 校验结果
+     */
+    @Benchmark
+    public VerifiedToken verifyActiveKey() {
+        return JwtUtils.verify(activeToken, keyRing);
+    }
+
+    /**
+     * 使用密钥环校验已轮换的旧密钥签发的令牌，开销应与当前密钥相同
+     *
+     * @return 校验结果
+     */
+    @Benchmark
+    public VerifiedToken verifyRetiredKey() {
+        return JwtUtils.verify(retiredToken, keyRing);
+    }
+}
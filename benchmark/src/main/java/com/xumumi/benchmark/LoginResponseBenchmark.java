@@ -0,0 +1,123 @@
+package com.xumumi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.xumumi.util.LoginResponseSerializer;
+import com.xumumi.util.LoginResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录响应序列化的性能测试，对比序列化整个认证信息再经 {@link PrintWriter} 写入与默认精简响应直接写入输出流
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginResponseBenchmark {
+    /**
+     * 登录失败的错误信息
+     */
+    private static final String FAILURE_MESSAGE = "Bad credentials";
+
+    private final ObjectWriter objectWriter = new ObjectMapper().writer();
+    private final LoginResponseSerializer serializer = LoginResponseSerializer.createLoginResponseSerializer();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    private Authentication authResult;
+
+    /**
+     * 生成认证信息，详细信息为请求参数表
+     */
+    @Setup
+    public void setup() {
+        final BenchmarkData.User user = new BenchmarkData.User(BenchmarkData.SUBJECT, BenchmarkData.ROLE);
+        final UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority(BenchmarkData.ROLE)));
+        final Map<String, String[]> parameterMap = new HashMap<>(4);
+        parameterMap.put("remember", new String[]{"true"});
+        token.setDetails(parameterMap);
+        authResult = token;
+    }
+
+    /**
+     * 原有方式：序列化整个认证信息为字符串后经字符流写入
+     *
+     * @return 写入的字节数
+     * @throws IOException 读写异常
+     */
+    @Benchmark
+    public int successLegacy() throws IOException {
+        out.reset();
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(objectWriter.writeValueAsString(authResult));
+        writer.flush();
+        return out.size();
+    }
+
+    /**
+     * 默认精简响应直接写入输出流
+     *
+     * @return 写入的字节数
+     * @throws IOException 读写异常
+     */
+    @Benchmark
+    public int successCompact() throws IOException {
+        out.reset();
+        serializer.write(out, LoginResult.createLoginResult(authResult));
+        return out.size();
+    }
+
+    /**
+     * 原有方式：每次序列化错误信息
+     *
+     * @return 写入的字节数
+     * @throws IOException 读写异常
+     */
+    @Benchmark
+    public int failureLegacy() throws IOException {
+        out.reset();
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(objectWriter.writeValueAsString(FAILURE_MESSAGE));
+        writer.flush();
+        return out.size();
+    }
+
+    /**
+     * 使用预先序列化的错误信息
+     *
+     * @return 写入的字节数
+     * @throws IOException 读写异常
+     */
+    @Benchmark
+    public int failurePrebuilt() throws IOException {
+        out.reset();
+        out.write(serializer.getFailureBody(FAILURE_MESSAGE));
+        return out.size();
+    }
+}
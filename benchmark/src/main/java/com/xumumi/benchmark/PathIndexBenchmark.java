@@ -0,0 +1,177 @@
+package com.xumumi.benchmark;
+
+import com.xumumi.authorize.Access;
+import com.xumumi.authorize.PathIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PathIndex} 与逐条匹配 {@link AntPathRequestMatcher} 的授权查找性能对比
+ * 逐条匹配与 Spring Security 按声明顺序查找第一条匹配规则的方式相同
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathIndexBenchmark {
+    /**
+     * 角色授权规则数量
+     */
+    @Param({"10", "100", "500"})
+    private int routeCount;
+
+    private PathIndex pathIndex;
+    private List<RequestMatcher> matchers;
+    private List<Access> accesses;
+    private MockHttpServletRequest firstRoute;
+    private MockHttpServletRequest lastRoute;
+    private MockHttpServletRequest unmatched;
+
+    /**
+     * 生成规则和请求
+     */
+    @Setup
+    public void setup() {
+        final String[] permitAll = {"/login", "/static/**", "/*.ico"};
+        final String[] authentication = {"/me", "/api/**/profile"};
+        final Map<Serializable, Serializable> roleRightsMap = new LinkedHashMap<>(routeCount * 2);
+        for (int i = 0; i < routeCount; i++) {
+            roleRightsMap.put(new String[]{"ROLE" + i, "ADMIN"},
+                    new String[]{"/api/module" + i + "/**", "/admin/module" + i + "/*/edit"});
+        }
+        pathIndex = PathIndex.createPathIndex(permitAll, authentication, roleRightsMap);
+        matchers = new ArrayList<>(routeCount * 2 + permitAll.length + authentication.length);
+        accesses = new ArrayList<>(routeCount * 2 + permitAll.length + authentication.length);
+        for (final String pattern : permitAll) {
+            matchers.add(new AntPathRequestMatcher(pattern));
+            accesses.add(Access.PERMIT_ALL);
+        }
+        for (final String pattern : authentication) {
+            matchers.add(new AntPathRequestMatcher(pattern));
+            accesses.add(Access.AUTHENTICATED);
+        }
+        roleRightsMap.forEach((key, value) -> {
+            final Access access = Access.hasAnyRole((String[]) key);
+            for (final String pattern : (String[]) value) {
+                matchers.add(new AntPathRequestMatcher(pattern));
+                accesses.add(access);
+            }
+        });
+        firstRoute = request("/api/module0/orders/42");
+        lastRoute = request("/admin/module" + (routeCount - 1) + "/42/edit");
+        unmatched = request("/unknown/path/segment");
+    }
+
+    /**
+     * 前缀树查找第一条规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access indexFirstRoute() {
+        return pathIndex.match(firstRoute);
+    }
+
+    /**
+     * 前缀树查找最后一条规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access indexLastRoute() {
+        return pathIndex.match(lastRoute);
+    }
+
+    /**
+     * 前缀树查找不存在的规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access indexUnmatched() {
+        return pathIndex.match(unmatched);
+    }
+
+    /**
+     * 逐条匹配第一条规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access chainFirstRoute() {
+        return chain(firstRoute);
+    }
+
+    /**
+     * 逐条匹配最后一条规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access chainLastRoute() {
+        return chain(lastRoute);
+    }
+
+    /**
+     * 逐条匹配不存在的规则
+     *
+     * @return 访问规则
+     */
+    @Benchmark
+    public Access chainUnmatched() {
+        return chain(unmatched);
+    }
+
+    /**
+     * 按声明顺序逐条匹配
+     *
+     * @param request 请求
+     * @return 第一条匹配的访问规则，没有匹配时禁止访问
+     */
+    private Access chain(final MockHttpServletRequest request) {
+        Access ret = Access.DENY_ALL;
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(request)) {
+                ret = accesses.get(i);
+                break;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * 生成请求
+     *
+     * @param path 路径
+     * @return 请求
+     */
+    private static MockHttpServletRequest request(final String path) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,145 @@
+package com.xumumi.authorize;
+
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 访问规则，与 Spring Security 的 permitAll、authenticated、hasAnyRole 和 denyAll 含义相同
+ * 该类不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class Access {
+    /**
+     * 角色前缀，与 hasAnyRole 相同
+     */
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    /**
+     * 无需授权
+     */
+    public static final Access PERMIT_ALL = new Access(Type.PERMIT_ALL, Collections.emptySet());
+    /**
+     * 需登录
+     */
+    public static final Access AUTHENTICATED = new Access(Type.AUTHENTICATED, Collections.emptySet());
+    /**
+     * 禁止访问
+     */
+    public static final Access DENY_ALL = new Access(Type.DENY_ALL, Collections.emptySet());
+
+    private final Type type;
+    private final Set<String> authorities;
+
+    /**
+     * 构造器
+     *
+     * @param type        规则类型
+     * @param authorities 允许的权限
+     */
+    private Access(final Type type, final Set<String> authorities) {
+        this.type = type;
+        this.authorities = authorities;
+    }
+
+    /**
+     * 拥有任一角色即可访问
+     *
+     * @param roles 角色，不带 ROLE_ 前缀
+     * @return 访问规则
+     */
+    public static Access hasAnyRole(final String... roles) {
+        final Set<String> authorities = new HashSet<>(roles.length * 2);
+        for (final String role : roles) {
+            authorities.add(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role);
+        }
+        return new Access(Type.HAS_ANY_ROLE, Collections.unmodifiableSet(authorities));
+    }
+
+    /**
+     * 判断是否允许访问
+     *
+     * @param authentication 用户认证信息，可为 null
+     * @return 允许布尔值
+     */
+    public boolean isGranted(final Authentication authentication) {
+        final boolean ret;
+        switch (type) {
+            case PERMIT_ALL:
+                ret = true;
+                break;
+            case AUTHENTICATED:
+                ret = null != authentication && !TRUST_RESOLVER.isAnonymous(authentication);
+                break;
+            case HAS_ANY_ROLE:
+                ret = null != authentication && hasAnyAuthority(authentication);
+                break;
+            default:
+                ret = false;
+                break;
+        }
+        return ret;
+    }
+
+    /**
+     * 获取规则类型
+     *
+     * @return 规则类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 是否拥有任一权限
+     *
+     * @param authentication 用户认证信息
+     * @return 拥有布尔值
+     */
+    private boolean hasAnyAuthority(final Authentication authentication) {
+        boolean ret = false;
+        for (final GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authorities.contains(authority.getAuthority())) {
+                ret = true;
+                break;
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return Type.HAS_ANY_ROLE == type ? "hasAnyRole" + Arrays.toString(authorities.toArray()) : type.name();
+    }
+
+    /**
+     * 规则类型
+     */
+    public enum Type {
+        /**
+         * 无需授权
+         */
+        PERMIT_ALL,
+        /**
+         * 需登录
+         */
+        AUTHENTICATED,
+        /**
+         * 拥有任一角色
+         */
+        HAS_ANY_ROLE,
+        /**
+         * 禁止访问
+         */
+        DENY_ALL
+    }
+}
@@ -0,0 +1,466 @@
+package com.xumumi.authorize;
+
+import com.xumumi.filter.constant.Number;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 路径前缀树授权索引
+ * 在启动时将无需授权、需登录和角色授权的 Ant 风格地址编译为按路径段组织的前缀树，每个请求按路径逐段查找，
+ * 纯文字路径段使用哈希表直接定位，不含 ** 的地址开销与路径长度成正比而与规则数量无关
+ * ** 可以匹配任意个路径段，需要尝试每个剩余位置，同一条地址含多个 ** 时最坏开销随 ** 个数按路径长度的幂增长，
+ * 每个节点记录子树中最小的规则序号，不可能优于当前结果的分支不再查找
+ * 多条规则同时匹配时使用最先声明的规则，与 Spring Security 按顺序逐条匹配的结果相同，没有规则匹配时禁止访问
+ * 支持 *、**、? 和 {name}、{name:regex} 写法，路径区分大小写
+ * 开头和末尾的 / 与 {@link org.springframework.util.AntPathMatcher} 一致：开头是否有 / 的地址和路径互不匹配，
+ * 不含 ** 的地址只匹配末尾 / 相同的路径，以 * 结尾时还匹配去掉该段后以 / 结尾的路径，含 ** 的地址忽略末尾的 /
+ * 该类在创建后不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @see PathIndexVoter
+ * @since 1.9
+ */
+public final class PathIndex {
+    private static final String SEPARATOR = "/";
+    private static final String ANY_SEGMENT = "*";
+    private static final String ANY_PATH = "**";
+    private static final String MATCH_ALL = "/**";
+    private static final Pattern SPLITTER = Pattern.compile(SEPARATOR);
+
+    /**
+     * 以 / 开头的地址
+     */
+    private final Node root = new Node();
+    /**
+     * 不以 / 开头的地址
+     */
+    private final Node relativeRoot = new Node();
+    private int ruleCount;
+
+    /**
+     * 构造器
+     */
+    private PathIndex() {
+    }
+
+    /**
+     * {@link PathIndex} 生成器，规则顺序与 {@link com.xumumi.configure.BaseJwtSecurityConfigurerAdapter} 相同
+     *
+     * @param permitAll      无需授权的地址
+     * @param authentication 需登录的地址
+     * @param roleRightsMap  以角色字符串或字符串数组为键名，地址字符串或字符串数组为键值的表
+     * @return {@link PathIndex} 对象
+     */
+    public static PathIndex createPathIndex(final String[] permitAll, final String[] authentication,
+                                            final Map<? extends Serializable, ? extends Serializable> roleRightsMap) {
+        final PathIndex index = new PathIndex();
+        index.add(permitAll, Access.PERMIT_ALL);
+        index.add(authentication, Access.AUTHENTICATED);
+        if (null != roleRightsMap) {
+            roleRightsMap.forEach((key, value) -> index.add(toArray(value), Access.hasAnyRole(toArray(key))));
+        }
+        return index;
+    }
+
+    /**
+     * 查找请求对应的访问规则
+     *
+     * @param request 请求
+     * @return 访问规则，没有规则匹配时为 {@link Access#DENY_ALL}
+     */
+    public Access match(@NonNull final HttpServletRequest request) {
+        return match(getRequestPath(request));
+    }
+
+    /**
+     * 查找路径对应的访问规则
+     *
+     * @param path 路径
+     * @return 访问规则，没有规则匹配时为 {@link Access#DENY_ALL}
+     */
+    public Access match(@NonNull final String path) {
+        final Node start = path.startsWith(SEPARATOR) ? root : relativeRoot;
+        final Rule[] best = new Rule[1];
+        start.match(tokenize(path), 0, path.endsWith(SEPARATOR), best);
+        return null != best[0] ? best[0].access : Access.DENY_ALL;
+    }
+
+    /**
+     * 生成匹配无需授权地址的请求匹配器，可用于跳过令牌处理
+     *
+     * @return 请求匹配器
+     */
+    public RequestMatcher permitAllMatcher() {
+        return request -> Access.PERMIT_ALL == match(request);
+    }
+
+    /**
+     * 获取规则数量
+     *
+     * @return 规则数量
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * 添加一组地址
+     *
+     * @param patterns 地址
+     * @param access   访问规则
+     */
+    private void add(final String[] patterns, final Access access) {
+        if (null != patterns) {
+            for (final String pattern : patterns) {
+                if (null != pattern && !pattern.isEmpty()) {
+                    add(pattern, new Rule(ruleCount++, access));
+                }
+            }
+        }
+    }
+
+    /**
+     * 添加一条地址
+     *
+     * @param pattern 地址
+     * @param rule    规则
+     */
+    private void add(final String pattern, final Rule rule) {
+        if (MATCH_ALL.equals(pattern) || ANY_PATH.equals(pattern)) {
+            /* 与 AntPathRequestMatcher 相同，匹配任意路径 */
+            add(root, pattern, rule);
+            add(relativeRoot, pattern, rule);
+        } else {
+            add(pattern.startsWith(SEPARATOR) ? root : relativeRoot, pattern, rule);
+        }
+    }
+
+    /**
+     * 从指定的根节点添加一条地址
+     *
+     * @param start   根节点
+     * @param pattern 地址
+     * @param rule    规则
+     */
+    private static void add(final Node start, final String pattern, final Rule rule) {
+        Node parent = null;
+        Node node = start;
+        String last = null;
+        boolean anyPath = false;
+        /* 沿途节点记录子树中最小的规则序号，用于匹配时剪枝 */
+        node.bound(rule);
+        for (final String segment : tokenize(pattern)) {
+            parent = node;
+            node = node.child(segment);
+            node.bound(rule);
+            last = segment;
+            anyPath |= ANY_PATH.equals(segment);
+        }
+        if (anyPath) {
+            /* 含 ** 时末尾是否有 / 都匹配 */
+            node.setRule(rule, false);
+            node.setRule(rule, true);
+        } else {
+            node.setRule(rule, pattern.endsWith(SEPARATOR));
+            if (ANY_SEGMENT.equals(last)) {
+                /* 以 * 结尾时还匹配去掉该段后以 / 结尾的路径，比如 /api/* 匹配 /api/ */
+                parent.setEmptySegmentRule(rule);
+            }
+        }
+    }
+
+    /**
+     * 获取请求路径，与 {@link org.springframework.security.web.util.matcher.AntPathRequestMatcher} 相同
+     *
+     * @param request 请求
+     * @return 路径
+     */
+    private static String getRequestPath(final HttpServletRequest request) {
+        final String servletPath = request.getServletPath();
+        final String pathInfo = request.getPathInfo();
+        final String path;
+        if (null == pathInfo) {
+            path = null != servletPath ? servletPath : "";
+        } else {
+            path = null != servletPath && !servletPath.isEmpty() ? servletPath + pathInfo : pathInfo;
+        }
+        return path;
+    }
+
+    /**
+     * 按 / 拆分路径并忽略空段
+     *
+     * @param path 路径
+     * @return 路径段
+     */
+    private static String[] tokenize(final String path) {
+        final String[] parts = SPLITTER.split(path);
+        int count = 0;
+        for (final String part : parts) {
+            if (!part.isEmpty()) {
+                parts[count++] = part;
+            }
+        }
+        final String[] segments = new String[count];
+        System.arraycopy(parts, 0, segments, 0, count);
+        return segments;
+    }
+
+    /**
+     * 将字符串或字符串数组转换为数组
+     *
+     * @param value 字符串或字符串数组
+     * @return 字符串数组
+     */
+    private static String[] toArray(final Serializable value) {
+        return value instanceof String[] ? (String[]) value : new String[]{(String) value};
+    }
+
+    /**
+     * 将含通配符的路径段编译为正则表达式
+     *
+     * @param segment 路径段
+     * @return 正则表达式
+     */
+    private static Pattern compile(final String segment) {
+        final StringBuilder regex = new StringBuilder(segment.length() * 2);
+        int i = 0;
+        while (i < segment.length()) {
+            final char c = segment.charAt(i);
+            if ('*' == c) {
+                regex.append(".*");
+                i++;
+            } else if ('?' == c) {
+                regex.append('.');
+                i++;
+            } else if ('{' == c) {
+                /* 查找对应的右括号，变量内的正则表达式可以包含成对的括号 */
+                int depth = 1, end = i + 1;
+                while (end < segment.length() && 0 < depth) {
+                    final char e = segment.charAt(end);
+                    depth += '{' == e ? 1 : '}' == e ? -1 : 0;
+                    end++;
+                }
+                final String variable = segment.substring(i + 1, end - 1);
+                final int colon = variable.indexOf(':');
+                regex.append('(').append(0 <= colon ? variable.substring(colon + 1) : ".*").append(')');
+                i = end;
+            } else {
+                int end = i;
+                while (end < segment.length() && 0 > "*?{".indexOf(segment.charAt(end))) {
+                    end++;
+                }
+                regex.append(Pattern.quote(segment.substring(i, end)));
+                i = end;
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * 是否为文字路径段
+     *
+     * @param segment 路径段
+     * @return 文字布尔值
+     */
+    private static boolean isLiteral(final String segment) {
+        return 0 > segment.indexOf('*') && 0 > segment.indexOf('?') && 0 > segment.indexOf('{');
+    }
+
+    /**
+     * 规则，序号越小越优先
+     */
+    private static final class Rule {
+        private final int order;
+        private final Access access;
+
+        /**
+         * 构造器
+         *
+         * @param order  声明顺序
+         * @param access 访问规则
+         */
+        Rule(final int order, final Access access) {
+            this.order = order;
+            this.access = access;
+        }
+    }
+
+    /**
+     * 含通配符的路径段及其子节点
+     */
+    private static final class PatternChild {
+        private final String segment;
+        private final Pattern pattern;
+        private final Node node = new Node();
+
+        /**
+         * 构造器
+         *
+         * @param segment 路径段
+         */
+        PatternChild(final String segment) {
+            this.segment = segment;
+            pattern = compile(segment);
+        }
+    }
+
+    /**
+     * 前缀树节点
+     */
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>(Number.INITIAL_CAPACITY);
+        private final List<PatternChild> patterns = new ArrayList<>(0);
+        private Node anySegment;
+        private Node anyPath;
+        private Rule rule;
+        private Rule slashRule;
+        /**
+         * 以 * 段在该节点之后结尾的规则，路径在该节点结束且以 / 结尾时匹配
+         */
+        private Rule emptySegmentRule;
+        /**
+         * 子树中最小的规则序号，包括本节点的规则
+         */
+        private int minOrder = Integer.MAX_VALUE;
+
+        /**
+         * 获取或创建子节点
+         *
+         * @param segment 路径段
+         * @return 子节点
+         */
+        Node child(final String segment) {
+            final Node ret;
+            if (ANY_PATH.equals(segment)) {
+                anyPath = null != anyPath ? anyPath : new Node();
+                ret = anyPath;
+            } else if (ANY_SEGMENT.equals(segment)) {
+                anySegment = null != anySegment ? anySegment : new Node();
+                ret = anySegment;
+            } else if (isLiteral(segment)) {
+                ret = literals.computeIfAbsent(segment, s -> new Node());
+            } else {
+                PatternChild found = null;
+                for (final PatternChild child : patterns) {
+                    if (child.segment.equals(segment)) {
+                        found = child;
+                        break;
+                    }
+                }
+                if (null == found) {
+                    found = new PatternChild(segment);
+                    patterns.add(found);
+                }
+                ret = found.node;
+            }
+            return ret;
+        }
+
+        /**
+         * 记录子树中的规则序号
+         *
+         * @param newRule 经过或在该节点结束的规则
+         */
+        void bound(final Rule newRule) {
+            minOrder = Math.min(minOrder, newRule.order);
+        }
+
+        /**
+         * 设置在该节点结束的规则，同一地址重复声明时保留最先声明的规则
+         *
+         * @param newRule       规则
+         * @param trailingSlash 地址是否以 / 结尾
+         */
+        void setRule(final Rule newRule, final boolean trailingSlash) {
+            if (trailingSlash) {
+                slashRule = null != slashRule ? slashRule : newRule;
+            } else {
+                rule = null != rule ? rule : newRule;
+            }
+        }
+
+        /**
+         * 设置以 * 段在该节点之后结尾的规则，同一地址重复声明时保留最先声明的规则
+         *
+         * @param newRule 规则
+         */
+        void setEmptySegmentRule(final Rule newRule) {
+            emptySegmentRule = null != emptySegmentRule ? emptySegmentRule : newRule;
+        }
+
+        /**
+         * 从第 index 个路径段开始匹配，记录序号最小的规则，子树中的规则都晚于当前最优规则时不再查找
+         *
+         * @param segments      路径段
+         * @param index         当前路径段
+         * @param trailingSlash 路径是否以 / 结尾
+         * @param best          当前最优规则
+         */
+        void match(final String[] segments, final int index, final boolean trailingSlash, final Rule[] best) {
+            /* 子树中没有比当前最优规则更早声明的规则时剪枝 */
+            if (improves(best)) {
+                if (segments.length == index) {
+                    offer(trailingSlash ? slashRule : rule, best);
+                    if (trailingSlash) {
+                        offer(emptySegmentRule, best);
+                    }
+                    /* ** 可以匹配零个路径段 */
+                    if (null != anyPath) {
+                        anyPath.match(segments, index, trailingSlash, best);
+                    }
+                } else {
+                    final String segment = segments[index];
+                    final Node literal = literals.get(segment);
+                    if (null != literal) {
+                        literal.match(segments, index + 1, trailingSlash, best);
+                    }
+                    for (final PatternChild child : patterns) {
+                        /* 先比较规则序号，不可能更优的兄弟节点不执行正则匹配 */
+                        if (child.node.improves(best) && child.pattern.matcher(segment).matches()) {
+                            child.node.match(segments, index + 1, trailingSlash, best);
+                        }
+                    }
+                    if (null != anySegment) {
+                        anySegment.match(segments, index + 1, trailingSlash, best);
+                    }
+                    if (null != anyPath) {
+                        for (int i = index; i <= segments.length && anyPath.improves(best); i++) {
+                            anyPath.match(segments, i, trailingSlash, best);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 子树中是否可能有比当前最优规则更早声明的规则
+         *
+         * @param best 当前最优规则
+         * @return 可能更优布尔值
+         */
+        private boolean improves(final Rule[] best) {
+            return null == best[0] || minOrder < best[0].order;
+        }
+
+        /**
+         * 与当前最优规则比较
+         *
+         * @param candidate 候选规则
+         * @param best      当前最优规则
+         */
+        private static void offer(final Rule candidate, final Rule[] best) {
+            if (null != candidate && (null == best[0] || candidate.order < best[0].order)) {
+                best[0] = candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.xumumi.authorize;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 路径前缀树响应式授权管理器，{@link PathIndexVoter} 的响应式版本
+ * 配合 anyExchange().access(...) 使用，每个请求只查找一次前缀树
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class PathIndexAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+    private final PathIndex pathIndex;
+
+    /**
+     * 构造器
+     *
+     * @param index 路径前缀树授权索引
+     */
+    private PathIndexAuthorizationManager(@NonNull final PathIndex index) {
+        pathIndex = index;
+    }
+
+    /**
+     * {@link PathIndexAuthorizationManager} 生成器
+     *
+     * @param index 路径前缀树授权索引
+     * @return {@link PathIndexAuthorizationManager} 对象
+     */
+    public static PathIndexAuthorizationManager createPathIndexAuthorizationManager(@NonNull final PathIndex index) {
+        return new PathIndexAuthorizationManager(index);
+    }
+
+    /**
+     * 授权
+     *
+     * @param authentication 用户认证信息，未登录时为空
+     * @param context        请求
+     * @return 允许或拒绝
+     */
+    @Override
+    public Mono<AuthorizationDecision> check(final Mono<Authentication> authentication,
+                                             final AuthorizationContext context) {
+        final Access access = match(context.getExchange());
+        return authentication.map(access::isGranted)
+                .defaultIfEmpty(access.isGranted(null))
+                .map(AuthorizationDecision::new);
+    }
+
+    /**
+     * 生成匹配无需授权地址的请求匹配器，可用于跳过令牌处理
+     *
+     * @return 请求匹配器
+     */
+    public ServerWebExchangeMatcher permitAllMatcher() {
+        return exchange -> Access.PERMIT_ALL == match(exchange) ?
+                ServerWebExchangeMatcher.MatchResult.match() : ServerWebExchangeMatcher.MatchResult.notMatch();
+    }
+
+    /**
+     * 查找请求对应的访问规则，使用去除上下文路径后的地址
+     *
+     * @param exchange 请求和响应
+     * @return 访问规则
+     */
+    private Access match(final ServerWebExchange exchange) {
+        return pathIndex.match(exchange.getRequest().getPath().pathWithinApplication().value());
+    }
+}
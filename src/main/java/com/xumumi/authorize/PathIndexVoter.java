@@ -0,0 +1,75 @@
+package com.xumumi.authorize;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.FilterInvocation;
+
+import java.util.Collection;
+
+/**
+ * 路径前缀树授权投票器，只根据 {@link PathIndex} 的查找结果投票，不使用配置属性和表达式
+ * 配合 {@link org.springframework.security.access.vote.AffirmativeBased} 使用时应作为唯一的投票器
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class PathIndexVoter implements AccessDecisionVoter<FilterInvocation> {
+    private final PathIndex pathIndex;
+
+    /**
+     * 构造器
+     *
+     * @param index 路径前缀树授权索引
+     */
+    private PathIndexVoter(@NonNull final PathIndex index) {
+        pathIndex = index;
+    }
+
+    /**
+     * {@link PathIndexVoter} 生成器
+     *
+     * @param index 路径前缀树授权索引
+     * @return {@link PathIndexVoter} 对象
+     */
+    public static PathIndexVoter createPathIndexVoter(@NonNull final PathIndex index) {
+        return new PathIndexVoter(index);
+    }
+
+    /**
+     * 不依赖配置属性，所有属性都支持
+     *
+     * @param attribute 配置属性
+     * @return 支持布尔值
+     */
+    @Override
+    public boolean supports(final ConfigAttribute attribute) {
+        return true;
+    }
+
+    /**
+     * 只支持 Web 请求
+     *
+     * @param clazz 被保护对象的类型
+     * @return 支持布尔值
+     */
+    @Override
+    public boolean supports(final Class<?> clazz) {
+        return FilterInvocation.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * 投票
+     *
+     * @param authentication 用户认证信息
+     * @param invocation     请求
+     * @param attributes     配置属性，不使用
+     * @return 允许或拒绝，不弃权
+     */
+    @Override
+    public int vote(final Authentication authentication, final FilterInvocation invocation,
+                    final Collection<ConfigAttribute> attributes) {
+        return pathIndex.match(invocation.getRequest()).isGranted(authentication) ? ACCESS_GRANTED : ACCESS_DENIED;
+    }
+}
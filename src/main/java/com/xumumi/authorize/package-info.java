@@ -0,0 +1,4 @@
+/**
+ * 授权类包
+ */
+package com.xumumi.authorize;
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.xumumi.configure;
+
+import com.xumumi.authorize.PathIndex;
+import com.xumumi.authorize.PathIndexAuthorizationManager;
+import com.xumumi.configure.config.AuthorizeConfig;
+import com.xumumi.configure.config.BasicConfig;
+import com.xumumi.configure.config.TokenConfig;
+import com.xumumi.filter.reactive.ReactiveJwtAuthenticationFilter;
+import com.xumumi.filter.reactive.ReactiveJwtLoginFilter;
+import com.xumumi.filter.reactive.ReactiveSecretProvider;
+import com.xumumi.filter.reactive.impl.ReactiveJwtAuthenticationFilterImpl;
+import com.xumumi.filter.reactive.impl.ReactiveJwtLoginFilterImpl;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.util.ClaimAliases;
+import org.apache.commons.lang.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.csrf.CookieServerCsrfTokenRepository;
+import org.springframework.security.web.server.csrf.CsrfWebFilter;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.OrServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 响应式安全过滤器配置，{@link BaseJwtSecurityConfigurerAdapter} 的 WebFlux 版本，使用相同的配置类
+ * 可以直接通过继承此类并加上 {@link org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity} 来实现最基础的配置
+ * 授权规则总是编译为 {@link PathIndex}，密钥回调、守卫回调和 cookies 回调以 servlet 请求为参数，在此不生效
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@SuppressWarnings({"SpringJavaAutowiredMembersInspection", "AbstractClassNeverImplemented"})
+@ComponentScan("com.xumumi.*")
+public abstract class BaseJwtReactiveSecurityConfigurer {
+    @Autowired
+    private BasicConfig basicConfig;
+    @Autowired
+    private AuthorizeConfig authorizeConfig;
+    @Autowired
+    private TokenConfig tokenConfig;
+    @Autowired(required = false)
+    private ReactiveUserDetailsService userDetailsService;
+    @Autowired(required = false)
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * 配置过滤器设置方法，继承后通过重写该函数进行配置
+     *
+     * @param basic     基础配置
+     * @param authorize 授权配置
+     * @param token     token 配置
+     * @see BasicConfig
+     * @see AuthorizeConfig
+     */
+    protected abstract void configure(final BasicConfig basic,
+                                      final AuthorizeConfig authorize,
+                                      final TokenConfig token);
+
+    /**
+     * 获取登录使用的认证管理器，默认由 {@link ReactiveUserDetailsService} 和 {@link PasswordEncoder} 生成，可重写
+     *
+     * @return 认证管理器
+     * @throws IllegalStateException 没有可用的 {@link ReactiveUserDetailsService}
+     */
+    @SuppressWarnings("DesignForExtension")
+    protected ReactiveAuthenticationManager getAuthenticationManager() {
+        if (null == userDetailsService) {
+            throw new IllegalStateException("需要提供 ReactiveUserDetailsService 或重写 getAuthenticationManager");
+        }
+        final UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        if (null != passwordEncoder) {
+            manager.setPasswordEncoder(passwordEncoder);
+        }
+        return manager;
+    }
+
+    /**
+     * 获取密钥提供者，可重写
+     * 默认使用 {@link TokenConfig#getSecretProvider()}，只适用于与请求无关的提供者；未设置时与 servlet 版本相同，以请求的来源地址为密钥
+     *
+     * @param token token 配置
+     * @return 密钥提供者
+     * @throws IllegalArgumentException 配置的提供者按请求区分密钥，比如多租户和回调密钥提供者，需重写该方法
+     */
+    @SuppressWarnings("DesignForExtension")
+    protected ReactiveSecretProvider getSecretProvider(final TokenConfig token) {
+        final SecretProvider provider = token.getSecretProvider();
+        return null != provider ? ReactiveSecretProvider.of(provider) :
+                ReactiveSecretProvider.createSecretProvider(BaseJwtReactiveSecurityConfigurer::getRemoteAddress,
+                        Objects.requireNonNullElse(token.getSigningAlgorithm(), SigningAlgorithm.HS256));
+    }
+
+    /**
+     * 生成过滤链
+     *
+     * @param http 用于配置 http 信息
+     * @return 过滤链
+     */
+    @SuppressWarnings("ChainedMethodCall")
+    @Bean
+    public SecurityWebFilterChain jwtSecurityWebFilterChain(final ServerHttpSecurity http) {
+        /* 获取配置 */
+        configure(basicConfig, authorizeConfig, tokenConfig);
+        final String loginProcessingUrl = basicConfig.getLoginProcessingUrl();
+        /* 白名单 */
+        String[] permitAll = authorizeConfig.getPermitAll();
+        //noinspection SuspiciousArrayCast
+        permitAll = (String[]) ArrayUtils.add(permitAll, loginProcessingUrl);
+        final Map<? extends Serializable, ? extends Serializable> roleRightsMap = authorizeConfig.getRoleRightsMap();
+        final PathIndex pathIndex = PathIndex.createPathIndex(permitAll, authorizeConfig.getAuthentication(),
+                roleRightsMap);
+        final PathIndexAuthorizationManager authorizationManager =
+                PathIndexAuthorizationManager.createPathIndexAuthorizationManager(pathIndex);
+        final ServerWebExchangeMatcher permitAllMatcher = authorizationManager.permitAllMatcher();
+        /* 跳过令牌处理 */
+        final String[] skip = authorizeConfig.getSkip();
+        final ServerWebExchangeMatcher skipList = ArrayUtils.isEmpty(skip) ? null :
+                ServerWebExchangeMatchers.pathMatchers(skip);
+        final ServerWebExchangeMatcher skipMatcher;
+        if (!authorizeConfig.isSkipPermitAll()) {
+            skipMatcher = skipList;
+        } else if (null == skipList) {
+            skipMatcher = permitAllMatcher;
+        } else {
+            skipMatcher = new OrServerWebExchangeMatcher(permitAllMatcher, skipList);
+        }
+        /* 配置过滤器 */
+        final ReactiveSecretProvider secretProvider = getSecretProvider(tokenConfig);
+        final ClaimAliases claimAliases = ClaimAliases.of(tokenConfig.getClaimAliases());
+        final ReactiveJwtLoginFilter loginFilter = createLoginFilter(loginProcessingUrl, secretProvider,
+                claimAliases);
+        final ReactiveJwtAuthenticationFilter authenticationFilter = createAuthenticationFilter(secretProvider,
+                skipMatcher, claimAliases);
+        /* 写入 */
+        http
+                /* 登录过滤器 */
+                .addFilterAt(loginFilter, SecurityWebFiltersOrder.FORM_LOGIN)
+                /* 请求过滤器 */
+                .addFilterAt(authenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                /* 无状态身份处理不需要 session */
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange().anyExchange().access(authorizationManager);
+        /* 配置拦截器 */
+        http.csrf()
+                /* 拦截跨站请求伪造 */
+                .csrfTokenRepository(CookieServerCsrfTokenRepository.withHttpOnlyFalse())
+                /* 忽略白名单 */
+                .requireCsrfProtectionMatcher(new AndServerWebExchangeMatcher(CsrfWebFilter.DEFAULT_CSRF_MATCHER,
+                        new NegatedServerWebExchangeMatcher(permitAllMatcher)));
+        return http.build();
+    }
+
+    /**
+     * 生成登录过滤器
+     *
+     * @param loginProcessingUrl 登录请求地址
+     * @param secretProvider     密钥提供者
+     * @param claimAliases       字段名别名表
+     * @return 登录过滤器
+     */
+    private ReactiveJwtLoginFilter createLoginFilter(final String loginProcessingUrl,
+                                                     final ReactiveSecretProvider secretProvider,
+                                                     final ClaimAliases claimAliases) {
+        final ReactiveJwtLoginFilter loginFilter = ReactiveJwtLoginFilterImpl.createJwtLoginFilter(
+                getAuthenticationManager(), loginProcessingUrl, secretProvider);
+        loginFilter.setSuccessCallback(basicConfig.getSuccessCallback());
+        loginFilter.setFailureCallback(basicConfig.getFailureCallback());
+        loginFilter.setUsernameParameter(basicConfig.getUsernameParameter());
+        loginFilter.setPasswordParameter(basicConfig.getPasswordParameter());
+        loginFilter.setMaxBodySize(basicConfig.getMaxBodySize());
+        loginFilter.setTokenName(tokenConfig.getTokenName());
+        loginFilter.setRoleParameter(basicConfig.getRoleParameter());
+        loginFilter.setRoleExtractor(basicConfig.getRoleExtractor());
+        loginFilter.setClaimCallback(tokenConfig.getClaimCallback());
+        loginFilter.setRmbParameter(tokenConfig.getRmbParameter());
+        loginFilter.setRmbValue(tokenConfig.getRmbValue());
+        loginFilter.setRmbExpireTime(tokenConfig.getRmbExpireTime());
+        loginFilter.setDefaultExpireTime(tokenConfig.getDefaultExpireTime());
+        loginFilter.setMetrics(basicConfig.getMetrics());
+        loginFilter.setClaimAliases(claimAliases);
+        return loginFilter;
+    }
+
+    /**
+     * 生成请求过滤器
+     *
+     * @param secretProvider 密钥提供者
+     * @param skipMatcher    跳过令牌处理的请求
+     * @param claimAliases   字段名别名表
+     * @return 请求过滤器
+     */
+    private ReactiveJwtAuthenticationFilter createAuthenticationFilter(final ReactiveSecretProvider secretProvider,
+                                                                       final ServerWebExchangeMatcher skipMatcher,
+                                                                       final ClaimAliases claimAliases) {
+        final ReactiveJwtAuthenticationFilter authenticationFilter =
+                ReactiveJwtAuthenticationFilterImpl.createJwtAuthenticationFilter(secretProvider);
+        authenticationFilter.setTokenName(tokenConfig.getTokenName());
+        authenticationFilter.setRoleParameter(basicConfig.getRoleParameter());
+        authenticationFilter.setExpireDuration(tokenConfig.getExpireDuration());
+        /* 未单独设置时刷新后的令牌与登录时的默认超时时长相同 */
+        final long refreshLifetime = tokenConfig.getRefreshLifetime();
+        authenticationFilter.setRefreshLifetime(0L != refreshLifetime ? refreshLifetime :
+                tokenConfig.getDefaultExpireTime());
+        authenticationFilter.setRefreshInterval(tokenConfig.getRefreshInterval());
+        authenticationFilter.setKeepLifetime(tokenConfig.isKeepLifetime());
+        authenticationFilter.setTokenCacheSize(tokenConfig.getTokenCacheSize());
+        authenticationFilter.setSkipMatcher(skipMatcher);
+        authenticationFilter.setMetrics(basicConfig.getMetrics());
+        authenticationFilter.setTokenRevocation(tokenConfig.getTokenRevocation());
+        authenticationFilter.setClaimAliases(claimAliases);
+        return authenticationFilter;
+    }
+
+    /**
+     * 获取请求的来源地址，不会进行域名反查
+     *
+     * @param request 请求
+     * @return 来源地址，无法获取时返回 null
+     */
+    private static String getRemoteAddress(final ServerHttpRequest request) {
+        final InetSocketAddress address = request.getRemoteAddress();
+        return null != address ? address.getHostString() : null;
+    }
+}
@@ -1,27 +1,44 @@
 package com.xumumi.configure;
 
+import com.xumumi.authorize.PathIndex;
+import com.xumumi.authorize.PathIndexVoter;
 import com.xumumi.configure.config.AuthorizeConfig;
 import com.xumumi.configure.config.BasicConfig;
 import com.xumumi.configure.config.TokenConfig;
 import com.xumumi.filter.AbstractJsonAuthenticationFilter;
 import com.xumumi.filter.JwtAuthenticationFilter;
 import com.xumumi.filter.JwtLoginFilter;
+import com.xumumi.filter.constant.Number;
 import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
+import com.xumumi.limit.LoginBulkhead;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.secret.impl.CallbackSecretProvider;
+import com.xumumi.util.ClaimAliases;
+import com.xumumi.util.LoginExecutors;
 import org.apache.commons.lang.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.vote.AffirmativeBased;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
-import javax.servlet.http.HttpServletRequest;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * 安全过滤器配置
@@ -45,11 +62,13 @@ public abstract class BaseJwtSecurityConfigurerAdapter extends WebSecurityConfig
     private JwtLoginFilter loginFilter;
     private JwtAuthenticationFilter authenticationFilter;
 
-    private Function<HttpServletRequest, String> secretCallback;
+    private SecretProvider secretProvider;
+    private RequestMatcher skipMatcher;
     private String tokenName;
     private String roleParameter;
     private String loginProcessingUrl;
     private long expireDuration;
+    private ClaimAliases claimAliases;
 
     /**
      * 配置过滤器设置方法，继承后通过重写该函数进行配置
@@ -80,32 +99,60 @@ public abstract class BaseJwtSecurityConfigurerAdapter extends WebSecurityConfig
         String[] permitAll = authorizeConfig.getPermitAll();
         //noinspection SuspiciousArrayCast
         permitAll = (String[]) ArrayUtils.add(permitAll, loginProcessingUrl);
-        http.authorizeRequests().antMatchers(permitAll).permitAll();
-        /* 需登录 */
         final String[] authentication = authorizeConfig.getAuthentication();
-        if (null != authentication) {
-            http.authorizeRequests().antMatchers(authentication).authenticated();
-        }
-
-        /* 角色权限 */
         final Map<? extends Serializable, ? extends Serializable> roleRightsMap = authorizeConfig.getRoleRightsMap();
-        roleRightsMap.forEach((key, value) -> {
-            try {
-                final Class<? extends Serializable> valueClass = value.getClass(), keyClass = key.getClass();
-                http.authorizeRequests()
-                        /* 适配字符串和字符串数组 */
-                        .antMatchers(String[].class == valueClass ? (String[]) value : new String[]{(String) value})
-                        .hasAnyRole(String[].class == keyClass ? (String[]) key : new String[]{(String) key});
-            } catch (final Exception ignored) {
+        final String[] skip = authorizeConfig.getSkip();
+        if (authorizeConfig.isPathIndex()) {
+            /* 编译为路径前缀树，每个请求只查找一次 */
+            final PathIndex pathIndex = PathIndex.createPathIndex(permitAll, authentication, roleRightsMap);
+            http.authorizeRequests()
+                    .accessDecisionManager(new AffirmativeBased(
+                            List.<AccessDecisionVoter<?>>of(PathIndexVoter.createPathIndexVoter(pathIndex))))
+                    .anyRequest().permitAll();
+            /* 跳过令牌处理 */
+            final RequestMatcher skipList = createSkipMatcher(skip);
+            final RequestMatcher permitAllMatcher = pathIndex.permitAllMatcher();
+            if (!authorizeConfig.isSkipPermitAll()) {
+                skipMatcher = skipList;
+            } else if (null == skipList) {
+                skipMatcher = permitAllMatcher;
+            } else {
+                skipMatcher = new OrRequestMatcher(permitAllMatcher, skipList);
             }
-        });
-        /* 其他 */
-        http.authorizeRequests().anyRequest().denyAll();
+        } else {
+            http.authorizeRequests().antMatchers(permitAll).permitAll();
+            /* 跳过令牌处理 */
+            //noinspection SuspiciousArrayCast
+            skipMatcher = createSkipMatcher(authorizeConfig.isSkipPermitAll() ?
+                    (String[]) ArrayUtils.addAll(permitAll, skip) : skip);
+            /* 需登录 */
+            if (null != authentication) {
+                http.authorizeRequests().antMatchers(authentication).authenticated();
+            }
+
+            /* 角色权限 */
+            roleRightsMap.forEach((key, value) -> {
+                try {
+                    final Class<? extends Serializable> valueClass = value.getClass(), keyClass = key.getClass();
+                    http.authorizeRequests()
+                            /* 适配字符串和字符串数组 */
+                            .antMatchers(String[].class == valueClass ? (String[]) value : new String[]{(String) value})
+                            .hasAnyRole(String[].class == keyClass ? (String[]) key : new String[]{(String) key});
+                } catch (final Exception ignored) {
+                }
+            });
+            /* 其他 */
+            http.authorizeRequests().anyRequest().denyAll();
+        }
         /* 配置过滤器 */
-        secretCallback = tokenConfig.getSecretCallback();
+        final SecretProvider provider = tokenConfig.getSecretProvider();
+        secretProvider = null != provider ? provider :
+                CallbackSecretProvider.createSecretProvider(tokenConfig.getSecretCallback(),
+                        Objects.requireNonNullElse(tokenConfig.getSigningAlgorithm(), SigningAlgorithm.HS256));
         tokenName = tokenConfig.getTokenName();
         expireDuration = tokenConfig.getExpireDuration();
         roleParameter = basicConfig.getRoleParameter();
+        claimAliases = ClaimAliases.of(tokenConfig.getClaimAliases());
         /* 配置登录过滤器 */
         final AuthenticationManager manager = authenticationManager();
         configureLoginFilter(manager);
@@ -115,7 +162,7 @@ public abstract class BaseJwtSecurityConfigurerAdapter extends WebSecurityConfig
         http
                 /* 登录过滤器 */
                 .addFilterAt(loginFilter, UsernamePasswordAuthenticationFilter.class)
-                /* 请求过滤器 */
+                /* 请求过滤器，位于防御跨站请求伪造之后，被拒绝的请求不会刷新和写回令牌 */
                 .addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 /* 无状态身份处理不需要 session */
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
@@ -126,40 +173,134 @@ public abstract class BaseJwtSecurityConfigurerAdapter extends WebSecurityConfig
                 .csrfTokenRepository(csrfTokenRepository)
                 /* 忽略白名单 */
                 .ignoringAntMatchers(permitAll);
+        /* 忽略以请求头携带的令牌认证通过的请求，浏览器不会自动附带请求头 */
+        final RequestMatcher csrfExempt = createCsrfExemptMatcher(tokenConfig.getTokenResolvers());
+        if (null != csrfExempt) {
+            http.csrf().ignoringRequestMatchers(csrfExempt);
+        }
+    }
+
+    /**
+     * 生成无需防御跨站请求伪造的请求匹配器
+     * 只有认证所用的令牌来自无需防御的读取器且校验通过时才匹配，请求同时携带无效的请求头令牌和有效的 cookie 时仍需防御
+     * 匹配时只校验令牌，校验结果由请求过滤器直接使用，刷新和写回在通过防御之后进行
+     *
+     * @param resolvers 令牌读取器列表
+     * @return 请求匹配器，没有无需防御的读取器时返回 null
+     * @see JwtAuthenticationFilter#isCsrfExempt(javax.servlet.http.HttpServletRequest)
+     */
+    private RequestMatcher createCsrfExemptMatcher(final List<? extends TokenResolver> resolvers) {
+        boolean exempt = false;
+        if (null != resolvers) {
+            for (int i = 0; !exempt && i < resolvers.size(); i++) {
+                final TokenResolver resolver = resolvers.get(i);
+                exempt = null != resolver && !resolver.isCsrfRequired();
+            }
+        }
+        final JwtAuthenticationFilter filter = authenticationFilter;
+        return exempt ? filter::isCsrfExempt : null;
     }
 
     /**
      * 该函数用于配置生成 loginFilter
-     * 调用该函数之前必须保证 basicConfig 和 tokenConfig 已经配置，同时 tokenName、roleParameter、loginProcessingUrl 和 secretCallback 不为空
+     * 调用该函数之前必须保证 basicConfig 和 tokenConfig 已经配置，同时 tokenName、roleParameter、loginProcessingUrl 和 secretProvider 不为空
      *
      * @param manager 用于初始化 JwtLoginFilterImpl 的 AuthenticationManager
      */
     @SuppressWarnings("NestedMethodCall")
     private void configureLoginFilter(final AuthenticationManager manager) {
-        loginFilter = JwtLoginFilterImpl.createJwtLoginFilter(manager, loginProcessingUrl, secretCallback);
+        loginFilter = JwtLoginFilterImpl.createJwtLoginFilter(manager, loginProcessingUrl, secretProvider);
         loginFilter.setSuccessCallback(basicConfig.getSuccessCallback());
         loginFilter.setFailureCallback(basicConfig.getFailureCallback());
         loginFilter.setGuardCallback(basicConfig.getGuardCallback());
         loginFilter.setUsernameParameter(basicConfig.getUsernameParameter());
         loginFilter.setPasswordParameter(basicConfig.getPasswordParameter());
+        loginFilter.setMaxBodySize(basicConfig.getMaxBodySize());
         loginFilter.setCookiesCallback(tokenConfig.getCookiesCallback());
         loginFilter.setTokenName(tokenName);
         loginFilter.setRoleParameter(roleParameter);
+        loginFilter.setRoleExtractor(basicConfig.getRoleExtractor());
         loginFilter.setClaimCallback(tokenConfig.getClaimCallback());
         loginFilter.setRmbParameter(tokenConfig.getRmbParameter());
         loginFilter.setRmbValue(tokenConfig.getRmbValue());
         loginFilter.setRmbExpireTime(tokenConfig.getRmbExpireTime());
         loginFilter.setDefaultExpireTime(tokenConfig.getDefaultExpireTime());
+        loginFilter.setMetrics(basicConfig.getMetrics());
+        loginFilter.setClaimAliases(claimAliases);
+        loginFilter.setLoginExecutor(createLoginExecutor());
+        final int maxConcurrent = basicConfig.getMaxConcurrentLogins();
+        final int maxPerUser = basicConfig.getMaxConcurrentLoginsPerUser();
+        if (0 < maxConcurrent || 0 < maxPerUser) {
+            loginFilter.setLoginBulkhead(LoginBulkhead.createLoginBulkhead(maxConcurrent, maxPerUser));
+        }
+        loginFilter.setCredentialCache(basicConfig.getCredentialCache());
+    }
+
+    /**
+     * 按基础设置生成异步登录线程池
+     *
+     * @return 登录线程池，未启用异步登录时返回 null
+     */
+    private Executor createLoginExecutor() {
+        final Executor executor = basicConfig.getLoginExecutor();
+        final Executor ret;
+        if (!basicConfig.isAsyncLogin()) {
+            ret = null;
+        } else if (null != executor) {
+            ret = executor;
+        } else {
+            ret = LoginExecutors.createLoginExecutor(basicConfig.getLoginThreads(), Number.LOGIN_QUEUE_SIZE,
+                    basicConfig.isVirtualThreads());
+        }
+        return ret;
+    }
+
+    /**
+     * 将跳过令牌处理的地址预先编译为请求匹配器
+     *
+     * @param patterns 地址列表
+     * @return 请求匹配器，列表为空时返回 null
+     */
+    private static RequestMatcher createSkipMatcher(final String[] patterns) {
+        final List<RequestMatcher> matchers = new ArrayList<>(null != patterns ? patterns.length : 0);
+        if (null != patterns) {
+            for (final String pattern : patterns) {
+                if (null != pattern && !pattern.isEmpty()) {
+                    matchers.add(new AntPathRequestMatcher(pattern));
+                }
+            }
+        }
+        final RequestMatcher ret;
+        if (matchers.isEmpty()) {
+            ret = null;
+        } else if (1 == matchers.size()) {
+            ret = matchers.get(0);
+        } else {
+            ret = new OrRequestMatcher(matchers);
+        }
+        return ret;
     }
 
     /**
      * 该函数用于配置生成 authenticationFilter
      */
     private void configureAuthenticationFilter() {
-        authenticationFilter = JwtAuthenticationFilterImpl.createJwtAuthenticationFilter(secretCallback);
+        authenticationFilter = JwtAuthenticationFilterImpl.createJwtAuthenticationFilter(secretProvider);
         authenticationFilter.setTokenName(tokenName);
         authenticationFilter.setRoleParameter(roleParameter);
         authenticationFilter.setExpireDuration(expireDuration);
+        /* 未单独设置时刷新后的令牌与登录时的默认超时时长相同 */
+        final long refreshLifetime = tokenConfig.getRefreshLifetime();
+        authenticationFilter.setRefreshLifetime(0L != refreshLifetime ? refreshLifetime :
+                tokenConfig.getDefaultExpireTime());
+        authenticationFilter.setRefreshInterval(tokenConfig.getRefreshInterval());
+        authenticationFilter.setKeepLifetime(tokenConfig.isKeepLifetime());
+        authenticationFilter.setTokenCacheSize(tokenConfig.getTokenCacheSize());
+        authenticationFilter.setSkipMatcher(skipMatcher);
+        authenticationFilter.setMetrics(basicConfig.getMetrics());
+        authenticationFilter.setTokenRevocation(tokenConfig.getTokenRevocation());
+        authenticationFilter.setClaimAliases(claimAliases);
+        authenticationFilter.setTokenResolvers(tokenConfig.getTokenResolvers());
     }
 }
 
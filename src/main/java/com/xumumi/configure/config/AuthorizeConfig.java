@@ -32,6 +32,31 @@ public interface AuthorizeConfig {
      */
     void setRoleRightsMap(final Map<? extends Serializable, ? extends Serializable> rolesRightList);
 
+    /**
+     * 自定义跳过令牌处理的页面，比如静态资源，这些请求不读取 cookie、不校验也不刷新令牌
+     * 跳过令牌处理只影响认证，授权仍按其他设置进行，未列入无需授权页面的地址会因未登录被拒绝
+     *
+     * @param rightList 地址字符串数组
+     */
+    void setSkip(final String... rightList);
+
+    /**
+     * 自定义无需授权页面是否跳过令牌处理，默认不跳过
+     * 跳过后这些页面中无法获取已登录的用户，令牌也不会刷新，注销地址也无法吊销令牌，开启前需确认这些页面不依赖令牌
+     *
+     * @param skip 跳过布尔值
+     */
+    void setSkipPermitAll(final boolean skip);
+
+    /**
+     * 自定义是否将授权规则编译为路径前缀树，默认不启用
+     * 启用后无需授权、需登录和角色授权的地址在启动时编译为一个索引，每个请求只按路径查找一次，适用于地址很多的情况
+     *
+     * @param enable 启用布尔值
+     * @see com.xumumi.authorize.PathIndex
+     */
+    void setPathIndex(final boolean enable);
+
     /**
      * 获取无需授权页面
      *
@@ -52,4 +77,25 @@ public interface AuthorizeConfig {
      * @return 一个以角色字符串或字符串数组为键名，地址字符串或字符串数组为键值的表
      */
     Map<? extends Serializable, ? extends Serializable> getRoleRightsMap();
+
+    /**
+     * 获取跳过令牌处理的页面
+     *
+     * @return 地址列表
+     */
+    String[] getSkip();
+
+    /**
+     * 获取无需授权页面是否跳过令牌处理
+     *
+     * @return 跳过布尔值
+     */
+    boolean isSkipPermitAll();
+
+    /**
+     * 获取是否将授权规则编译为路径前缀树
+     *
+     * @return 启用布尔值
+     */
+    boolean isPathIndex();
 }
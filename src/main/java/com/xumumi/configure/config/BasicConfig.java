@@ -1,12 +1,19 @@
 package com.xumumi.configure.config;
 
+import com.xumumi.credential.CredentialCache;
 import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
 import com.xumumi.function.GuardCallback;
 import com.xumumi.function.ResultCallback;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.limit.LoginBulkhead;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.util.LoginExecutors;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 
+import java.util.concurrent.Executor;
+
 /**
  * 基本设置类接口
  *
@@ -31,6 +38,130 @@ public interface BasicConfig {
      */
     String getLoginProcessingUrl();
 
+    /**
+     * 自定义登录请求内容的最大长度，默认为 8 KB
+     *
+     * @param size 最大字节数
+     * @see JwtLoginFilterImpl#setMaxBodySize(long)
+     */
+    void setMaxBodySize(final long size);
+
+    /**
+     * 获取登录请求内容的最大长度
+     *
+     * @return 最大字节数，为 0 时使用默认值
+     * @see JwtLoginFilterImpl#setMaxBodySize(long)
+     */
+    long getMaxBodySize();
+
+    /**
+     * 自定义是否异步登录，启用后认证和签发令牌在有界的登录线程池中执行，不占用容器线程，默认关闭
+     * 需要容器和过滤链支持异步请求，不支持时仍同步登录
+     *
+     * @param async 异步布尔值
+     * @see JwtLoginFilterImpl#setLoginExecutor(Executor)
+     */
+    void setAsyncLogin(final boolean async);
+
+    /**
+     * 获取是否异步登录
+     *
+     * @return 异步布尔值
+     */
+    boolean isAsyncLogin();
+
+    /**
+     * 自定义登录线程池最大线程数，默认为处理器核数
+     *
+     * @param threads 最大线程数，不大于 0 时使用默认值
+     * @see LoginExecutors#createLoginExecutor(int, int, boolean)
+     */
+    void setLoginThreads(final int threads);
+
+    /**
+     * 获取登录线程池最大线程数
+     *
+     * @return 最大线程数，为 0 时使用默认值
+     */
+    int getLoginThreads();
+
+    /**
+     * 自定义登录线程池是否使用虚拟线程，运行环境不支持时使用普通线程
+     * 使用虚拟线程时每个登录各用一个虚拟线程，不排队，同时进行的登录数上限为最大线程数与队列容量之和
+     *
+     * @param virtual 虚拟线程布尔值
+     * @see LoginExecutors#createLoginExecutor(int, int, boolean)
+     */
+    void setVirtualThreads(final boolean virtual);
+
+    /**
+     * 获取登录线程池是否使用虚拟线程
+     *
+     * @return 虚拟线程布尔值
+     */
+    boolean isVirtualThreads();
+
+    /**
+     * 自定义登录线程池，设置后忽略线程数和虚拟线程设置，线程池需自行限制排队长度
+     *
+     * @param executor 登录线程池，为 null 时按设置生成
+     * @see JwtLoginFilterImpl#setLoginExecutor(Executor)
+     */
+    void setLoginExecutor(final Executor executor);
+
+    /**
+     * 获取自定义登录线程池
+     *
+     * @return 登录线程池，未设置时返回 null
+     */
+    Executor getLoginExecutor();
+
+    /**
+     * 自定义同时进行的登录总数上限，超出时以 429 拒绝登录，默认不限制
+     *
+     * @param max 登录数上限，不大于 0 时不限制
+     * @see LoginBulkhead#createLoginBulkhead(int, int)
+     */
+    void setMaxConcurrentLogins(final int max);
+
+    /**
+     * 获取同时进行的登录总数上限
+     *
+     * @return 登录数上限，为 0 时不限制
+     */
+    int getMaxConcurrentLogins();
+
+    /**
+     * 自定义同一用户名同时进行的登录数上限，超出时以 429 拒绝登录，默认不限制
+     *
+     * @param max 登录数上限，不大于 0 时不限制
+     * @see LoginBulkhead#createLoginBulkhead(int, int)
+     */
+    void setMaxConcurrentLoginsPerUser(final int max);
+
+    /**
+     * 获取同一用户名同时进行的登录数上限
+     *
+     * @return 登录数上限，为 0 时不限制
+     */
+    int getMaxConcurrentLoginsPerUser();
+
+    /**
+     * 自定义登录凭据缓存，修改密码时需调用其 {@link CredentialCache#invalidate(String)}，默认不缓存
+     *
+     * @param cache 登录凭据缓存，为 null 时不缓存
+     * @see JwtLoginFilterImpl#setCredentialCache(CredentialCache)
+     */
+    void setCredentialCache(final CredentialCache cache);
+
+    /**
+     * 获取登录凭据缓存
+     *
+     * @return 登录凭据缓存
+     * @see JwtLoginFilterImpl#setCredentialCache(CredentialCache)
+     */
+    CredentialCache getCredentialCache();
+
     /* 字段 */
 
     /**
@@ -113,6 +244,23 @@ public interface BasicConfig {
      */
     void setGuardCallback(final GuardCallback callback);
 
+    /**
+     * 自定义角色提取方式
+     *
+     * @param extractor 从登录成功后的主体中提取角色的回调函数，为 null 时按角色字段名读取
+     * @see JwtLoginFilterImpl#setRoleExtractor(RoleExtractor)
+     */
+    void setRoleExtractor(final RoleExtractor extractor);
+
+    /**
+     * 自定义性能指标，登录过滤器和授权过滤器共用
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     * @see JwtLoginFilterImpl#setMetrics(SecurityMetrics)
+     * @see JwtAuthenticationFilterImpl#setMetrics(SecurityMetrics)
+     */
+    void setMetrics(final SecurityMetrics securityMetrics);
+
     /**
      * 获取登录成功回调函数
      *
@@ -135,4 +283,21 @@ public interface BasicConfig {
      * @return 回调函数
      */
     GuardCallback getGuardCallback();
+
+    /**
+     * 获取角色提取方式
+     *
+     * @return 回调函数
+     * @see JwtLoginFilterImpl#setRoleExtractor(RoleExtractor)
+     */
+    RoleExtractor getRoleExtractor();
+
+    /**
+     * 获取性能指标
+     *
+     * @return 性能指标
+     * @see JwtLoginFilterImpl#setMetrics(SecurityMetrics)
+     * @see JwtAuthenticationFilterImpl#setMetrics(SecurityMetrics)
+     */
+    SecurityMetrics getMetrics();
 }
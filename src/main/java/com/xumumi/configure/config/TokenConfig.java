@@ -3,9 +3,14 @@ package com.xumumi.configure.config;
 import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
 import com.xumumi.function.CookiesCallback;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
 import org.springframework.security.core.Authentication;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -52,6 +57,55 @@ public interface TokenConfig {
      */
     void setExpireDuration(long duration);
 
+    /**
+     * 自定义刷新后令牌的有效期，默认与默认的超时时长相同
+     *
+     * @param time 有效期，单位毫秒
+     * @see JwtAuthenticationFilterImpl#setRefreshLifetime(long)
+     */
+    void setRefreshLifetime(final long time);
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔，默认为 0 即不限制
+     *
+     * @param interval 间隔，单位毫秒
+     * @see JwtAuthenticationFilterImpl#setRefreshInterval(long)
+     */
+    void setRefreshInterval(final long interval);
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期，默认保留
+     *
+     * @param keep 保留布尔值
+     * @see JwtAuthenticationFilterImpl#setKeepLifetime(boolean)
+     */
+    void setKeepLifetime(final boolean keep);
+
+    /**
+     * 自定义已校验令牌缓存容量，默认为 0 即不启用
+     *
+     * @param size 缓存容量
+     * @see JwtAuthenticationFilterImpl#setTokenCacheSize(int)
+     */
+    void setTokenCacheSize(final int size);
+
+    /**
+     * 自定义附加信息字段名别名，签发时将字段名替换为短别名以缩短 cookie，校验时自动换回
+     *
+     * @param aliases 字段名到别名的映射，比如 role -> r
+     * @see com.xumumi.util.ClaimAliases#of(Map)
+     */
+    void setClaimAliases(final Map<String, String> aliases);
+
+    /**
+     * 自定义字符串密钥使用的签名算法，默认为 HS256，只能使用 HMAC 算法
+     * ES256 和 RS256 需要密钥对，应通过 {@link #setSecretProvider(SecretProvider)} 设置
+     *
+     * @param algorithm 签名算法
+     * @see com.xumumi.secret.impl.CallbackSecretProvider#createSecretProvider(Function, SigningAlgorithm)
+     */
+    void setSigningAlgorithm(final SigningAlgorithm algorithm);
+
     /**
      * 获取记住我的超时时长，默认为 7 天
      *
@@ -84,6 +138,52 @@ public interface TokenConfig {
      */
     long getExpireDuration();
 
+    /**
+     * 获取刷新后令牌的有效期
+     *
+     * @return 有效期，未设置时为 0
+     * @see JwtAuthenticationFilterImpl#setRefreshLifetime(long)
+     */
+    long getRefreshLifetime();
+
+    /**
+     * 获取同一令牌两次签发之间的最小间隔
+     *
+     * @return 间隔
+     * @see JwtAuthenticationFilterImpl#setRefreshInterval(long)
+     */
+    long getRefreshInterval();
+
+    /**
+     * 获取刷新时是否保留原令牌的有效期
+     *
+     * @return 保留布尔值
+     * @see JwtAuthenticationFilterImpl#setKeepLifetime(boolean)
+     */
+    boolean isKeepLifetime();
+
+    /**
+     * 获取已校验令牌缓存容量
+     *
+     * @return 缓存容量
+     * @see JwtAuthenticationFilterImpl#setTokenCacheSize(int)
+     */
+    int getTokenCacheSize();
+
+    /**
+     * 获取附加信息字段名别名
+     *
+     * @return 字段名到别名的映射，未设置时返回 null
+     */
+    Map<String, String> getClaimAliases();
+
+    /**
+     * 获取字符串密钥使用的签名算法
+     *
+     * @return 签名算法
+     */
+    SigningAlgorithm getSigningAlgorithm();
+
     /* 字段 */
 
     /**
@@ -137,12 +237,43 @@ public interface TokenConfig {
     void setClaimCallback(final Function<Authentication, Map<String, String>> callback);
 
     /**
-     * 自定义加密密钥
+     * 自定义加密密钥，默认使用请求的来源地址，不会进行域名反查
      *
      * @param callback 一个根据用户请求信息 {@link HttpServletRequest} 返回密钥的回调函数
      */
     void setSecretCallback(final Function<HttpServletRequest, String> callback);
 
+    /**
+     * 自定义密钥提供者，设置后优先于 {@link #setSecretCallback(Function)} 使用
+     *
+     * @param provider 密钥提供者
+     * @see com.xumumi.secret.impl.StaticSecretProvider
+     * @see com.xumumi.secret.impl.KeyStoreSecretProvider
+     * @see com.xumumi.secret.impl.TenantSecretProvider
+     */
+    void setSecretProvider(final SecretProvider provider);
+
+    /**
+     * 自定义令牌吊销列表，设置后已吊销的令牌视为未登录
+     *
+     * @param revocation 令牌吊销列表
+     * @see com.xumumi.revocation.impl.BloomTokenRevocation
+     * @see JwtAuthenticationFilterImpl#setTokenRevocation(TokenRevocation)
+     */
+    void setTokenRevocation(final TokenRevocation revocation);
+
+    /**
+     * 自定义令牌读取器，按顺序读取，使用第一个读到的令牌，刷新后的令牌按读到令牌的方式写回
+     * 以请求头携带的令牌认证通过的请求不需要防御跨站请求伪造，会被 CSRF 过滤器忽略
+     *
+     * @param resolvers 令牌读取器列表，未设置时按令牌名读取 cookie
+     * @see com.xumumi.resolver.impl.BearerTokenResolver
+     * @see com.xumumi.resolver.impl.CookieTokenResolver
+     * @see com.xumumi.resolver.impl.HeaderTokenResolver
+     * @see JwtAuthenticationFilterImpl#setTokenResolvers(List)
+     */
+    void setTokenResolvers(final List<TokenResolver> resolvers);
+
     /**
      * 获取 cookies 回调函数
      *
@@ -165,4 +296,25 @@ public interface TokenConfig {
      * @return 回调函数
      */
     Function<HttpServletRequest, String> getSecretCallback();
+
+    /**
+     * 获取密钥提供者
+     *
+     * @return 密钥提供者，未设置时返回 null
+     */
+    SecretProvider getSecretProvider();
+
+    /**
+     * 获取令牌吊销列表
+     *
+     * @return 令牌吊销列表，未设置时返回 null
+     */
+    TokenRevocation getTokenRevocation();
+
+    /**
+     * 获取令牌读取器
+     *
+     * @return 令牌读取器列表，未设置时返回 null
+     */
+    List<TokenResolver> getTokenResolvers();
 }
@@ -21,6 +21,9 @@ final class AuthorizeConfigImpl implements AuthorizeConfig {
     private static final String[] STRINGS = new String[0];
     private String[] permitAll = STRINGS;
     private String[] authentication = STRINGS;
+    private String[] skip = STRINGS;
+    private boolean skipPermitAll;
+    private boolean pathIndex;
     private final Map<Serializable, Serializable> roleRightsMap = new HashMap<>(Number.INITIAL_CAPACITY);
 
     /**
@@ -53,6 +56,36 @@ final class AuthorizeConfigImpl implements AuthorizeConfig {
         roleRightsMap.putAll(rolesRightList);
     }
 
+    /**
+     * 自定义跳过令牌处理的页面，比如静态资源
+     *
+     * @param rightList 地址字符串数组
+     */
+    @Override
+    public void setSkip(final String... rightList) {
+        skip = rightList.clone();
+    }
+
+    /**
+     * 自定义无需授权页面是否跳过令牌处理，默认不跳过
+     *
+     * @param skip 跳过布尔值
+     */
+    @Override
+    public void setSkipPermitAll(final boolean skip) {
+        skipPermitAll = skip;
+    }
+
+    /**
+     * 自定义是否将授权规则编译为路径前缀树，默认不启用
+     *
+     * @param enable 启用布尔值
+     */
+    @Override
+    public void setPathIndex(final boolean enable) {
+        pathIndex = enable;
+    }
+
     /**
      * 获取无需授权页面
      *
@@ -82,4 +115,34 @@ final class AuthorizeConfigImpl implements AuthorizeConfig {
     public Map<? extends Serializable, ? extends Serializable> getRoleRightsMap() {
         return Collections.unmodifiableMap(roleRightsMap);
     }
+
+    /**
+     * 获取跳过令牌处理的页面
+     *
+     * @return 地址列表
+     */
+    @Override
+    public String[] getSkip() {
+        return skip.clone();
+    }
+
+    /**
+     * 获取无需授权页面是否跳过令牌处理
+     *
+     * @return 跳过布尔值
+     */
+    @Override
+    public boolean isSkipPermitAll() {
+        return skipPermitAll;
+    }
+
+    /**
+     * 获取是否将授权规则编译为路径前缀树
+     *
+     * @return 启用布尔值
+     */
+    @Override
+    public boolean isPathIndex() {
+        return pathIndex;
+    }
 }
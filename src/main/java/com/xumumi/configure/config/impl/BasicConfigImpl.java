@@ -1,16 +1,22 @@
 package com.xumumi.configure.config.impl;
 
 import com.xumumi.configure.config.BasicConfig;
+import com.xumumi.credential.CredentialCache;
 import com.xumumi.filter.constant.Path;
 import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
 import com.xumumi.function.GuardCallback;
 import com.xumumi.function.ResultCallback;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.limit.LoginBulkhead;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.util.LoginExecutors;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * 基础设置类实现
@@ -24,6 +30,20 @@ final class BasicConfigImpl implements BasicConfig {
     /* 参数 */
 
     private String loginProcessingUrl = Path.LOGIN;
+    private long maxBodySize;
+
+    /* 异步 */
+
+    private boolean asyncLogin;
+    private int loginThreads;
+    private boolean virtualThreads;
+    private Executor loginExecutor;
+
+    /* 并发隔离 */
+
+    private int maxConcurrentLogins;
+    private int maxConcurrentLoginsPerUser;
+    private CredentialCache credentialCache;
 
     /* 字段 */
 
@@ -36,6 +56,8 @@ final class BasicConfigImpl implements BasicConfig {
     private ResultCallback<Authentication> successCallback;
     private ResultCallback<AuthenticationException> failureCallback;
     private GuardCallback guardCallback;
+    private RoleExtractor roleExtractor;
+    private SecurityMetrics metrics;
 
     /**
      * 自定义登录页
@@ -57,6 +79,182 @@ final class BasicConfigImpl implements BasicConfig {
         return loginProcessingUrl;
     }
 
+    /**
+     * 自定义登录请求内容的最大长度，默认为 8 KB
+     *
+     * @param size 最大字节数
+     * @see JwtLoginFilterImpl#setMaxBodySize(long)
+     */
+    @Override
+    public void setMaxBodySize(final long size) {
+        maxBodySize = size;
+    }
+
+    /**
+     * 获取登录请求内容的最大长度
+     *
+     * @return 最大字节数，为 0 时使用默认值
+     * @see JwtLoginFilterImpl#setMaxBodySize(long)
+     */
+    @Override
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /* 异步 */
+
+    /**
+     * 自定义是否异步登录，启用后认证和签发令牌在有界的登录线程池中执行，不占用容器线程，默认关闭
+     * 需要容器和过滤链支持异步请求，不支持时仍同步登录
+     *
+     * @param async 异步布尔值
+     * @see JwtLoginFilterImpl#setLoginExecutor(Executor)
+     */
+    @Override
+    public void setAsyncLogin(final boolean async) {
+        asyncLogin = async;
+    }
+
+    /**
+     * 获取是否异步登录
+     *
+     * @return 异步布尔值
+     */
+    @Override
+    public boolean isAsyncLogin() {
+        return asyncLogin;
+    }
+
+    /**
+     * 自定义登录线程池最大线程数，默认为处理器核数
+     *
+     * @param threads 最大线程数，不大于 0 时使用默认值
+     * @see LoginExecutors#createLoginExecutor(int, int, boolean)
+     */
+    @Override
+    public void setLoginThreads(final int threads) {
+        loginThreads = threads;
+    }
+
+    /**
+     * 获取登录线程池最大线程数
+     *
+     * @return 最大线程数，为 0 时使用默认值
+     */
+    @Override
+    public int getLoginThreads() {
+        return loginThreads;
+    }
+
+    /**
+     * 自定义登录线程池是否使用虚拟线程，运行环境不支持时使用普通线程
+     * 使用虚拟线程时每个登录各用一个虚拟线程，不排队，同时进行的登录数上限为最大线程数与队列容量之和
+     *
+     * @param virtual 虚拟线程布尔值
+     * @see LoginExecutors#createLoginExecutor(int, int, boolean)
+     */
+    @Override
+    public void setVirtualThreads(final boolean virtual) {
+        virtualThreads = virtual;
+    }
+
+    /**
+     * 获取登录线程池是否使用虚拟线程
+     *
+     * @return 虚拟线程布尔值
+     */
+    @Override
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 自定义登录线程池，设置后忽略线程数和虚拟线程设置，线程池需自行限制排队长度
+     *
+     * @param executor 登录线程池，为 null 时按设置生成
+     * @see JwtLoginFilterImpl#setLoginExecutor(Executor)
+     */
+    @Override
+    public void setLoginExecutor(final Executor executor) {
+        loginExecutor = executor;
+    }
+
+    /**
+     * 获取自定义登录线程池
+     *
+     * @return 登录线程池，未设置时返回 null
+     */
+    @Override
+    public Executor getLoginExecutor() {
+        return loginExecutor;
+    }
+
+    /* 并发隔离 */
+
+    /**
+     * 自定义同时进行的登录总数上限，超出时以 429 拒绝登录，默认不限制
+     *
+     * @param max 登录数上限，不大于 0 时不限制
+     * @see LoginBulkhead#createLoginBulkhead(int, int)
+     */
+    @Override
+    public void setMaxConcurrentLogins(final int max) {
+        maxConcurrentLogins = max;
+    }
+
+    /**
+     * 获取同时进行的登录总数上限
+     *
+     * @return 登录数上限，为 0 时不限制
+     */
+    @Override
+    public int getMaxConcurrentLogins() {
+        return maxConcurrentLogins;
+    }
+
+    /**
+     * 自定义同一用户名同时进行的登录数上限，超出时以 429 拒绝登录，默认不限制
+     *
+     * @param max 登录数上限，不大于 0 时不限制
+     * @see LoginBulkhead#createLoginBulkhead(int, int)
+     */
+    @Override
+    public void setMaxConcurrentLoginsPerUser(final int max) {
+        maxConcurrentLoginsPerUser = max;
+    }
+
+    /**
+     * 获取同一用户名同时进行的登录数上限
+     *
+     * @return 登录数上限，为 0 时不限制
+     */
+    @Override
+    public int getMaxConcurrentLoginsPerUser() {
+        return maxConcurrentLoginsPerUser;
+    }
+
+    /**
+     * 自定义登录凭据缓存，修改密码时需调用其 {@link CredentialCache#invalidate(String)}，默认不缓存
+     *
+     * @param cache 登录凭据缓存，为 null 时不缓存
+     * @see JwtLoginFilterImpl#setCredentialCache(CredentialCache)
+     */
+    @Override
+    public void setCredentialCache(final CredentialCache cache) {
+        credentialCache = cache;
+    }
+
+    /**
+     * 获取登录凭据缓存
+     *
+     * @return 登录凭据缓存
+     * @see JwtLoginFilterImpl#setCredentialCache(CredentialCache)
+     */
+    @Override
+    public CredentialCache getCredentialCache() {
+        return credentialCache;
+    }
+
     /* 字段 */
 
     /**
@@ -165,6 +363,29 @@ final class BasicConfigImpl implements BasicConfig {
         guardCallback = callback;
     }
 
+    /**
+     * 自定义角色提取方式
+     *
+     * @param extractor 从登录成功后的主体中提取角色的回调函数，为 null 时按角色字段名读取
+     * @see JwtLoginFilterImpl#setRoleExtractor(RoleExtractor)
+     */
+    @Override
+    public void setRoleExtractor(final RoleExtractor extractor) {
+        roleExtractor = extractor;
+    }
+
+    /**
+     * 自定义性能指标，登录过滤器和授权过滤器共用
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     * @see JwtLoginFilterImpl#setMetrics(SecurityMetrics)
+     * @see JwtAuthenticationFilterImpl#setMetrics(SecurityMetrics)
+     */
+    @Override
+    public void setMetrics(final SecurityMetrics securityMetrics) {
+        metrics = securityMetrics;
+    }
+
     /**
      * 获取登录成功回调函数
      *
@@ -196,4 +417,27 @@ final class BasicConfigImpl implements BasicConfig {
     public GuardCallback getGuardCallback() {
         return guardCallback;
     }
+
+    /**
+     * 获取角色提取方式
+     *
+     * @return 回调函数
+     * @see JwtLoginFilterImpl#setRoleExtractor(RoleExtractor)
+     */
+    @Override
+    public RoleExtractor getRoleExtractor() {
+        return roleExtractor;
+    }
+
+    /**
+     * 获取性能指标
+     *
+     * @return 性能指标
+     * @see JwtLoginFilterImpl#setMetrics(SecurityMetrics)
+     * @see JwtAuthenticationFilterImpl#setMetrics(SecurityMetrics)
+     */
+    @Override
+    public SecurityMetrics getMetrics() {
+        return metrics;
+    }
 }
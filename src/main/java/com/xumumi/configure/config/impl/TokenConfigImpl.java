@@ -4,11 +4,16 @@ import com.xumumi.configure.config.TokenConfig;
 import com.xumumi.filter.impl.JwtAuthenticationFilterImpl;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
 import com.xumumi.function.CookiesCallback;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -27,6 +32,12 @@ final class TokenConfigImpl implements TokenConfig {
     private long rmbExpireTime;
     private long defaultExpireTime;
     private long expireDuration;
+    private long refreshLifetime;
+    private long refreshInterval;
+    private boolean keepLifetime = true;
+    private int tokenCacheSize;
+    private Map<String, String> claimAliases;
+    private SigningAlgorithm signingAlgorithm = SigningAlgorithm.HS256;
     private String rmbValue;
 
     /* 字段 */
@@ -38,7 +49,10 @@ final class TokenConfigImpl implements TokenConfig {
 
     private CookiesCallback cookiesCallback;
     private Function<Authentication, Map<String, String>> claimCallback;
-    private Function<HttpServletRequest, String> secretCallback = ServletRequest::getRemoteHost;
+    private Function<HttpServletRequest, String> secretCallback = ServletRequest::getRemoteAddr;
+    private SecretProvider secretProvider;
+    private TokenRevocation tokenRevocation;
+    private List<TokenResolver> tokenResolvers;
 
     /* 参数 */
 
@@ -86,6 +100,70 @@ final class TokenConfigImpl implements TokenConfig {
         expireDuration = duration;
     }
 
+    /**
+     * 自定义刷新后令牌的有效期，默认与默认的超时时长相同
+     *
+     * @param time 有效期，单位毫秒
+     * @see JwtAuthenticationFilterImpl#setRefreshLifetime(long)
+     */
+    @Override
+    public void setRefreshLifetime(final long time) {
+        refreshLifetime = time;
+    }
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔，默认为 0 即不限制
+     *
+     * @param interval 间隔，单位毫秒
+     * @see JwtAuthenticationFilterImpl#setRefreshInterval(long)
+     */
+    @Override
+    public void setRefreshInterval(final long interval) {
+        refreshInterval = interval;
+    }
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期，默认保留
+     *
+     * @param keep 保留布尔值
+     * @see JwtAuthenticationFilterImpl#setKeepLifetime(boolean)
+     */
+    @Override
+    public void setKeepLifetime(final boolean keep) {
+        keepLifetime = keep;
+    }
+
+    /**
+     * 自定义已校验令牌缓存容量，默认为 0 即不启用
+     *
+     * @param size 缓存容量
+     * @see JwtAuthenticationFilterImpl#setTokenCacheSize(int)
+     */
+    @Override
+    public void setTokenCacheSize(final int size) {
+        tokenCacheSize = size;
+    }
+
+    /**
+     * 自定义附加信息字段名别名，签发时将字段名替换为短别名以缩短 cookie，校验时自动换回
+     *
+     * @param aliases 字段名到别名的映射，比如 role -> r
+     */
+    @Override
+    public void setClaimAliases(final Map<String, String> aliases) {
+        claimAliases = aliases;
+    }
+
+    /**
+     * 自定义字符串密钥使用的签名算法，默认为 HS256，只能使用 HMAC 算法
+     *
+     * @param algorithm 签名算法
+     */
+    @Override
+    public void setSigningAlgorithm(final SigningAlgorithm algorithm) {
+        signingAlgorithm = algorithm;
+    }
+
     /**
      * 获取记住我的超时时长，默认为 7 天
      *
@@ -130,6 +208,70 @@ final class TokenConfigImpl implements TokenConfig {
         return expireDuration;
     }
 
+    /**
+     * 获取刷新后令牌的有效期
+     *
+     * @return 有效期，未设置时为 0
+     * @see JwtAuthenticationFilterImpl#setRefreshLifetime(long)
+     */
+    @Override
+    public long getRefreshLifetime() {
+        return refreshLifetime;
+    }
+
+    /**
+     * 获取同一令牌两次签发之间的最小间隔
+     *
+     * @return 间隔
+     * @see JwtAuthenticationFilterImpl#setRefreshInterval(long)
+     */
+    @Override
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * 获取刷新时是否保留原令牌的有效期
+     *
+     * @return 保留布尔值
+     * @see JwtAuthenticationFilterImpl#setKeepLifetime(boolean)
+     */
+    @Override
+    public boolean isKeepLifetime() {
+        return keepLifetime;
+    }
+
+    /**
+     * 获取已校验令牌缓存容量
+     *
+     * @return 缓存容量
+     * @see JwtAuthenticationFilterImpl#setTokenCacheSize(int)
+     */
+    @Override
+    public int getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    /**
+     * 获取附加信息字段名别名
+     *
+     * @return 字段名到别名的映射，未设置时返回 null
+     */
+    @Override
+    public Map<String, String> getClaimAliases() {
+        return claimAliases;
+    }
+
+    /**
+     * 获取字符串密钥使用的签名算法
+     *
+     * @return 签名算法
+     */
+    @Override
+    public SigningAlgorithm getSigningAlgorithm() {
+        return signingAlgorithm;
+    }
+
     /* 字段 */
 
     /**
@@ -201,7 +343,7 @@ final class TokenConfigImpl implements TokenConfig {
     }
 
     /**
-     * 自定义加密密钥
+     * 自定义加密密钥，默认使用请求的来源地址，不会进行域名反查
      *
      * @param callback 一个根据用户请求信息 {@link HttpServletRequest} 返回密钥的回调函数
      */
@@ -210,6 +352,42 @@ final class TokenConfigImpl implements TokenConfig {
         secretCallback = callback;
     }
 
+    /**
+     * 自定义密钥提供者，设置后优先于 {@link #setSecretCallback(Function)} 使用
+     *
+     * @param provider 密钥提供者
+     */
+    @Override
+    public void setSecretProvider(final SecretProvider provider) {
+        secretProvider = provider;
+    }
+
+    /**
+     * 自定义令牌吊销列表，设置后已吊销的令牌视为未登录
+     *
+     * @param revocation 令牌吊销列表
+     * @see JwtAuthenticationFilterImpl#setTokenRevocation(TokenRevocation)
+     */
+    @Override
+    public void setTokenRevocation(final TokenRevocation revocation) {
+        tokenRevocation = revocation;
+    }
+
+    /**
+     * 自定义令牌读取器，按顺序读取，使用第一个读到的令牌，刷新后的令牌按读到令牌的方式写回
+     * 以请求头携带的令牌认证通过的请求不需要防御跨站请求伪造，会被 CSRF 过滤器忽略
+     *
+     * @param resolvers 令牌读取器列表，未设置时按令牌名读取 cookie
+     * @see com.xumumi.resolver.impl.BearerTokenResolver
+     * @see com.xumumi.resolver.impl.CookieTokenResolver
+     * @see com.xumumi.resolver.impl.HeaderTokenResolver
+     * @see JwtAuthenticationFilterImpl#setTokenResolvers(List)
+     */
+    @Override
+    public void setTokenResolvers(final List<TokenResolver> resolvers) {
+        tokenResolvers = resolvers;
+    }
+
     /**
      * 获取 cookies 回调函数
      *
@@ -241,4 +419,34 @@ final class TokenConfigImpl implements TokenConfig {
     public Function<HttpServletRequest, String> getSecretCallback() {
         return secretCallback;
     }
+
+    /**
+     * 获取密钥提供者
+     *
+     * @return 密钥提供者，未设置时返回 null
+     */
+    @Override
+    public SecretProvider getSecretProvider() {
+        return secretProvider;
+    }
+
+    /**
+     * 获取令牌吊销列表
+     *
+     * @return 令牌吊销列表，未设置时返回 null
+     */
+    @Override
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    /**
+     * 获取令牌读取器
+     *
+     * @return 令牌读取器列表，未设置时返回 null
+     */
+    @Override
+    public List<TokenResolver> getTokenResolvers() {
+        return tokenResolvers;
+    }
 }
@@ -0,0 +1,304 @@
+package com.xumumi.credential;
+
+import com.xumumi.filter.constant.Number;
+import com.xumumi.util.BoundedCache;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 登录凭据缓存，短时间内以相同用户名和密码再次登录时直接使用上次的结果，不再计算密码哈希
+ * 缓存键为用户名和密码的 HMAC，密钥在启动时随机生成，不保存明文，也无法离线还原
+ * 登录成功的结果缓存数秒，只保存用户主体和权限，不保存凭据，密码错误的结果缓存更短的时间，其他失败不缓存，条目数有上限
+ * 修改密码、禁用账号时调用 {@link #invalidate(String)} 使该用户的缓存立即失效
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class CredentialCache {
+    /**
+     * 缓存键摘要算法
+     */
+    private static final String ALGORITHM = "HmacSHA256";
+    /**
+     * 密钥长度，单位字节
+     */
+    private static final int SECRET_LENGTH = 32;
+
+    private final BoundedCache<Key, Entry> cache;
+    private final long successDuration;
+    private final long failureDuration;
+    /**
+     * 按用户名分段的失效版本，条目版本与所在分段不一致时视为失效，内存占用与用户数量无关
+     */
+    private final AtomicIntegerArray generations = new AtomicIntegerArray(Number.CREDENTIAL_GENERATION_STRIPES);
+    /**
+     * {@link Mac} 不是线程安全的，每个线程各持有一个
+     */
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * 构造器
+     *
+     * @param size            最大条目数
+     * @param successDuration 登录成功结果缓存时长，单位毫秒
+     * @param failureDuration 密码错误结果缓存时长，单位毫秒
+     */
+    private CredentialCache(final int size, final long successDuration, final long failureDuration) {
+        cache = new BoundedCache<>(size, 0L);
+        this.successDuration = successDuration;
+        this.failureDuration = failureDuration;
+        final byte[] secret = new byte[SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        final SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        macs = ThreadLocal.withInitial(() -> createMac(key));
+    }
+
+    /**
+     * {@link CredentialCache} 生成器，使用默认容量和缓存时长
+     *
+     * @return {@link CredentialCache} 对象
+     */
+    public static CredentialCache createCredentialCache() {
+        return new CredentialCache(Number.CREDENTIAL_CACHE_SIZE, Number.CREDENTIAL_SUCCESS_MILLISECONDS,
+                Number.CREDENTIAL_FAILURE_MILLISECONDS);
+    }
+
+    /**
+     * {@link CredentialCache} 生成器
+     *
+     * @param size            最大条目数，必须大于 0
+     * @param successDuration 登录成功结果缓存时长，单位毫秒
+     * @param failureDuration 密码错误结果缓存时长，单位毫秒，不大于 0 时不缓存
+     * @return {@link CredentialCache} 对象
+     */
+    public static CredentialCache createCredentialCache(final int size, final long successDuration,
+                                                        final long failureDuration) {
+        return new CredentialCache(size, successDuration, failureDuration);
+    }
+
+    /**
+     * 认证登录请求，缓存命中时直接返回结果，否则交给认证管理器并缓存结果
+     *
+     * @param request 登录请求
+     * @param manager 认证管理器
+     * @return 认证结果，命中时使用当前请求的详细信息
+     * @throws org.springframework.security.core.AuthenticationException 认证失败
+     */
+    public Authentication authenticate(final UsernamePasswordAuthenticationToken request,
+                                       final AuthenticationManager manager) {
+        final String username = request.getName();
+        final Object credentials = request.getCredentials();
+        final Authentication ret;
+        if (null != username && credentials instanceof String) {
+            final Key key = keyOf(username, (String) credentials);
+            final int stripe = stripeOf(username);
+            /* 在认证之前读取版本，认证期间修改密码时新结果不会生效 */
+            final int generation = generations.get(stripe);
+            final Entry cached = cache.get(key);
+            ret = null != cached && cached.generation == generation ?
+                    cached.toAuthentication(request) : load(key, generation, request, manager);
+        } else {
+            ret = manager.authenticate(request);
+        }
+        return ret;
+    }
+
+    /**
+     * 使用户的缓存立即失效，修改密码、禁用或锁定账号后调用
+     *
+     * @param username 用户名
+     */
+    public void invalidate(final String username) {
+        generations.incrementAndGet(stripeOf(username));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * 获取缓存，可用于读取命中率
+     *
+     * @return 缓存
+     */
+    public BoundedCache<?, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * 交给认证管理器认证并缓存结果，只缓存登录成功和密码错误
+     *
+     * @param key        缓存键
+     * @param generation 认证前的失效版本
+     * @param request    登录请求
+     * @param manager    认证管理器
+     * @return 认证结果
+     */
+    private Authentication load(final Key key, final int generation, final UsernamePasswordAuthenticationToken request,
+                                final AuthenticationManager manager) {
+        final Authentication result;
+        try {
+            result = manager.authenticate(request);
+        } catch (final BadCredentialsException e) {
+            if (0L < failureDuration) {
+                cache.put(key, new Entry(null, null, e.getMessage(), generation),
+                        System.currentTimeMillis() + failureDuration);
+            }
+            throw e;
+        }
+        if (null != result && result.isAuthenticated() && null != result.getPrincipal()) {
+            cache.put(key, new Entry(result.getPrincipal(), result.getAuthorities(), null, generation),
+                    System.currentTimeMillis() + successDuration);
+        }
+        return result;
+    }
+
+    /**
+     * 计算缓存键，用户名以长度为前缀，与密码拼接后不会产生歧义
+     *
+     * @param username 用户名
+     * @param password 密码
+     * @return 缓存键，取 HMAC 的前 128 位
+     */
+    private Key keyOf(final String username, final String password) {
+        final Mac mac = macs.get();
+        final byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        final byte[] pass = password.getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(user.length).array());
+        mac.update(user);
+        mac.update(pass);
+        Arrays.fill(pass, (byte) 0);
+        final ByteBuffer digest = ByteBuffer.wrap(mac.doFinal());
+        return new Key(digest.getLong(0), digest.getLong(Long.BYTES));
+    }
+
+    /**
+     * 计算用户名所在的失效版本分段
+     *
+     * @param username 用户名
+     * @return 分段下标
+     */
+    private static int stripeOf(final String username) {
+        final int h = null != username ? username.hashCode() : 0;
+        return (h ^ h >>> 16) & (Number.CREDENTIAL_GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * 生成并初始化 {@link Mac}
+     *
+     * @param key 密钥
+     * @return {@link Mac} 对象
+     */
+    private static Mac createMac(final SecretKeySpec key) {
+        final Mac ret;
+        try {
+            ret = Mac.getInstance(ALGORITHM);
+            ret.init(key);
+        } catch (final GeneralSecurityException e) {
+            /* 所有 Java 平台都必须支持 HmacSHA256 */
+            throw new IllegalStateException(e);
+        }
+        return ret;
+    }
+
+    /**
+     * 缓存键，保存 HMAC 的前 128 位
+     */
+    private static final class Key {
+        private final long high;
+        private final long low;
+
+        /**
+         * 构造器
+         *
+         * @param high 高 64 位
+         * @param low  低 64 位
+         */
+        Key(final long high, final long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            final boolean ret;
+            if (this == o) {
+                ret = true;
+            } else if (o instanceof Key) {
+                final Key other = (Key) o;
+                ret = high == other.high && low == other.low;
+            } else {
+                ret = false;
+            }
+            return ret;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high);
+        }
+    }
+
+    /**
+     * 缓存值，登录成功时保存用户主体和权限，密码错误时保存错误信息
+     * 认证管理器未擦除凭据时认证结果中仍有明文密码，因此不保存认证结果本身
+     */
+    private static final class Entry {
+        private final Object principal;
+        private final List<GrantedAuthority> authorities;
+        private final String failure;
+        private final int generation;
+
+        /**
+         * 构造器
+         *
+         * @param principal   用户主体，密码错误时为 null
+         * @param authorities 权限，密码错误时为 null
+         * @param failure     错误信息
+         * @param generation  失效版本
+         */
+        Entry(final Object principal, final Collection<? extends GrantedAuthority> authorities, final String failure,
+              final int generation) {
+            this.principal = principal;
+            this.authorities = null != authorities ? Collections.unmodifiableList(new ArrayList<>(authorities)) : null;
+            this.failure = failure;
+            this.generation = generation;
+        }
+
+        /**
+         * 按缓存的结果生成新的认证信息，凭据为 null，详细信息使用当前请求的，避免请求之间相互影响
+         *
+         * @param request 当前登录请求
+         * @return 认证信息
+         * @throws BadCredentialsException 缓存的结果为密码错误时抛出
+         */
+        Authentication toAuthentication(final Authentication request) {
+            if (null == principal) {
+                throw new BadCredentialsException(failure);
+            }
+            final UsernamePasswordAuthenticationToken token =
+                    new UsernamePasswordAuthenticationToken(principal, null, authorities);
+            token.setDetails(request.getDetails());
+            return token;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 登录凭据缓存类包
+ */
+package com.xumumi.credential;
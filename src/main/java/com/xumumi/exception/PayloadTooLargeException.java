@@ -0,0 +1,22 @@
+package com.xumumi.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 登录请求内容超出长度限制
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public class PayloadTooLargeException extends StatusAuthenticationException {
+    private static final long serialVersionUID = 5860394215740816533L;
+
+    /**
+     * 构造器
+     *
+     * @param msg 错误信息
+     */
+    public PayloadTooLargeException(final String msg) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE.value(), msg);
+    }
+}
@@ -0,0 +1,22 @@
+package com.xumumi.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 登录线程池已满，暂时无法处理登录请求
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public class ServiceUnavailableException extends StatusAuthenticationException {
+    private static final long serialVersionUID = -1742953046278318640L;
+
+    /**
+     * 构造器
+     *
+     * @param msg 错误信息
+     */
+    public ServiceUnavailableException(final String msg) {
+        super(HttpStatus.SERVICE_UNAVAILABLE.value(), msg);
+    }
+}
@@ -0,0 +1,38 @@
+package com.xumumi.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * 带有响应状态码的认证异常，登录失败处理器会使用该状态码代替默认的 401
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public class StatusAuthenticationException extends AuthenticationException {
+    private static final long serialVersionUID = -3217528342735283907L;
+
+    /**
+     * 响应状态码
+     */
+    private final int status;
+
+    /**
+     * 构造器
+     *
+     * @param status 响应状态码
+     * @param msg    错误信息
+     */
+    public StatusAuthenticationException(final int status, final String msg) {
+        super(msg);
+        this.status = status;
+    }
+
+    /**
+     * 获取响应状态码
+     *
+     * @return 状态码
+     */
+    public final int getStatus() {
+        return status;
+    }
+}
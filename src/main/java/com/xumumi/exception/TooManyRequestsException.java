@@ -0,0 +1,22 @@
+package com.xumumi.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 登录请求过于频繁或同时进行的登录过多
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public class TooManyRequestsException extends StatusAuthenticationException {
+    private static final long serialVersionUID = 2286410387261630459L;
+
+    /**
+     * 构造器
+     *
+     * @param msg 错误信息
+     */
+    public TooManyRequestsException(final String msg) {
+        super(HttpStatus.TOO_MANY_REQUESTS.value(), msg);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 异常类包
+ */
+package com.xumumi.exception;
\ No newline at end of file
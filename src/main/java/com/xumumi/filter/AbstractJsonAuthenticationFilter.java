@@ -1,15 +1,23 @@
 package com.xumumi.filter;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xumumi.configure.BaseJwtSecurityConfigurerAdapter;
+import com.xumumi.credential.CredentialCache;
+import com.xumumi.exception.PayloadTooLargeException;
+import com.xumumi.exception.ServiceUnavailableException;
+import com.xumumi.exception.StatusAuthenticationException;
 import com.xumumi.filter.constant.Number;
 import com.xumumi.filter.constant.Parameter;
 import com.xumumi.filter.impl.JwtLoginFilterImpl;
 import com.xumumi.function.CookiesCallback;
 import com.xumumi.function.GuardCallback;
 import com.xumumi.function.ResultCallback;
-import org.apache.commons.lang.StringUtils;
+import com.xumumi.limit.LoginBulkhead;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.metrics.impl.NoopSecurityMetrics;
+import com.xumumi.util.LimitedInputStream;
+import com.xumumi.util.LoginResponseSerializer;
+import com.xumumi.util.LoginResult;
+import com.xumumi.util.LoginRequestUtils;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,20 +31,23 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.web.util.HtmlUtils;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.FilterChain;
-import javax.servlet.ServletInputStream;
+import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Json 请求过滤器, 继承于 {@link AbstractAuthenticationProcessingFilter}
@@ -48,11 +59,27 @@ import java.util.Objects;
  */
 @SuppressWarnings("unused")
 public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
+    /**
+     * 登录开始时刻在请求属性中的键名
+     */
+    private static final String START_ATTRIBUTE = AbstractJsonAuthenticationFilter.class.getName() + ".START";
+
+    /* 序列化 */
+
+    /**
+     * 过滤器共用的线程安全的序列化工具，避免每次请求都重新构造
+     */
+    private final LoginResponseSerializer serializer = LoginResponseSerializer.createLoginResponseSerializer();
+
     /* 字段 */
 
     private String usernameParameter = Parameter.USER_NAME;
     private String passwordParameter = Parameter.PASSWORD;
 
+    /* 参数 */
+
+    private long maxBodySize = Number.LOGIN_BODY_MAX_SIZE;
+
     /* 回调 */
 
     private ResultCallback<? super Authentication> successCallback;
@@ -60,6 +87,22 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
     private CookiesCallback cookiesCallback;
     private GuardCallback guardCallback;
 
+    /* 指标 */
+
+    private SecurityMetrics metrics = NoopSecurityMetrics.createSecurityMetrics();
+
+    /* 异步 */
+
+    private Executor loginExecutor;
+
+    /* 并发隔离 */
+
+    private LoginBulkhead loginBulkhead;
+
+    /* 凭据缓存 */
+
+    private CredentialCache credentialCache;
+
     /**
      * 获取用户字段名
      *
@@ -96,6 +139,64 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
         passwordParameter = Objects.requireNonNullElse(parameter, passwordParameter);
     }
 
+    /**
+     * 修改登录请求内容的最大长度，超出时以 413 拒绝登录
+     *
+     * @param size 最大字节数，不大于 0 时保持原值
+     */
+    public final void setMaxBodySize(final long size) {
+        if (0L < size) {
+            maxBodySize = size;
+        }
+    }
+
+    /**
+     * 获取性能指标
+     *
+     * @return 性能指标
+     */
+    protected final SecurityMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 修改性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    public final void setMetrics(final SecurityMetrics securityMetrics) {
+        metrics = Objects.requireNonNullElseGet(securityMetrics, NoopSecurityMetrics::createSecurityMetrics);
+    }
+
+    /**
+     * 修改异步登录线程池，启用后认证和签发令牌在该线程池中执行，不再占用容器线程
+     *
+     * @param executor 登录线程池，为 null 时在容器线程中同步登录
+     * @see com.xumumi.util.LoginExecutors
+     */
+    public final void setLoginExecutor(final Executor executor) {
+        loginExecutor = executor;
+    }
+
+    /**
+     * 修改登录并发隔离，超出同时进行的登录总数或同一用户名的登录数时以 429 拒绝登录
+     * 拒绝原因会交给登录失败回调，可以通过 {@link #setFailureCallback(ResultCallback)} 自定义返回内容
+     *
+     * @param bulkhead 登录并发隔离，为 null 时不限制
+     */
+    public final void setLoginBulkhead(final LoginBulkhead bulkhead) {
+        loginBulkhead = bulkhead;
+    }
+
+    /**
+     * 修改登录凭据缓存，短时间内以相同用户名和密码再次登录时不再校验密码
+     *
+     * @param cache 登录凭据缓存，为 null 时不缓存
+     */
+    public final void setCredentialCache(final CredentialCache cache) {
+        credentialCache = cache;
+    }
+
     /**
      * 构造器
      *
@@ -108,6 +209,99 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
         super(new AntPathRequestMatcher(loginProcessingUrl, HttpMethod.POST.name()), manager);
     }
 
+    /**
+     * 处理登录请求，设置了登录线程池且请求支持异步时，开启异步上下文并将登录交给线程池，容器线程随即返回
+     * 守卫在容器线程中先行检查，被拒绝的请求不占用线程池的队列和线程，线程池已满时以 503 拒绝登录，其余请求沿用同步流程
+     *
+     * @param req   请求内容
+     * @param res   响应内容
+     * @param chain 过滤链
+     * @throws IOException      读写异常
+     * @throws ServletException 过滤异常
+     */
+    @Override
+    public final void doFilter(final ServletRequest req, final ServletResponse res, final FilterChain chain)
+            throws IOException, ServletException {
+        final HttpServletRequest request = (HttpServletRequest) req;
+        final HttpServletResponse response = (HttpServletResponse) res;
+        final Executor executor = loginExecutor;
+        if (null != executor && request.isAsyncSupported() && requiresAuthentication(request, response)) {
+            /* 排队时间计入登录耗时 */
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            if (admit(request, response)) {
+                final AsyncContext asyncContext = request.startAsync(request, response);
+                try {
+                    executor.execute(() -> asyncLogin(asyncContext, request, response));
+                } catch (final RejectedExecutionException e) {
+                    try {
+                        final AuthenticationException failed = new ServiceUnavailableException("登录请求过多，请稍后再试");
+                        unsuccessfulAuthentication(request, response, failed);
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }
+            }
+        } else {
+            super.doFilter(req, res, chain);
+        }
+    }
+
+    /**
+     * 在容器线程中执行守卫，在开启异步和进入线程池之前拒绝，被拒绝的请求直接交给登录失败处理
+     *
+     * @param request  请求内容
+     * @param response 响应内容
+     * @return 是否放行
+     * @throws IOException 读写异常
+     */
+    private boolean admit(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        final GuardCallback guard = guardCallback;
+        boolean ret = true;
+        if (null != guard) {
+            try {
+                guard.apply(request);
+            } catch (final AuthenticationException e) {
+                ret = false;
+                unsuccessfulAuthentication(request, response, e);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * 在登录线程中完成认证、签发令牌和写入响应，结束后清理线程上下文并完成异步请求
+     *
+     * @param asyncContext 异步上下文
+     * @param request      请求内容
+     * @param response     响应内容
+     */
+    private void asyncLogin(final AsyncContext asyncContext, final HttpServletRequest request,
+                            final HttpServletResponse response) {
+        try {
+            try {
+                /* 守卫已在容器线程中检查过请求 */
+                final Authentication authResult = authenticate(request, false);
+                successfulAuthentication(request, response, null, authResult);
+            } catch (final AuthenticationException e) {
+                unsuccessfulAuthentication(request, response, e);
+            }
+        } catch (final IOException | RuntimeException e) {
+            logger.error("异步登录处理失败", e);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        } finally {
+            /* 登录线程会被复用，不能残留认证信息 */
+            SecurityContextHolder.clearContext();
+            try {
+                asyncContext.complete();
+            } catch (final IllegalStateException e) {
+                /* 已超时的请求由容器完成 */
+                logger.debug("异步登录请求已超时", e);
+            }
+        }
+    }
+
     /**
      * 对读取到的请求信息进行处理
      *
@@ -121,16 +315,63 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
     @Override
     public final Authentication attemptAuthentication(final HttpServletRequest request,
                                                       final HttpServletResponse response) throws IOException {
+        if (null == request.getAttribute(START_ATTRIBUTE)) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return authenticate(request, true);
+    }
+
+    /**
+     * 读取请求信息并认证
+     *
+     * @param request      接收到的消息
+     * @param guardRequest 是否需要按请求执行守卫，异步登录已在容器线程中执行过
+     * @return Authentication 处理完毕的 token
+     * @throws AuthenticationException 登录异常
+     * @throws IOException             读写异常
+     */
+    private Authentication authenticate(final HttpServletRequest request, final boolean guardRequest)
+            throws IOException {
+        /* 守卫拦截，在读取请求内容之前拒绝 */
+        final GuardCallback guard = guardCallback;
+        if (guardRequest && null != guard) {
+            guard.apply(request);
+        }
         final UsernamePasswordAuthenticationToken authRequest;
         /* 从输入流中读取 json */
         authRequest = getAuthRequest(request);
-        /* 守卫拦截 */
-        if (null != guardCallback) {
-            guardCallback.apply(request);
+        final String username = authRequest.getName();
+        if (null != guard) {
+            guard.applyUsername(request, username);
+        }
+        /* 凭据缓存命中时不再校验密码 */
+        final CredentialCache cache = credentialCache;
+        return null != cache ? cache.authenticate(authRequest, this::doAuthenticate) : doAuthenticate(authRequest);
+    }
+
+    /**
+     * 交给认证管理器验证，超出并发上限时在密码校验之前拒绝
+     *
+     * @param authRequest 登录令牌
+     * @return 认证结果
+     * @throws AuthenticationException 登录异常
+     */
+    private Authentication doAuthenticate(final Authentication authRequest) {
+        final LoginBulkhead bulkhead = loginBulkhead;
+        final String username = authRequest.getName();
+        if (null != bulkhead) {
+            bulkhead.acquire(username);
         }
-        /* 验证并返回 */
         final AuthenticationManager manager = getAuthenticationManager();
-        return manager.authenticate(authRequest);
+        final long start = System.nanoTime();
+        try {
+            return manager.authenticate(authRequest);
+        } finally {
+            metrics.recordAuthenticate(System.nanoTime() - start);
+            if (null != bulkhead) {
+                bulkhead.release(username);
+            }
+        }
     }
 
     /* 处理器 */
@@ -173,7 +414,7 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
      * 登录成功处理器：
      * 可以通过 {@link #setSuccessCallback(ResultCallback)} 传入回调函数对返回内容进行修改，
      * 可以通过重写 {@link #getCookies(HttpServletRequest, Authentication)} 函数对返回 cookies 进行自定义，
-     * 默认返回认证成功的具体信息
+     * 默认返回 {@link LoginResult}，即用户名和角色
      *
      * @param request    传入内容
      * @param response   返回内容
@@ -188,15 +429,16 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
         /* 使用 json 格式返回信息 */
         //noinspection AliDeprecation,deprecation 由于主流浏览器尚未将 utf8 作为默认，故不得不使用已弃用属性
         response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
-        final PrintWriter out = response.getWriter();
-        final ObjectMapper objectMapper = new ObjectMapper();
-        /* 判断返回默认信息或自定义信息并写入 */
+        /* 判断返回默认信息或自定义信息，直接以 UTF-8 字节写入输出流 */
         final String requestUri = request.getRequestURI();
-        final Object result = null != successCallback ? successCallback.apply(requestUri, authResult) : authResult;
-        final String message = objectMapper.writeValueAsString(result);
-        out.write(message);
-        out.flush();
+        final Object result = null != successCallback ?
+                successCallback.apply(requestUri, authResult) : LoginResult.createLoginResult(authResult);
+        final OutputStream out = response.getOutputStream();
+        final long start = System.nanoTime();
+        serializer.write(out, result);
+        metrics.recordSerialize(System.nanoTime() - start);
         out.close();
+        recordLogin(request, true);
     }
 
     /**
@@ -241,18 +483,37 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
         /* 使用 json 格式返回信息 */
         //noinspection AliDeprecation,deprecation 由于主流浏览器尚未将 utf8 作为默认，故不得不使用已弃用属性
         response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
-        final int unauthorized = HttpStatus.UNAUTHORIZED.value();
-        response.setStatus(unauthorized);
-        final PrintWriter out = response.getWriter();
-        final ObjectMapper objectMapper = new ObjectMapper();
-        /* 判断返回默认信息或自定义信息并写入 */
-        final String requestUri = request.getRequestURI();
-        final Object result = null != failureCallback ?
-                failureCallback.apply(requestUri, exception) : exception.getMessage();
-        final String message = objectMapper.writeValueAsString(result);
-        out.write(message);
-        out.flush();
+        /* 带有状态码的异常使用自身状态码，其余为 401 */
+        final int status = exception instanceof StatusAuthenticationException ?
+                ((StatusAuthenticationException) exception).getStatus() : HttpStatus.UNAUTHORIZED.value();
+        response.setStatus(status);
+        /* 判断返回默认信息或自定义信息并写入，默认信息使用预先序列化的内容 */
+        final OutputStream out = response.getOutputStream();
+        final long start = System.nanoTime();
+        if (null != failureCallback) {
+            final String requestUri = request.getRequestURI();
+            serializer.write(out, failureCallback.apply(requestUri, exception));
+        } else {
+            final byte[] body = serializer.getFailureBody(exception.getMessage());
+            response.setContentLength(body.length);
+            out.write(body);
+        }
+        metrics.recordSerialize(System.nanoTime() - start);
         out.close();
+        recordLogin(request, false);
+    }
+
+    /**
+     * 记录登录请求耗时，未经过 {@link #attemptAuthentication} 的请求不记录
+     *
+     * @param request 请求内容
+     * @param success 是否登录成功
+     */
+    private void recordLogin(final ServletRequest request, final boolean success) {
+        final Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof Long) {
+            metrics.recordLogin(System.nanoTime() - (Long) start, success);
+        }
     }
 
     /**
@@ -263,22 +524,21 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
      * @throws IOException 读写异常
      */
     private UsernamePasswordAuthenticationToken getAuthRequest(final ServletRequest request) throws IOException {
-        final ObjectMapper objectMapper = new ObjectMapper();
-        String username = null, password = null;
-        final ServletInputStream inputStream = request.getInputStream();
-        final byte[] body = inputStream.readAllBytes();
-        if (0 < body.length) {
-            final Map<String, String> streamBean = objectMapper.readValue(body, new MapTypeReference());
-            /* 处理从 json 中得到的用户名和密码 */
-            username = streamBean.get(usernameParameter);
-            username = Objects.requireNonNullElse(username, StringUtils.EMPTY);
-            username = username.trim();
-            username = HtmlUtils.htmlEscape(username);
-            password = streamBean.get(passwordParameter);
-            password = Objects.requireNonNullElse(password, StringUtils.EMPTY);
+        /* 声明的长度已超出限制时直接拒绝，不读取内容 */
+        if (request.getContentLengthLong() > maxBodySize) {
+            throw new PayloadTooLargeException("登录请求内容过大");
+        }
+        /* 边读边解析，单次登录占用的内存与请求内容长度无关 */
+        final LimitedInputStream inputStream = new LimitedInputStream(request.getInputStream(), maxBodySize);
+        final UsernamePasswordAuthenticationToken token;
+        try {
+            token = LoginRequestUtils.readAuthRequest(inputStream, usernameParameter, passwordParameter);
+        } catch (final IOException e) {
+            if (inputStream.isExceeded()) {
+                throw new PayloadTooLargeException("登录请求内容过大");
+            }
+            throw e;
         }
-        /* 将其处理为 UsernamePasswordAuthenticationToken 对象 */
-        final UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(username, password);
         final Map<String, String[]> parameterMap = request.getParameterMap();
         token.setDetails(parameterMap);
         return token;
@@ -315,15 +575,4 @@ public abstract class AbstractJsonAuthenticationFilter extends AbstractAuthentic
     public final void setGuardCallback(final GuardCallback guard) {
         guardCallback = guard;
     }
-
-    /**
-     * 用于 json 化的 map 类型模板内部类
-     */
-    private static class MapTypeReference extends TypeReference<Map<String, String>> {
-        /**
-         * 设定构造器可见性
-         */
-        MapTypeReference() {
-        }
-    }
 }
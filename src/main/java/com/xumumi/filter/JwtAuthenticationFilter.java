@@ -1,6 +1,15 @@
 package com.xumumi.filter;
 
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.ClaimAliases;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
 import javax.servlet.Filter;
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
 
 /**
  * JWT 授权过滤器接口
@@ -9,6 +18,14 @@ import javax.servlet.Filter;
  * @since 1.9
  */
 public interface JwtAuthenticationFilter extends Filter {
+    /**
+     * 判断请求是否无需防御跨站请求伪造，只校验令牌，不刷新也不写回
+     *
+     * @param request 请求
+     * @return 认证所用的令牌来自无需防御的读取器且校验通过时返回 true
+     */
+    boolean isCsrfExempt(final HttpServletRequest request);
+
     /**
      * 自定义令牌名
      *
@@ -16,6 +33,13 @@ public interface JwtAuthenticationFilter extends Filter {
      */
     void setTokenName(final String name);
 
+    /**
+     * 自定义令牌读取器，按顺序读取，使用第一个读到的令牌，默认按令牌名读取 cookie
+     *
+     * @param resolvers 令牌读取器列表，为 null 或空时使用默认读取器
+     */
+    void setTokenResolvers(final List<? extends TokenResolver> resolvers);
+
     /**
      * 自定义角色字段名
      *
@@ -29,4 +53,67 @@ public interface JwtAuthenticationFilter extends Filter {
      * @param duration 剩余时长
      */
     void setExpireDuration(final long duration);
+
+    /**
+     * 自定义刷新后令牌的有效期
+     *
+     * @param time 有效期，单位毫秒，为 0 时保持原值
+     */
+    void setRefreshLifetime(final long time);
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔
+     *
+     * @param interval 间隔，单位毫秒
+     */
+    void setRefreshInterval(final long interval);
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期
+     *
+     * @param keep 保留布尔值
+     */
+    void setKeepLifetime(final boolean keep);
+
+    /**
+     * 自定义已校验令牌缓存容量
+     *
+     * @param size 缓存容量，不大于 0 时关闭缓存
+     */
+    void setTokenCacheSize(final int size);
+
+    /**
+     * 自定义跳过令牌处理的请求，匹配的请求直接进入下一个过滤器
+     *
+     * @param matcher 请求匹配器，为 null 时不跳过任何请求
+     */
+    void setSkipMatcher(final RequestMatcher matcher);
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    void setMetrics(final SecurityMetrics securityMetrics);
+
+    /**
+     * 自定义令牌吊销列表
+     *
+     * @param tokenRevocation 令牌吊销列表，为 null 时不检查
+     */
+    void setTokenRevocation(final TokenRevocation tokenRevocation);
+
+    /**
+     * 自定义附加信息字段名别名表
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    void setClaimAliases(final ClaimAliases aliases);
+
+    /**
+     * 获取已校验令牌缓存，可用于读取命中率
+     *
+     * @return 缓存，未启用时返回 null
+     */
+    BoundedCache<?, ?> getTokenCache();
 }
@@ -1,8 +1,13 @@
 package com.xumumi.filter;
 
+import com.xumumi.credential.CredentialCache;
 import com.xumumi.function.CookiesCallback;
 import com.xumumi.function.GuardCallback;
 import com.xumumi.function.ResultCallback;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.limit.LoginBulkhead;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.util.ClaimAliases;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 
@@ -11,6 +16,7 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -44,6 +50,34 @@ public interface JwtLoginFilter extends Filter {
      */
     void setRmbValue(final String value);
 
+    /**
+     * 自定义登录请求内容的最大长度，默认为 8 KB
+     *
+     * @param size 最大字节数
+     */
+    void setMaxBodySize(final long size);
+
+    /**
+     * 自定义异步登录线程池，默认在容器线程中同步登录
+     *
+     * @param executor 登录线程池，为 null 时同步登录
+     */
+    void setLoginExecutor(final Executor executor);
+
+    /**
+     * 自定义登录并发隔离，默认不限制
+     *
+     * @param bulkhead 登录并发隔离，为 null 时不限制
+     */
+    void setLoginBulkhead(final LoginBulkhead bulkhead);
+
+    /**
+     * 自定义登录凭据缓存，默认不缓存
+     *
+     * @param cache 登录凭据缓存，为 null 时不缓存
+     */
+    void setCredentialCache(final CredentialCache cache);
+
     /* 字段 */
 
     /**
@@ -92,6 +126,13 @@ public interface JwtLoginFilter extends Filter {
      */
     void setClaimCallback(final Function<? super Authentication, ? extends Map<String, String>> claim);
 
+    /**
+     * 自定义角色提取方式，默认按角色字段名从主体的 getter 或字段中读取
+     *
+     * @param extractor 从主体中提取角色的回调函数，为 null 时使用默认方式
+     */
+    void setRoleExtractor(final RoleExtractor extractor);
+
     /**
      * 成功时 cookies 的内容，在此基础上加入 token
      *
@@ -136,4 +177,18 @@ public interface JwtLoginFilter extends Filter {
      * @see GuardCallback
      */
     void setGuardCallback(final GuardCallback guard);
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    void setMetrics(final SecurityMetrics securityMetrics);
+
+    /**
+     * 自定义附加信息字段名别名表
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    void setClaimAliases(final ClaimAliases aliases);
 }
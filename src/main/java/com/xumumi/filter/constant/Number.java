@@ -24,4 +24,68 @@ public enum Number {
      * 60 * 1000 即 1 分钟
      */
     public static final long ONE_MINUTES_MILLISECONDS = 60000L;
+    /**
+     * 60 * 60 * 1000 即 1 小时
+     */
+    public static final long ONE_HOUR_MILLISECONDS = 3600000L;
+    /**
+     * 密钥缓存默认容量
+     */
+    public static final int KEY_CACHE_SIZE = 1024;
+    /**
+     * 登录请求内容默认最大长度，8 KB
+     */
+    public static final long LOGIN_BODY_MAX_SIZE = 8192L;
+    /**
+     * 刷新结果缓存默认容量
+     */
+    public static final int REFRESH_CACHE_SIZE = 4096;
+    /**
+     * 10 * 1000 即 10 秒，同一旧令牌在该时长内的并发刷新共用一个新令牌
+     */
+    public static final long REFRESH_REUSE_MILLISECONDS = 10000L;
+    /**
+     * 默认预计同时存在的吊销记录数
+     */
+    public static final int REVOCATION_EXPECTED_SIZE = 65536;
+    /**
+     * 60 * 1000 即 1 分钟，吊销列表清理过期记录的最短间隔
+     */
+    public static final long REVOCATION_PURGE_MILLISECONDS = 60000L;
+    /**
+     * 异步登录线程池队列默认容量，队列已满时以 503 拒绝登录
+     */
+    public static final int LOGIN_QUEUE_SIZE = 256;
+    /**
+     * 登录并发隔离中按用户名分段计数的段数
+     */
+    public static final int LOGIN_BULKHEAD_STRIPES = 4096;
+    /**
+     * 限流表每行默认的桶数
+     */
+    public static final int RATE_LIMIT_WIDTH = 4096;
+    /**
+     * 限流表行数，每个键在每行各占一个桶
+     */
+    public static final int RATE_LIMIT_DEPTH = 4;
+    /**
+     * 登录凭据缓存默认容量
+     */
+    public static final int CREDENTIAL_CACHE_SIZE = 8192;
+    /**
+     * 5 * 1000 即 5 秒，登录成功结果默认缓存时长
+     */
+    public static final long CREDENTIAL_SUCCESS_MILLISECONDS = 5000L;
+    /**
+     * 2 * 1000 即 2 秒，密码错误结果默认缓存时长
+     */
+    public static final long CREDENTIAL_FAILURE_MILLISECONDS = 2000L;
+    /**
+     * 登录凭据缓存中按用户名分段记录失效版本的段数
+     */
+    public static final int CREDENTIAL_GENERATION_STRIPES = 4096;
+    /**
+     * 预先序列化的登录失败响应缓存容量
+     */
+    public static final int FAILURE_BODY_CACHE_SIZE = 256;
 }
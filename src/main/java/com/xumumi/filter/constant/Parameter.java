@@ -28,5 +28,25 @@ public enum Parameter {
      * TOKEN 名
      */
     public static final String TOKEN_NAME = "USER-TOKEN";
+    /**
+     * 以 Bearer 方式携带令牌时，刷新后的令牌所在的响应头
+     */
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+    /**
+     * 保存当前请求已校验令牌 {@link com.xumumi.util.VerifiedToken} 的请求属性名，响应式过滤器保存在请求交换属性中
+     */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = "com.xumumi.VERIFIED_TOKEN";
+    /**
+     * 认证所用令牌来自无需防御跨站请求伪造的读取器且校验通过时，授权过滤器在跨站请求伪造防御中设置的请求属性名，值为 {@link Boolean#TRUE}
+     */
+    public static final String CSRF_EXEMPT_ATTRIBUTE = "com.xumumi.CSRF_EXEMPT";
+    /**
+     * 当前请求刷新了令牌时，保存新令牌 jti 的请求属性名，响应式过滤器保存在请求交换属性中
+     */
+    public static final String REFRESHED_TOKEN_ID_ATTRIBUTE = "com.xumumi.REFRESHED_TOKEN_ID";
+    /**
+     * 当前请求刷新了令牌时，保存新令牌过期时刻的请求属性名，值为毫秒时间戳 {@link Long}
+     */
+    public static final String REFRESHED_EXPIRES_AT_ATTRIBUTE = "com.xumumi.REFRESHED_EXPIRES_AT";
 
 }
@@ -0,0 +1,163 @@
+package com.xumumi.filter.impl;
+
+import com.xumumi.function.RoleExtractor;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.StringJoiner;
+
+/**
+ * 默认的角色提取器
+ * 每个主体类只在第一次出现时查找一次访问方式并编译为 {@link MethodHandle}，之后直接调用
+ * 查找顺序为 getter（getRole、isRole、role）、本类及父类中的字段，静态成员同样支持
+ * 角色值可以是字符串、{@link GrantedAuthority} 或它们的集合，集合会以逗号拼接
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class CachedRoleExtractor implements RoleExtractor {
+    /**
+     * 统一的访问函数类型 Object (Object)
+     */
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * 找不到角色时使用的访问函数，始终返回 null
+     */
+    private static final MethodHandle NOT_FOUND = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+    /**
+     * 角色值的分隔符
+     */
+    private static final String DELIMITER = ",";
+
+    private final String roleParameter;
+    private final ClassValue<MethodHandle> accessors = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(final Class<?> type) {
+            return findAccessor(type);
+        }
+    };
+
+    /**
+     * 构造器
+     *
+     * @param parameter 角色字段名
+     */
+    private CachedRoleExtractor(@NonNull final String parameter) {
+        roleParameter = parameter;
+    }
+
+    /**
+     * {@link RoleExtractor} 生成器
+     *
+     * @param parameter 角色字段名
+     * @return {@link RoleExtractor} 对象
+     */
+    public static RoleExtractor createRoleExtractor(@NonNull final String parameter) {
+        return new CachedRoleExtractor(parameter);
+    }
+
+    /**
+     * 从主体获取角色
+     *
+     * @param principal 主体对象
+     * @return 角色名，找不到时返回 null
+     */
+    @Override
+    public String apply(final Object principal) {
+        String role = null;
+        if (null != principal) {
+            try {
+                final MethodHandle accessor = accessors.get(principal.getClass());
+                role = toRole((Object) accessor.invokeExact(principal));
+            } catch (final Throwable ignored) {
+                role = null;
+            }
+        }
+        return role;
+    }
+
+    /**
+     * 查找主体类的角色访问方式
+     *
+     * @param type 主体类
+     * @return 访问函数，找不到时返回始终为 null 的函数
+     */
+    private MethodHandle findAccessor(final Class<?> type) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final String capitalized = StringUtils.capitalize(roleParameter);
+        final String[] names = {"get" + capitalized, "is" + capitalized, roleParameter};
+        MethodHandle ret = null;
+        /* 优先使用 getter */
+        for (int i = 0; null == ret && i < names.length; i++) {
+            try {
+                final Method method = type.getMethod(names[i]);
+                if (void.class != method.getReturnType() && method.trySetAccessible()) {
+                    ret = adapt(lookup.unreflect(method), method.getModifiers());
+                }
+            } catch (final NoSuchMethodException | IllegalAccessException | SecurityException ignored) {
+            }
+        }
+        /* 其次查找本类及父类中的字段 */
+        for (Class<?> current = type; null == ret && null != current && Object.class != current;
+             current = current.getSuperclass()) {
+            try {
+                final Field field = current.getDeclaredField(roleParameter);
+                if (field.trySetAccessible()) {
+                    ret = adapt(lookup.unreflectGetter(field), field.getModifiers());
+                }
+            } catch (final NoSuchFieldException | IllegalAccessException | SecurityException ignored) {
+            }
+        }
+        return null != ret ? ret : NOT_FOUND;
+    }
+
+    /**
+     * 将访问函数转换为统一的 {@link #ACCESSOR_TYPE}
+     * 静态成员的函数没有接收者参数，补上一个被忽略的主体参数
+     *
+     * @param handle    getter 或字段的访问函数
+     * @param modifiers 成员的修饰符
+     * @return 访问函数
+     */
+    private static MethodHandle adapt(final MethodHandle handle, final int modifiers) {
+        final MethodHandle receiver = Modifier.isStatic(modifiers) ?
+                MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+        return receiver.asType(ACCESSOR_TYPE);
+    }
+
+    /**
+     * 将角色值转换为字符串
+     *
+     * @param value 角色值
+     * @return 角色字符串
+     */
+    private static String toRole(final Object value) {
+        final String role;
+        if (null == value) {
+            role = null;
+        } else if (value instanceof GrantedAuthority) {
+            role = ((GrantedAuthority) value).getAuthority();
+        } else if (value instanceof Collection) {
+            final StringJoiner joiner = new StringJoiner(DELIMITER);
+            for (final Object item : (Collection<?>) value) {
+                final String itemRole = toRole(item);
+                if (null != itemRole) {
+                    joiner.add(itemRole);
+                }
+            }
+            role = 0 == joiner.length() ? null : joiner.toString();
+        } else {
+            role = value.toString();
+        }
+        return role;
+    }
+}
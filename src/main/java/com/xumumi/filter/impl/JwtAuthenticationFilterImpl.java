@@ -2,31 +2,29 @@ package com.xumumi.filter.impl;
 
 import com.xumumi.configure.BaseJwtSecurityConfigurerAdapter;
 import com.xumumi.filter.JwtAuthenticationFilter;
-import com.xumumi.filter.constant.Number;
 import com.xumumi.filter.constant.Parameter;
-import com.xumumi.filter.constant.Path;
-import com.xumumi.util.CookieUtils;
-import com.xumumi.util.JwtUtils;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.resolver.impl.CookieTokenResolver;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.impl.CallbackSecretProvider;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.ClaimAliases;
+import com.xumumi.util.VerifiedToken;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.StringUtils;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.WebUtils;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.function.Function;
 
 /**
  * JWT 请求过滤器, 继承于 OncePerRequestFilter
@@ -38,42 +36,61 @@ import java.util.function.Function;
  */
 public final class JwtAuthenticationFilterImpl extends OncePerRequestFilter implements JwtAuthenticationFilter {
     /**
-     * 统一 token 名
+     * 保存跨站请求伪造防御读取和校验结果的请求属性名
      */
-    private String tokenName = Parameter.TOKEN_NAME;
+    private static final String RESOLVED_TOKEN_ATTRIBUTE = JwtAuthenticationFilterImpl.class.getName() + ".RESOLVED";
     /**
-     * 角色字段名
+     * 默认令牌读取器，按统一 token 名读取 cookie
      */
-    private String roleParameter = Parameter.ROLE;
+    private TokenResolver[] defaultResolvers = {CookieTokenResolver.createTokenResolver(Parameter.TOKEN_NAME)};
     /**
-     * 生成密钥回调函数
+     * 自定义令牌读取器，为 null 时使用默认读取器
      */
-    private final Function<? super HttpServletRequest, String> secretCallback;
+    private TokenResolver[] tokenResolvers;
     /**
-     * 即将过期时间，Token 有效期小于该时长时刷新
+     * 密钥提供者
      */
-    private long expireDuration = Number.ONE_MINUTES_MILLISECONDS;
+    private final SecretProvider secretProvider;
+    /**
+     * 令牌认证器，负责校验、缓存、吊销检查和刷新
+     */
+    private final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+    /**
+     * 跳过令牌处理的请求，为 null 时不跳过
+     */
+    private RequestMatcher skipMatcher;
 
     /**
      * 构造函数
      *
-     * @param secret 密钥构造函数，不允许为 null，函数返回值必须为一个非 null 的 String，建议长度至少为 256 个字符
+     * @param secret 密钥提供者，不允许为 null
      */
-    private JwtAuthenticationFilterImpl(@NonNull final Function<? super HttpServletRequest, String> secret) {
-        secretCallback = secret;
+    private JwtAuthenticationFilterImpl(@NonNull final SecretProvider secret) {
+        secretProvider = secret;
     }
 
     /**
      * {@link JwtAuthenticationFilter} 生成器
      *
-     * @param secret 用于生成密钥的回调函数
+     * @param secret 密钥提供者，字符串密钥回调可通过 {@link CallbackSecretProvider} 转换
      * @return {@link JwtAuthenticationFilter} 对象
      */
-    public static JwtAuthenticationFilter createJwtAuthenticationFilter(
-            @NonNull final Function<? super HttpServletRequest, String> secret) {
+    public static JwtAuthenticationFilter createJwtAuthenticationFilter(@NonNull final SecretProvider secret) {
         return new JwtAuthenticationFilterImpl(secret);
     }
 
+    /**
+     * 无需授权页面和静态资源不读取令牌、不解析密钥、不校验也不刷新令牌
+     *
+     * @param request 请求
+     * @return 跳过布尔值
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+        final RequestMatcher matcher = skipMatcher;
+        return null != matcher && matcher.matches(request);
+    }
+
     /**
      * 执行验证
      *
@@ -88,22 +105,75 @@ public final class JwtAuthenticationFilterImpl extends OncePerRequestFilter impl
                                     @NonNull final HttpServletResponse httpServletResponse,
                                     final FilterChain filterChain)
             throws ServletException, IOException {
-        final Cookie cookie = WebUtils.getCookie(httpServletRequest, tokenName);
-        final String token = null != cookie ? cookie.getValue() : null;
-        final String secret = secretCallback.apply(httpServletRequest);
-        /* 对用 token 获取到的用户进行校验 */
-        final Authentication authentication = getAuthentication(token, httpServletRequest);
+        /* 跨站请求伪造防御已读取和校验过令牌时直接使用，不再重复读取和校验 */
+        final Object stored = httpServletRequest.getAttribute(RESOLVED_TOKEN_ATTRIBUTE);
+        final ResolvedToken resolved = stored instanceof ResolvedToken ? (ResolvedToken) stored :
+                resolve(httpServletRequest);
+        final TokenResolver source = resolved.source;
+        final TokenAuthenticator.Result result = resolved.checked ?
+                authenticator.authenticate(resolved.verified, resolved.keyRing) :
+                authenticator.authenticate(resolved.token, resolved.keyRing);
         final SecurityContext context = SecurityContextHolder.getContext();
-        context.setAuthentication(authentication);
-        /* 刷新 token */
-        final String jwt = JwtUtils.refresh(token, expireDuration, secret);
-        if (Objects.nonNull(jwt)) {
-            final Cookie newToken = CookieUtils.generateCookie(tokenName, jwt, Path.ROOT, (int) expireDuration);
-            httpServletResponse.addCookie(newToken);
+        context.setAuthentication(result.getAuthentication());
+        /* 保存已校验的令牌，注销时可直接按 jti 吊销，无需再次读取和校验 */
+        if (null != result.getVerified()) {
+            httpServletRequest.setAttribute(Parameter.VERIFIED_TOKEN_ATTRIBUTE, result.getVerified());
+        }
+        /* 刷新 token，从哪里读到就写回到哪里，本过滤器位于跨站请求伪造防御之后，被拒绝的请求不会刷新 */
+        final String refreshed = result.getRefreshedToken();
+        if (null != refreshed) {
+            /* 保存新令牌的标识，注销时与旧令牌一起吊销 */
+            httpServletRequest.setAttribute(Parameter.REFRESHED_TOKEN_ID_ATTRIBUTE, result.getRefreshedTokenId());
+            httpServletRequest.setAttribute(Parameter.REFRESHED_EXPIRES_AT_ATTRIBUTE, result.getRefreshedExpiresAt());
+            source.writeToken(httpServletResponse, refreshed, result.getRefreshedMaxAge());
         }
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
 
+    /**
+     * 判断请求是否无需防御跨站请求伪造，由跨站请求伪造防御在本过滤器之前调用
+     * 只校验令牌，不刷新也不写回，校验结果保存在请求属性中，本过滤器直接使用
+     *
+     * @param request 请求
+     * @return 认证所用的令牌来自无需防御的读取器且校验通过时返回 true
+     */
+    @Override
+    public boolean isCsrfExempt(@NonNull final HttpServletRequest request) {
+        boolean exempt = false;
+        if (!shouldNotFilter(request)) {
+            final ResolvedToken resolved = resolve(request);
+            /* 只有令牌来自请求头时才需要校验，浏览器不会自动附带请求头 */
+            if (null != resolved.token && !resolved.source.isCsrfRequired()) {
+                resolved.verified = authenticator.verify(resolved.token, resolved.keyRing);
+                resolved.checked = true;
+                exempt = null != resolved.verified;
+            }
+            request.setAttribute(RESOLVED_TOKEN_ATTRIBUTE, resolved);
+            if (exempt) {
+                request.setAttribute(Parameter.CSRF_EXEMPT_ATTRIBUTE, Boolean.TRUE);
+            }
+        }
+        return exempt;
+    }
+
+    /**
+     * 按顺序读取令牌，读到即停止，记录令牌来源以便按同一方式写回
+     * 每个请求只解析一次密钥环，校验按 kid 选取密钥，刷新使用当前密钥，未读到令牌时不解析
+     *
+     * @param request 请求
+     * @return 读取结果
+     */
+    private ResolvedToken resolve(final HttpServletRequest request) {
+        final TokenResolver[] resolvers = null != tokenResolvers ? tokenResolvers : defaultResolvers;
+        TokenResolver source = null;
+        String token = null;
+        for (int i = 0; null == token && i < resolvers.length; i++) {
+            source = resolvers[i];
+            token = source.resolve(request);
+        }
+        return new ResolvedToken(source, token, null != token ? secretProvider.resolve(request) : null);
+    }
+
     /**
      * 自定义令牌名
      *
@@ -111,7 +181,19 @@ public final class JwtAuthenticationFilterImpl extends OncePerRequestFilter impl
      */
     @Override
     public void setTokenName(final String name) {
-        tokenName = Objects.requireNonNullElse(name, tokenName);
+        if (null != name) {
+            defaultResolvers = new TokenResolver[]{CookieTokenResolver.createTokenResolver(name)};
+        }
+    }
+
+    /**
+     * 自定义令牌读取器，按顺序读取，使用第一个读到的令牌，刷新后的令牌由读到令牌的读取器写回
+     *
+     * @param resolvers 令牌读取器列表，为 null 或空时按 token 名读取 cookie
+     */
+    @Override
+    public void setTokenResolvers(final List<? extends TokenResolver> resolvers) {
+        tokenResolvers = null != resolvers && !resolvers.isEmpty() ? resolvers.toArray(new TokenResolver[0]) : null;
     }
 
     /**
@@ -121,7 +203,7 @@ public final class JwtAuthenticationFilterImpl extends OncePerRequestFilter impl
      */
     @Override
     public void setRoleParameter(final String parameter) {
-        roleParameter = Objects.requireNonNullElse(parameter, roleParameter);
+        authenticator.setRoleParameter(parameter);
     }
 
     /**
@@ -131,30 +213,135 @@ public final class JwtAuthenticationFilterImpl extends OncePerRequestFilter impl
      */
     @Override
     public void setExpireDuration(final long duration) {
-        expireDuration = 0L == duration ? expireDuration : duration;
+        authenticator.setExpireDuration(duration);
+    }
+
+    /**
+     * 自定义刷新后令牌的有效期，默认为 5 分钟
+     *
+     * @param time 有效期，单位毫秒，为 0 时保持原值
+     */
+    @Override
+    public void setRefreshLifetime(final long time) {
+        authenticator.setRefreshLifetime(time);
+    }
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔，默认不限制
+     *
+     * @param interval 间隔，单位毫秒
+     */
+    @Override
+    public void setRefreshInterval(final long interval) {
+        authenticator.setRefreshInterval(interval);
     }
 
     /**
-     * 从 token 中获取用户信息
+     * 自定义刷新时是否保留原令牌的有效期，默认保留，记住我令牌刷新后仍为记住我的时长
      *
-     * @param token 用户令牌
-     * @return 用户认证信息
+     * @param keep 保留布尔值
      */
-    private Authentication getAuthentication(final String token, final HttpServletRequest request) {
-        UsernamePasswordAuthenticationToken upToken = null;
-        final String secret = secretCallback.apply(request);
-        /* 校验 token */
-        if (null != token && JwtUtils.isValid(token, secret)) {
-            /* 获取用户名 */
-            final String username = JwtUtils.getSubject(token);
-            /* 获取角色 */
-            final String role = JwtUtils.getClaimValue(token, secret, roleParameter);
-            final List<SimpleGrantedAuthority> authorities = StringUtils.isEmpty(role) ?
-                    new ArrayList<>(Number.INITIAL_CAPACITY) : List.of(new SimpleGrantedAuthority(role));
-            /* 获取认证信息 */
-            upToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
-            upToken.setDetails(authorities);
+    @Override
+    public void setKeepLifetime(final boolean keep) {
+        authenticator.setKeepLifetime(keep);
+    }
+
+    /**
+     * 自定义已校验令牌缓存容量，同一令牌在过期前再次到达时直接使用缓存的用户信息
+     *
+     * @param size 缓存容量，不大于 0 时关闭缓存
+     */
+    @Override
+    public void setTokenCacheSize(final int size) {
+        authenticator.setTokenCacheSize(size);
+    }
+
+    /**
+     * 自定义跳过令牌处理的请求
+     *
+     * @param matcher 请求匹配器，为 null 时不跳过任何请求
+     */
+    @Override
+    public void setSkipMatcher(final RequestMatcher matcher) {
+        skipMatcher = matcher;
+    }
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    @Override
+    public void setMetrics(final SecurityMetrics securityMetrics) {
+        authenticator.setMetrics(securityMetrics);
+    }
+
+    /**
+     * 自定义令牌吊销列表，已吊销的令牌视为未登录
+     *
+     * @param tokenRevocation 令牌吊销列表，为 null 时不检查
+     */
+    @Override
+    public void setTokenRevocation(final TokenRevocation tokenRevocation) {
+        authenticator.setTokenRevocation(tokenRevocation);
+    }
+
+    /**
+     * 自定义附加信息字段名别名表，需与登录过滤器一致
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    @Override
+    public void setClaimAliases(final ClaimAliases aliases) {
+        authenticator.setClaimAliases(aliases);
+    }
+
+    /**
+     * 获取已校验令牌缓存，可用于读取命中率
+     *
+     * @return 缓存，未启用时返回 null
+     */
+    @Override
+    public BoundedCache<?, ?> getTokenCache() {
+        return authenticator.getTokenCache();
+    }
+
+    /**
+     * 请求中读取到的令牌及其来源和密钥环
+     */
+    private static final class ResolvedToken {
+        /**
+         * 读到令牌的读取器，未读到时为最后一个读取器
+         */
+        private final TokenResolver source;
+        /**
+         * 令牌，未读到时为 null
+         */
+        private final String token;
+        /**
+         * 请求对应的密钥环
+         */
+        private final KeyRing keyRing;
+        /**
+         * 是否已校验
+         */
+        private boolean checked;
+        /**
+         * 校验结果，无效时为 null
+         */
+        private VerifiedToken verified;
+
+        /**
+         * 构造函数
+         *
+         * @param resolver 读到令牌的读取器
+         * @param value    令牌
+         * @param ring     密钥环
+         */
+        private ResolvedToken(final TokenResolver resolver, final String value, final KeyRing ring) {
+            source = resolver;
+            token = value;
+            keyRing = ring;
         }
-        return upToken;
     }
 }
@@ -7,14 +7,19 @@ import com.xumumi.filter.constant.Number;
 import com.xumumi.filter.constant.Parameter;
 import com.xumumi.filter.constant.Path;
 import com.xumumi.filter.constant.Text;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.impl.CallbackSecretProvider;
+import com.xumumi.util.ClaimAliases;
 import com.xumumi.util.CookieUtils;
 import com.xumumi.util.JwtUtils;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.core.Authentication;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,21 +51,24 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
 
     /* 回调函数 */
 
-    private final Function<? super HttpServletRequest, String> secretCallback;
+    private final SecretProvider secretProvider;
     private Function<? super Authentication, ? extends Map<String, String>> claimCallback;
+    private RoleExtractor roleExtractor;
+    private RoleExtractor defaultRoleExtractor = CachedRoleExtractor.createRoleExtractor(roleParameter);
+    private ClaimAliases claimAliases = ClaimAliases.NONE;
 
     /**
      * 构造器
      *
      * @param manager            必须传入认证管理器以供使用
      * @param loginProcessingUrl 登录页地址
-     * @param secret             加密密钥的回调函数
+     * @param secret             密钥提供者
      */
     private JwtLoginFilterImpl(final AuthenticationManager manager, final String loginProcessingUrl,
-                               final Function<? super HttpServletRequest, String> secret) {
+                               final SecretProvider secret) {
         super(manager, loginProcessingUrl);
         /* 配置密钥 */
-        secretCallback = secret;
+        secretProvider = secret;
     }
 
     /**
@@ -68,11 +76,11 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
      *
      * @param manager            认证管理器
      * @param loginProcessingUrl 登录页地址
-     * @param secret             用于生成密钥的回调函数
+     * @param secret             密钥提供者，字符串密钥回调可通过 {@link CallbackSecretProvider} 转换
      * @return {@link JwtLoginFilter} 对象
      */
     public static JwtLoginFilter createJwtLoginFilter(final AuthenticationManager manager, final String loginProcessingUrl,
-                                                          final Function<? super HttpServletRequest, String> secret) {
+                                                      final SecretProvider secret) {
         return new JwtLoginFilterImpl(manager, loginProcessingUrl, secret);
     }
 
@@ -135,6 +143,7 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
     public void setRoleParameter(final String parameter) {
         if (null != parameter) {
             roleParameter = parameter;
+            defaultRoleExtractor = CachedRoleExtractor.createRoleExtractor(parameter);
         }
     }
 
@@ -145,16 +154,8 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
      * @return 角色名
      */
     private String getRole(final Object principal) {
-        String role;
-        try {
-            final Class<?> principalClass = principal.getClass();
-            final Field roleField = principalClass.getDeclaredField(roleParameter);
-            roleField.setAccessible(true);
-            role = (String) roleField.get(principal);
-        } catch (final NoSuchFieldException | IllegalAccessException e) {
-            role = null;
-        }
-        return role;
+        final RoleExtractor extractor = null != roleExtractor ? roleExtractor : defaultRoleExtractor;
+        return extractor.apply(principal);
     }
 
     /**
@@ -171,6 +172,16 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
 
     /* 回调 */
 
+    /**
+     * 自定义角色提取方式，默认按角色字段名从主体的 getter 或字段中读取
+     *
+     * @param extractor 从主体中提取角色的回调函数，为 null 时使用默认方式
+     */
+    @Override
+    public void setRoleExtractor(final RoleExtractor extractor) {
+        roleExtractor = extractor;
+    }
+
     /**
      * 自定义 token 中存放的额外信息
      *
@@ -182,6 +193,16 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
         claimCallback = claim;
     }
 
+    /**
+     * 自定义附加信息字段名别名表，签发时字段名替换为别名以缩短令牌
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    @Override
+    public void setClaimAliases(final ClaimAliases aliases) {
+        claimAliases = Objects.requireNonNullElse(aliases, ClaimAliases.NONE);
+    }
+
     /**
      * 成功时 cookies 的内容，在此基础上加入 token
      *
@@ -211,8 +232,17 @@ public final class JwtLoginFilterImpl extends AbstractJsonAuthenticationFilter i
         }
         /* 设置 token */
         final String name = authResult.getName();
-        final String secret = secretCallback.apply(request);
-        final String jwt = JwtUtils.sign(name, claim, expireTime, secret);
+        final KeyRing keyRing = secretProvider.resolve(request);
+        if (null == keyRing) {
+            throw new AuthenticationServiceException("无法确定签发令牌的密钥");
+        }
+        if (!keyRing.getActiveKey().isSignable()) {
+            throw new AuthenticationServiceException("当前密钥只能校验，无法签发令牌");
+        }
+        /* 使用当前密钥签发，kid 写入令牌头 */
+        final long start = System.nanoTime();
+        final String jwt = JwtUtils.sign(name, claim, expireTime, keyRing, claimAliases);
+        getMetrics().recordSign(System.nanoTime() - start);
         final Cookie token = CookieUtils.generateCookie(tokenName, jwt, Path.ROOT, (int) expireTime);
         /* 将 token 加入 cookies */
         cookies.add(token);
@@ -0,0 +1,525 @@
+package com.xumumi.filter.impl;
+
+import com.xumumi.filter.constant.Number;
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.metrics.FailureReason;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.metrics.impl.NoopSecurityMetrics;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.ClaimAliases;
+import com.xumumi.util.JwtUtils;
+import com.xumumi.util.RefreshPolicy;
+import com.xumumi.util.VerifiedToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌认证器，负责校验、缓存、吊销检查和刷新，与请求类型无关
+ * 由 {@link JwtAuthenticationFilterImpl} 和响应式授权过滤器共用，过滤器只负责读取令牌和写回 cookie
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class TokenAuthenticator {
+    /**
+     * 角色字段名
+     */
+    private String roleParameter = Parameter.ROLE;
+    /**
+     * 刷新策略，Token 有效期小于刷新阈值时刷新
+     */
+    private volatile RefreshPolicy refreshPolicy = RefreshPolicy.DEFAULT;
+    /**
+     * 已校验令牌缓存，为 null 时不启用
+     */
+    private volatile BoundedCache<TokenKey, CachedToken> tokenCache;
+    /**
+     * 刷新结果缓存，以旧令牌为键，同一页面并发发出的请求只签发一次新令牌
+     * 保存尚未完成的签名结果，签名在缓存之外进行，不会阻塞使用其他令牌的请求
+     */
+    private final BoundedCache<TokenKey, CompletableFuture<RefreshedToken>> refreshCache =
+            new BoundedCache<>(Number.REFRESH_CACHE_SIZE, Number.REFRESH_REUSE_MILLISECONDS);
+    /**
+     * 性能指标
+     */
+    private volatile SecurityMetrics metrics = NoopSecurityMetrics.createSecurityMetrics();
+    /**
+     * 令牌吊销列表，为 null 时不检查
+     */
+    private volatile TokenRevocation revocation;
+    /**
+     * 附加信息字段名别名表
+     */
+    private volatile ClaimAliases claimAliases = ClaimAliases.NONE;
+
+    /**
+     * 构造器
+     */
+    private TokenAuthenticator() {
+    }
+
+    /**
+     * {@link TokenAuthenticator} 生成器
+     *
+     * @return {@link TokenAuthenticator} 对象
+     */
+    public static TokenAuthenticator createTokenAuthenticator() {
+        return new TokenAuthenticator();
+    }
+
+    /**
+     * 校验令牌并按需刷新
+     * 令牌只解析和校验一次，认证和刷新共用校验结果，启用缓存时命中则跳过校验
+     *
+     * @param token   令牌，可以为 null
+     * @param keyRing 请求对应的密钥环，校验按 kid 选取密钥，刷新使用当前密钥，可以为 null
+     * @return 认证结果，令牌无效时认证信息为 null
+     */
+    public Result authenticate(final String token, final KeyRing keyRing) {
+        return complete(lookup(token, keyRing), token, keyRing);
+    }
+
+    /**
+     * 按已校验的令牌认证并按需刷新，令牌由 {@link #verify(String, KeyRing)} 在同一请求中校验过，不再重复校验
+     *
+     * @param verified 已校验的令牌，为 null 时认证信息为 null
+     * @param keyRing  校验所用的密钥环，刷新使用其当前密钥
+     * @return 认证结果
+     */
+    public Result authenticate(final VerifiedToken verified, final KeyRing keyRing) {
+        return null != verified ?
+                complete(new CachedToken(verified, getAuthorities(verified)), verified.getToken(), keyRing) :
+                complete(null, null, keyRing);
+    }
+
+    /**
+     * 只校验令牌和检查吊销，不刷新也不生成认证信息，用于在后续过滤器认证之前判断令牌是否有效
+     *
+     * @param token   令牌，可以为 null
+     * @param keyRing 请求对应的密钥环，可以为 null
+     * @return 已校验的令牌，无效时返回 null
+     */
+    public VerifiedToken verify(final String token, final KeyRing keyRing) {
+        final CachedToken cached = lookup(token, keyRing);
+        return null != cached ? cached.verified : null;
+    }
+
+    /**
+     * 校验令牌，启用缓存时命中则跳过校验，缓存命中的令牌同样检查吊销
+     *
+     * @param token   令牌，可以为 null
+     * @param keyRing 密钥环，可以为 null
+     * @return 校验结果，令牌无效或已吊销时返回 null
+     */
+    private CachedToken lookup(final String token, final KeyRing keyRing) {
+        final SecurityMetrics recorder = metrics;
+        final BoundedCache<TokenKey, CachedToken> cache = tokenCache;
+        final TokenKey cacheKey = null != cache && null != token && null != keyRing ?
+                new TokenKey(token, keyRing) : null;
+        CachedToken cached = null != cacheKey ? cache.get(cacheKey) : null;
+        /* 未携带令牌的匿名请求不计入校验次数和耗时 */
+        if (null == cached && null != token) {
+            final long start = System.nanoTime();
+            final VerifiedToken verified = JwtUtils.verify(token, keyRing, recorder, claimAliases);
+            recorder.recordVerify(System.nanoTime() - start);
+            cached = null != verified ? new CachedToken(verified, getAuthorities(verified)) : null;
+            if (null != cacheKey && null != cached) {
+                /* 条目在令牌过期时自动失效 */
+                cache.put(cacheKey, cached, verified.getExpiresAt());
+            }
+        }
+        /* 缓存命中的令牌也要检查，吊销在缓存条目过期前立即生效 */
+        final TokenRevocation revoked = revocation;
+        if (null != cached && null != revoked && revoked.isRevoked(cached.verified.getTokenId())) {
+            recorder.recordVerifyFailure(FailureReason.REVOKED);
+            cached = null;
+        }
+        return cached;
+    }
+
+    /**
+     * 生成认证信息并按需刷新
+     *
+     * @param cached  校验结果，可以为 null
+     * @param token   令牌
+     * @param keyRing 密钥环
+     * @return 认证结果
+     */
+    private Result complete(final CachedToken cached, final String token, final KeyRing keyRing) {
+        final VerifiedToken verified = null != cached ? cached.verified : null;
+        final Authentication authentication = null != cached ? cached.toAuthentication() : null;
+        /* 刷新 token，新令牌有效期由刷新策略决定 */
+        final RefreshPolicy policy = refreshPolicy;
+        final long now = System.currentTimeMillis();
+        RefreshedToken refreshed = null;
+        if (null != verified && policy.shouldRefresh(verified, now)) {
+            /* 同一旧令牌的并发刷新只有一个线程签发，其余线程不等待，签发已完成时共用结果 */
+            refreshed = refreshOnce(new TokenKey(token, keyRing), verified, policy, keyRing, claimAliases, metrics);
+        }
+        return new Result(authentication, verified, refreshed, now);
+    }
+
+    /**
+     * 自定义角色字段名
+     *
+     * @param parameter 角色字段名
+     */
+    public void setRoleParameter(final String parameter) {
+        roleParameter = Objects.requireNonNullElse(parameter, roleParameter);
+    }
+
+    /**
+     * 自定义刷新 token 时间
+     *
+     * @param duration 剩余时长
+     */
+    public void setExpireDuration(final long duration) {
+        refreshPolicy = refreshPolicy.withThreshold(duration);
+    }
+
+    /**
+     * 自定义刷新后令牌的有效期，默认为 5 分钟
+     *
+     * @param time 有效期，单位毫秒，为 0 时保持原值
+     */
+    public void setRefreshLifetime(final long time) {
+        refreshPolicy = refreshPolicy.withLifetime(time);
+    }
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔，默认不限制
+     *
+     * @param interval 间隔，单位毫秒
+     */
+    public void setRefreshInterval(final long interval) {
+        refreshPolicy = refreshPolicy.withMinInterval(interval);
+    }
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期，默认保留，记住我令牌刷新后仍为记住我的时长
+     *
+     * @param keep 保留布尔值
+     */
+    public void setKeepLifetime(final boolean keep) {
+        refreshPolicy = refreshPolicy.withKeepLifetime(keep);
+    }
+
+    /**
+     * 自定义已校验令牌缓存容量，同一令牌在过期前再次到达时直接使用缓存的用户信息
+     *
+     * @param size 缓存容量，不大于 0 时关闭缓存
+     */
+    public void setTokenCacheSize(final int size) {
+        tokenCache = 0 < size ? new BoundedCache<>(size, 0L) : null;
+    }
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    public void setMetrics(final SecurityMetrics securityMetrics) {
+        metrics = Objects.requireNonNullElseGet(securityMetrics, NoopSecurityMetrics::createSecurityMetrics);
+    }
+
+    /**
+     * 自定义令牌吊销列表，已吊销的令牌视为未登录
+     *
+     * @param tokenRevocation 令牌吊销列表，为 null 时不检查
+     */
+    public void setTokenRevocation(final TokenRevocation tokenRevocation) {
+        revocation = tokenRevocation;
+    }
+
+    /**
+     * 自定义附加信息字段名别名表，需与登录过滤器一致
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    public void setClaimAliases(final ClaimAliases aliases) {
+        claimAliases = Objects.requireNonNullElse(aliases, ClaimAliases.NONE);
+    }
+
+    /**
+     * 获取已校验令牌缓存，可用于读取命中率
+     *
+     * @return 缓存，未启用时返回 null
+     */
+    public BoundedCache<?, ?> getTokenCache() {
+        return tokenCache;
+    }
+
+    /**
+     * 同一旧令牌只签发一次，先放入未完成的结果再在缓存之外签名
+     * 其余线程不等待签名，以免阻塞响应式过滤器的事件循环线程，签名尚未完成时本次请求不刷新，由签发的请求写回新令牌
+     *
+     * @param refreshKey 旧令牌缓存键
+     * @param verified   已校验的旧令牌
+     * @param policy     刷新策略
+     * @param keyRing    密钥环
+     * @param aliases    字段名别名表
+     * @param recorder   性能指标
+     * @return 新令牌，无法签发或由其他请求签发尚未完成时返回 null
+     */
+    private RefreshedToken refreshOnce(final TokenKey refreshKey, final VerifiedToken verified,
+                                       final RefreshPolicy policy, final KeyRing keyRing,
+                                       final ClaimAliases aliases, final SecurityMetrics recorder) {
+        final CompletableFuture<RefreshedToken> created = new CompletableFuture<>();
+        final CompletableFuture<RefreshedToken> existing = refreshCache.putIfAbsent(refreshKey, created);
+        final RefreshedToken ret;
+        if (null == existing) {
+            RefreshedToken signed = null;
+            try {
+                signed = refresh(verified, policy, keyRing, aliases, recorder);
+            } finally {
+                /* 签发失败时移除结果，以便下一个请求重试 */
+                created.complete(signed);
+                if (null == signed) {
+                    refreshCache.remove(refreshKey);
+                }
+            }
+            ret = signed;
+        } else {
+            ret = existing.getNow(null);
+        }
+        return ret;
+    }
+
+    /**
+     * 按刷新策略签发新令牌
+     *
+     * @param verified 已校验的旧令牌
+     * @param policy   刷新策略
+     * @param keyRing  密钥环
+     * @param aliases  字段名别名表
+     * @param recorder 性能指标
+     * @return 新令牌，无法签发时返回 null
+     */
+    private static RefreshedToken refresh(final VerifiedToken verified, final RefreshPolicy policy,
+                                          final KeyRing keyRing, final ClaimAliases aliases,
+                                          final SecurityMetrics recorder) {
+        final long lifetime = policy.lifetimeOf(verified);
+        final long start = System.nanoTime();
+        /* 由调用方生成 jti 和签发时刻，无需再解析新令牌 */
+        final String tokenId = JwtUtils.newTokenId();
+        final long issuedAt = System.currentTimeMillis();
+        final String jwt = JwtUtils.sign(verified.getSubject(), verified.getClaims(), lifetime, keyRing, aliases,
+                tokenId, issuedAt);
+        final RefreshedToken ret;
+        /* 只能验证的密钥或签发异常时没有新令牌，不计入签发和刷新 */
+        if (null != jwt) {
+            recorder.recordSign(System.nanoTime() - start);
+            recorder.recordRefresh();
+            /* 记录新令牌的 jti 和过期时刻，注销时与旧令牌一起吊销，令牌中的过期时刻精确到秒 */
+            final long expiresAt = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(issuedAt + lifetime));
+            ret = new RefreshedToken(jwt, tokenId, expiresAt);
+        } else {
+            ret = null;
+        }
+        return ret;
+    }
+
+    /**
+     * 从已校验的 token 中获取角色
+     *
+     * @param verified 已校验的用户令牌
+     * @return 不可修改的权限列表，缓存的认证信息共用该列表
+     */
+    private List<SimpleGrantedAuthority> getAuthorities(final VerifiedToken verified) {
+        final String role = verified.getClaim(roleParameter);
+        final List<SimpleGrantedAuthority> authorities = new ArrayList<>(Number.INITIAL_CAPACITY);
+        /* 多个角色以逗号分隔 */
+        for (final String item : StringUtils.commaDelimitedListToStringArray(role)) {
+            final String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                authorities.add(new SimpleGrantedAuthority(trimmed));
+            }
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * 认证结果，包含用户认证信息和需要写回的新令牌
+     */
+    public static final class Result {
+        private final Authentication authentication;
+        private final VerifiedToken verified;
+        private final RefreshedToken refreshed;
+        private final long now;
+
+        /**
+         * 构造器
+         *
+         * @param authentication 用户认证信息
+         * @param verified       已校验的令牌
+         * @param refreshed      刷新结果
+         * @param now            认证时刻，毫秒时间戳
+         */
+        Result(final Authentication authentication, final VerifiedToken verified, final RefreshedToken refreshed,
+               final long now) {
+            this.authentication = authentication;
+            this.verified = verified;
+            this.refreshed = refreshed;
+            this.now = now;
+        }
+
+        /**
+         * 获取用户认证信息
+         *
+         * @return 用户认证信息，令牌无效时返回 null
+         */
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        /**
+         * 获取已校验的令牌
+         *
+         * @return 已校验的令牌，令牌无效时返回 null
+         */
+        public VerifiedToken getVerified() {
+            return verified;
+        }
+
+        /**
+         * 获取刷新后的新令牌
+         *
+         * @return 新令牌，无需刷新或无法签发时返回 null
+         */
+        public String getRefreshedToken() {
+            return null != refreshed ? refreshed.token : null;
+        }
+
+        /**
+         * 获取新令牌的剩余有效期，共用刷新结果的请求按剩余有效期设置 cookie
+         *
+         * @return 剩余有效期，单位毫秒
+         */
+        public long getRefreshedMaxAge() {
+            return null != refreshed ? refreshed.expiresAt - now : 0L;
+        }
+
+        /**
+         * 获取新令牌的标识，注销时需与旧令牌一起吊销
+         *
+         * @return 新令牌的 jti，无需刷新或无法签发时返回 null
+         */
+        public String getRefreshedTokenId() {
+            return null != refreshed ? refreshed.tokenId : null;
+        }
+
+        /**
+         * 获取新令牌的过期时刻
+         *
+         * @return 过期时刻，毫秒时间戳，无需刷新或无法签发时返回 0
+         */
+        public long getRefreshedExpiresAt() {
+            return null != refreshed ? refreshed.expiresAt : 0L;
+        }
+    }
+
+    /**
+     * 缓存键，由令牌和密钥环共同决定，令牌逐字比较，密钥环按实例比较，不会因哈希冲突误用其他令牌的结果
+     * 密钥环不可变，轮换后生成新实例，旧密钥环下的缓存条目自然不再命中
+     */
+    private static final class TokenKey {
+        private final String token;
+        private final KeyRing key;
+        private final int hash;
+
+        /**
+         * 构造器
+         *
+         * @param token 令牌
+         * @param key   密钥环
+         */
+        TokenKey(final String token, final KeyRing key) {
+            this.token = token;
+            this.key = key;
+            hash = 31 * token.hashCode() + System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            final boolean ret;
+            if (this == o) {
+                ret = true;
+            } else if (o instanceof TokenKey) {
+                final TokenKey other = (TokenKey) o;
+                ret = hash == other.hash && key == other.key && token.equals(other.token);
+            } else {
+                ret = false;
+            }
+            return ret;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 缓存值，保存校验结果和已解析的权限，每次命中都生成新的认证对象以免请求之间相互影响
+     */
+    private static final class CachedToken {
+        private final VerifiedToken verified;
+        private final List<SimpleGrantedAuthority> authorities;
+
+        /**
+         * 构造器
+         *
+         * @param verified    已校验的令牌
+         * @param authorities 不可修改的权限列表
+         */
+        CachedToken(final VerifiedToken verified, final List<SimpleGrantedAuthority> authorities) {
+            this.verified = verified;
+            this.authorities = authorities;
+        }
+
+        /**
+         * 生成用户认证信息
+         *
+         * @return 用户认证信息
+         */
+        Authentication toAuthentication() {
+            final UsernamePasswordAuthenticationToken upToken =
+                    new UsernamePasswordAuthenticationToken(verified.getSubject(), null, authorities);
+            upToken.setDetails(authorities);
+            return upToken;
+        }
+    }
+
+    /**
+     * 刷新结果，保存新令牌和其标识、过期时刻
+     */
+    private static final class RefreshedToken {
+        private final String token;
+        private final String tokenId;
+        private final long expiresAt;
+
+        /**
+         * 构造器
+         *
+         * @param token     新令牌
+         * @param tokenId   新令牌的 jti
+         * @param expiresAt 过期时刻，毫秒时间戳
+         */
+        RefreshedToken(final String token, final String tokenId, final long expiresAt) {
+            this.token = token;
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.xumumi.filter.reactive;
+
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.ClaimAliases;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.WebFilter;
+
+/**
+ * 响应式 JWT 授权过滤器接口
+ *
+ * @author XUMUMI
+ * @see com.xumumi.filter.JwtAuthenticationFilter
+ * @since 1.9
+ */
+public interface ReactiveJwtAuthenticationFilter extends WebFilter {
+    /**
+     * 自定义令牌名
+     *
+     * @param name 令牌名
+     */
+    void setTokenName(final String name);
+
+    /**
+     * 自定义角色字段名
+     *
+     * @param parameter 角色字段名
+     */
+    void setRoleParameter(final String parameter);
+
+    /**
+     * 自定义刷新 token 时间
+     *
+     * @param duration 剩余时长
+     */
+    void setExpireDuration(final long duration);
+
+    /**
+     * 自定义刷新后令牌的有效期
+     *
+     * @param time 有效期，单位毫秒，为 0 时保持原值
+     */
+    void setRefreshLifetime(final long time);
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔
+     *
+     * @param interval 间隔，单位毫秒
+     */
+    void setRefreshInterval(final long interval);
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期
+     *
+     * @param keep 保留布尔值
+     */
+    void setKeepLifetime(final boolean keep);
+
+    /**
+     * 自定义已校验令牌缓存容量
+     *
+     * @param size 缓存容量，不大于 0 时关闭缓存
+     */
+    void setTokenCacheSize(final int size);
+
+    /**
+     * 自定义跳过令牌处理的请求
+     *
+     * @param matcher 请求匹配器，为 null 时不跳过任何请求
+     */
+    void setSkipMatcher(final ServerWebExchangeMatcher matcher);
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    void setMetrics(final SecurityMetrics securityMetrics);
+
+    /**
+     * 自定义令牌吊销列表
+     *
+     * @param tokenRevocation 令牌吊销列表，为 null 时不检查
+     */
+    void setTokenRevocation(final TokenRevocation tokenRevocation);
+
+    /**
+     * 自定义附加信息字段名别名表
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    void setClaimAliases(final ClaimAliases aliases);
+
+    /**
+     * 获取已校验令牌缓存
+     *
+     * @return 缓存，未启用时返回 null
+     */
+    BoundedCache<?, ?> getTokenCache();
+}
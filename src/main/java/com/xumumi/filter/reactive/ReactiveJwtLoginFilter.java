@@ -0,0 +1,127 @@
+package com.xumumi.filter.reactive;
+
+import com.xumumi.function.ResultCallback;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.util.ClaimAliases;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.server.WebFilter;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 响应式 JWT 登录过滤器接口
+ * 与 {@link com.xumumi.filter.JwtLoginFilter} 相同，但守卫和 cookies 回调以 servlet 请求为参数，不适用于响应式过滤器
+ *
+ * @author XUMUMI
+ * @see com.xumumi.filter.JwtLoginFilter
+ * @since 1.9
+ */
+public interface ReactiveJwtLoginFilter extends WebFilter {
+    /**
+     * 自定义记住我超时时间
+     *
+     * @param time 超时时长，单位为毫秒
+     */
+    void setRmbExpireTime(final long time);
+
+    /**
+     * 自定义默认超时时长
+     *
+     * @param time 超时时长，单位为毫秒
+     */
+    void setDefaultExpireTime(final long time);
+
+    /**
+     * 自定义记住我字段的启用值
+     *
+     * @param value 字段值
+     */
+    void setRmbValue(final String value);
+
+    /**
+     * 修改登录请求内容的最大长度
+     *
+     * @param size 最大字节数，不大于 0 时保持原值
+     */
+    void setMaxBodySize(final long size);
+
+    /**
+     * 自定义 token 名
+     *
+     * @param name token 的 cookie 名
+     */
+    void setTokenName(final String name);
+
+    /**
+     * 自定义角色字段名
+     *
+     * @param parameter 角色字段名
+     */
+    void setRoleParameter(final String parameter);
+
+    /**
+     * 自定义记住我的字段名
+     *
+     * @param parameter 字段名
+     */
+    void setRmbParameter(final String parameter);
+
+    /**
+     * 修改用户字段名
+     *
+     * @param parameter 字段名
+     */
+    void setUsernameParameter(final String parameter);
+
+    /**
+     * 修改密码字段名
+     *
+     * @param parameter 字段名
+     */
+    void setPasswordParameter(final String parameter);
+
+    /**
+     * 自定义 token 中存放的额外信息
+     *
+     * @param claim 返回信息键值对的回调函数
+     */
+    void setClaimCallback(final Function<? super Authentication, ? extends Map<String, String>> claim);
+
+    /**
+     * 自定义角色提取方式
+     *
+     * @param extractor 从主体中提取角色的回调函数，为 null 时使用默认方式
+     */
+    void setRoleExtractor(final RoleExtractor extractor);
+
+    /**
+     * 自定义成功时返回的内容
+     *
+     * @param success 处理认证信息并返回一个可序列化对象的回调函数
+     */
+    void setSuccessCallback(final ResultCallback<? super Authentication> success);
+
+    /**
+     * 自定义失败时返回的内容
+     *
+     * @param failure 处理错误细节并返回一个可序列化对象的回调函数
+     */
+    void setFailureCallback(final ResultCallback<? super AuthenticationException> failure);
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    void setMetrics(final SecurityMetrics securityMetrics);
+
+    /**
+     * 自定义附加信息字段名别名表
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    void setClaimAliases(final ClaimAliases aliases);
+}
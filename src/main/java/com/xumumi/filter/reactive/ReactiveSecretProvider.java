@@ -0,0 +1,72 @@
+package com.xumumi.filter.reactive;
+
+import com.xumumi.filter.constant.Number;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.secret.impl.CallbackSecretProvider;
+import com.xumumi.secret.impl.TenantSecretProvider;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.JwtUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+
+import java.util.function.Function;
+
+/**
+ * 响应式密钥提供者接口，与 {@link SecretProvider} 相同，只是按 {@link ServerHttpRequest} 解析密钥环
+ * 该方法在事件循环线程中同步调用，实现不能阻塞
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@FunctionalInterface
+public interface ReactiveSecretProvider {
+    /**
+     * 获取请求对应的密钥环
+     *
+     * @param request 请求
+     * @return 密钥环，无法确定密钥时返回 null
+     */
+    KeyRing resolve(ServerHttpRequest request);
+
+    /**
+     * 由与请求无关的密钥提供者生成，比如 {@link com.xumumi.secret.impl.StaticSecretProvider} 和
+     * {@link com.xumumi.secret.impl.KeyStoreSecretProvider}，轮换后的密钥同样生效
+     * 按请求区分密钥的提供者需改用 {@link #createSecretProvider(Function, SigningAlgorithm)}，
+     * 该方法以 null 请求调用提供者，因此在配置时拒绝 {@link TenantSecretProvider} 和 {@link CallbackSecretProvider}
+     *
+     * @param provider 与请求无关的密钥提供者
+     * @return {@link ReactiveSecretProvider} 对象
+     * @throws IllegalArgumentException 提供者按请求区分密钥
+     */
+    static ReactiveSecretProvider of(@NonNull final SecretProvider provider) {
+        if (provider instanceof TenantSecretProvider || provider instanceof CallbackSecretProvider) {
+            throw new IllegalArgumentException(provider.getClass().getSimpleName() +
+                    " resolves keys per servlet request, use ReactiveSecretProvider.createSecretProvider instead");
+        }
+        return request -> provider.resolve(null);
+    }
+
+    /**
+     * 由字符串密钥回调生成，与 {@link com.xumumi.secret.impl.CallbackSecretProvider} 相同，HS256 算法与
+     * {@link JwtUtils#getKeyRing(String)} 共用缓存
+     *
+     * @param secret    根据请求返回字符串密钥的回调函数
+     * @param algorithm HMAC 签名算法，字符串密钥不能用于非对称算法
+     * @return {@link ReactiveSecretProvider} 对象
+     * @throws IllegalArgumentException 算法不是 HMAC 算法
+     */
+    static ReactiveSecretProvider createSecretProvider(@NonNull final Function<? super ServerHttpRequest, String> secret,
+                                                       @NonNull final SigningAlgorithm algorithm) {
+        if (!algorithm.isSymmetric()) {
+            throw new IllegalArgumentException(algorithm + " requires a key pair, use a SecretProvider instead");
+        }
+        final BoundedCache<String, KeyRing> cache = SigningAlgorithm.HS256 == algorithm ? JwtUtils.getKeyCache() :
+                new BoundedCache<>(Number.KEY_CACHE_SIZE, Number.ONE_HOUR_MILLISECONDS);
+        return request -> {
+            final String key = secret.apply(request);
+            return null != key ? cache.computeIfAbsent(key, k -> KeyRing.of(algorithm.createKey(null, k))) : null;
+        };
+    }
+}
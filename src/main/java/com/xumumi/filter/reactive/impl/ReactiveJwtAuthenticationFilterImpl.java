@@ -0,0 +1,239 @@
+package com.xumumi.filter.reactive.impl;
+
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.filter.constant.Path;
+import com.xumumi.filter.impl.TokenAuthenticator;
+import com.xumumi.filter.reactive.ReactiveJwtAuthenticationFilter;
+import com.xumumi.filter.reactive.ReactiveSecretProvider;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.ClaimAliases;
+import com.xumumi.util.CookieUtils;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * 响应式 JWT 请求过滤器，与 {@link com.xumumi.filter.impl.JwtAuthenticationFilterImpl} 共用 {@link TokenAuthenticator}
+ * 认证信息写入 Reactor 上下文，不使用会话
+ *
+ * @author XUMUMI
+ * @see com.xumumi.configure.BaseJwtReactiveSecurityConfigurer
+ * @since 1.9
+ */
+public final class ReactiveJwtAuthenticationFilterImpl implements ReactiveJwtAuthenticationFilter {
+    /**
+     * 统一 token 名
+     */
+    private String tokenName = Parameter.TOKEN_NAME;
+    /**
+     * 密钥提供者
+     */
+    private final ReactiveSecretProvider secretProvider;
+    /**
+     * 令牌认证器，负责校验、缓存、吊销检查和刷新
+     */
+    private final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+    /**
+     * 跳过令牌处理的请求，为 null 时不跳过
+     */
+    private ServerWebExchangeMatcher skipMatcher;
+
+    /**
+     * 构造函数
+     *
+     * @param secret 密钥提供者，不允许为 null
+     */
+    private ReactiveJwtAuthenticationFilterImpl(@NonNull final ReactiveSecretProvider secret) {
+        secretProvider = secret;
+    }
+
+    /**
+     * {@link ReactiveJwtAuthenticationFilter} 生成器
+     *
+     * @param secret 密钥提供者
+     * @return {@link ReactiveJwtAuthenticationFilter} 对象
+     */
+    public static ReactiveJwtAuthenticationFilter createJwtAuthenticationFilter(
+            @NonNull final ReactiveSecretProvider secret) {
+        return new ReactiveJwtAuthenticationFilterImpl(secret);
+    }
+
+    /**
+     * 执行验证，无需授权页面和静态资源直接放行
+     *
+     * @param exchange 请求和响应
+     * @param chain    过滤链
+     * @return 处理完成信号
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull final ServerWebExchange exchange, @NonNull final WebFilterChain chain) {
+        final ServerWebExchangeMatcher matcher = skipMatcher;
+        return null == matcher ? authenticate(exchange, chain) : matcher.matches(exchange)
+                .flatMap(result -> result.isMatch() ? chain.filter(exchange) : authenticate(exchange, chain));
+    }
+
+    /**
+     * 校验令牌，写回刷新后的令牌并将认证信息写入下游的上下文
+     *
+     * @param exchange 请求和响应
+     * @param chain    过滤链
+     * @return 处理完成信号
+     */
+    private Mono<Void> authenticate(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final HttpCookie cookie = request.getCookies().getFirst(tokenName);
+        final String token = null != cookie ? cookie.getValue() : null;
+        /* 每个请求只解析一次密钥环，校验按 kid 选取密钥，刷新使用当前密钥，未携带令牌时不解析 */
+        final KeyRing keyRing = null != token ? secretProvider.resolve(request) : null;
+        final TokenAuthenticator.Result result = authenticator.authenticate(token, keyRing);
+        /* 保存已校验的令牌，注销时可直接按 jti 吊销，无需再次读取和校验 */
+        if (null != result.getVerified()) {
+            exchange.getAttributes().put(Parameter.VERIFIED_TOKEN_ATTRIBUTE, result.getVerified());
+        }
+        /* 刷新 token，cookie 有效期与新令牌一致 */
+        final String refreshed = result.getRefreshedToken();
+        if (null != refreshed) {
+            /* 保存新令牌的标识，注销时与旧令牌一起吊销 */
+            exchange.getAttributes().put(Parameter.REFRESHED_TOKEN_ID_ATTRIBUTE, result.getRefreshedTokenId());
+            exchange.getAttributes().put(Parameter.REFRESHED_EXPIRES_AT_ATTRIBUTE, result.getRefreshedExpiresAt());
+            exchange.getResponse().addCookie(CookieUtils.generateResponseCookie(tokenName, refreshed, Path.ROOT,
+                    result.getRefreshedMaxAge()));
+        }
+        final Authentication authentication = result.getAuthentication();
+        return null != authentication ? chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)) :
+                chain.filter(exchange);
+    }
+
+    /**
+     * 自定义令牌名
+     *
+     * @param name 令牌名
+     */
+    @Override
+    public void setTokenName(final String name) {
+        tokenName = Objects.requireNonNullElse(name, tokenName);
+    }
+
+    /**
+     * 自定义角色字段名
+     *
+     * @param parameter 角色字段名
+     */
+    @Override
+    public void setRoleParameter(final String parameter) {
+        authenticator.setRoleParameter(parameter);
+    }
+
+    /**
+     * 自定义刷新 token 时间
+     *
+     * @param duration 剩余时长
+     */
+    @Override
+    public void setExpireDuration(final long duration) {
+        authenticator.setExpireDuration(duration);
+    }
+
+    /**
+     * 自定义刷新后令牌的有效期，默认为 5 分钟
+     *
+     * @param time 有效期，单位毫秒，为 0 时保持原值
+     */
+    @Override
+    public void setRefreshLifetime(final long time) {
+        authenticator.setRefreshLifetime(time);
+    }
+
+    /**
+     * 自定义同一令牌两次签发之间的最小间隔，默认不限制
+     *
+     * @param interval 间隔，单位毫秒
+     */
+    @Override
+    public void setRefreshInterval(final long interval) {
+        authenticator.setRefreshInterval(interval);
+    }
+
+    /**
+     * 自定义刷新时是否保留原令牌的有效期，默认保留
+     *
+     * @param keep 保留布尔值
+     */
+    @Override
+    public void setKeepLifetime(final boolean keep) {
+        authenticator.setKeepLifetime(keep);
+    }
+
+    /**
+     * 自定义已校验令牌缓存容量
+     *
+     * @param size 缓存容量，不大于 0 时关闭缓存
+     */
+    @Override
+    public void setTokenCacheSize(final int size) {
+        authenticator.setTokenCacheSize(size);
+    }
+
+    /**
+     * 自定义跳过令牌处理的请求
+     *
+     * @param matcher 请求匹配器，为 null 时不跳过任何请求
+     */
+    @Override
+    public void setSkipMatcher(final ServerWebExchangeMatcher matcher) {
+        skipMatcher = matcher;
+    }
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    @Override
+    public void setMetrics(final SecurityMetrics securityMetrics) {
+        authenticator.setMetrics(securityMetrics);
+    }
+
+    /**
+     * 自定义令牌吊销列表，已吊销的令牌视为未登录
+     *
+     * @param tokenRevocation 令牌吊销列表，为 null 时不检查
+     */
+    @Override
+    public void setTokenRevocation(final TokenRevocation tokenRevocation) {
+        authenticator.setTokenRevocation(tokenRevocation);
+    }
+
+    /**
+     * 自定义附加信息字段名别名表，需与登录过滤器一致
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    @Override
+    public void setClaimAliases(final ClaimAliases aliases) {
+        authenticator.setClaimAliases(aliases);
+    }
+
+    /**
+     * 获取已校验令牌缓存，可用于读取命中率
+     *
+     * @return 缓存，未启用时返回 null
+     */
+    @Override
+    public BoundedCache<?, ?> getTokenCache() {
+        return authenticator.getTokenCache();
+    }
+}
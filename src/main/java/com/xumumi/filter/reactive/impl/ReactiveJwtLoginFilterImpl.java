@@ -0,0 +1,460 @@
+package com.xumumi.filter.reactive.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.xumumi.exception.PayloadTooLargeException;
+import com.xumumi.exception.StatusAuthenticationException;
+import com.xumumi.filter.constant.Number;
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.filter.constant.Path;
+import com.xumumi.filter.constant.Text;
+import com.xumumi.filter.impl.CachedRoleExtractor;
+import com.xumumi.filter.reactive.ReactiveJwtLoginFilter;
+import com.xumumi.filter.reactive.ReactiveSecretProvider;
+import com.xumumi.function.ResultCallback;
+import com.xumumi.function.RoleExtractor;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.metrics.impl.NoopSecurityMetrics;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.util.ClaimAliases;
+import com.xumumi.util.CookieUtils;
+import com.xumumi.util.JwtUtils;
+import com.xumumi.util.LoginRequestUtils;
+import com.xumumi.util.LoginResponseSerializer;
+import com.xumumi.util.LoginResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 响应式 Json 登录过滤器，与 {@link com.xumumi.filter.impl.JwtLoginFilterImpl} 行为一致
+ * 请求内容以非阻塞方式读取到限定长度后再解析，认证通过 {@link ReactiveAuthenticationManager} 完成，不占用事件循环线程
+ *
+ * @author XUMUMI
+ * @see com.xumumi.configure.BaseJwtReactiveSecurityConfigurer
+ * @since 1.9
+ */
+public final class ReactiveJwtLoginFilterImpl implements ReactiveJwtLoginFilter {
+    /* 序列化 */
+
+    private final LoginResponseSerializer serializer = LoginResponseSerializer.createLoginResponseSerializer();
+
+    /* 参数 */
+
+    private long rmbExpireTime = Number.SEVEN_DAYS_MILLISECONDS;
+    private long defaultExpireTime = Number.FIVE_MINUTES_MILLISECONDS;
+    private String rmbValue = Text.TRUE;
+    private long maxBodySize = Number.LOGIN_BODY_MAX_SIZE;
+
+    /* 字段 */
+
+    private String tokenName = Parameter.TOKEN_NAME;
+    private String roleParameter = Parameter.ROLE;
+    private String rmbParameter = Parameter.REMEMBER;
+    private String usernameParameter = Parameter.USER_NAME;
+    private String passwordParameter = Parameter.PASSWORD;
+
+    /* 回调函数 */
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ServerWebExchangeMatcher loginMatcher;
+    private final ReactiveSecretProvider secretProvider;
+    private Function<? super Authentication, ? extends Map<String, String>> claimCallback;
+    private RoleExtractor roleExtractor;
+    private RoleExtractor defaultRoleExtractor = CachedRoleExtractor.createRoleExtractor(roleParameter);
+    private ResultCallback<? super Authentication> successCallback;
+    private ResultCallback<? super AuthenticationException> failureCallback;
+    private SecurityMetrics metrics = NoopSecurityMetrics.createSecurityMetrics();
+    private ClaimAliases claimAliases = ClaimAliases.NONE;
+
+    /**
+     * 构造器
+     *
+     * @param manager            认证管理器
+     * @param loginProcessingUrl 登录请求地址
+     * @param secret             密钥提供者
+     */
+    private ReactiveJwtLoginFilterImpl(@NonNull final ReactiveAuthenticationManager manager,
+                                       @NonNull final String loginProcessingUrl,
+                                       @NonNull final ReactiveSecretProvider secret) {
+        authenticationManager = manager;
+        loginMatcher = ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, loginProcessingUrl);
+        secretProvider = secret;
+    }
+
+    /**
+     * {@link ReactiveJwtLoginFilter} 生成器
+     *
+     * @param manager            认证管理器
+     * @param loginProcessingUrl 登录请求地址
+     * @param secret             密钥提供者
+     * @return {@link ReactiveJwtLoginFilter} 对象
+     */
+    public static ReactiveJwtLoginFilter createJwtLoginFilter(@NonNull final ReactiveAuthenticationManager manager,
+                                                              @NonNull final String loginProcessingUrl,
+                                                              @NonNull final ReactiveSecretProvider secret) {
+        return new ReactiveJwtLoginFilterImpl(manager, loginProcessingUrl, secret);
+    }
+
+    /**
+     * 登录请求进行认证，其余请求直接放行
+     *
+     * @param exchange 请求和响应
+     * @param chain    过滤链
+     * @return 处理完成信号
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull final ServerWebExchange exchange, @NonNull final WebFilterChain chain) {
+        return loginMatcher.matches(exchange)
+                .flatMap(result -> result.isMatch() ? login(exchange) : chain.filter(exchange));
+    }
+
+    /**
+     * 读取请求内容、认证并写入响应
+     *
+     * @param exchange 请求和响应
+     * @return 处理完成信号
+     */
+    private Mono<Void> login(final ServerWebExchange exchange) {
+        final long start = System.nanoTime();
+        final ServerHttpRequest request = exchange.getRequest();
+        final Mono<UsernamePasswordAuthenticationToken> authRequest;
+        /* 声明的长度已超出限制时直接拒绝，不读取内容 */
+        if (request.getHeaders().getContentLength() > maxBodySize) {
+            authRequest = Mono.error(new PayloadTooLargeException("登录请求内容过大"));
+        } else {
+            /* 内容到齐后再解析，读取过程不阻塞，超出长度时立即停止读取 */
+            authRequest = DataBufferUtils.join(request.getBody(), (int) Math.min(maxBodySize, Integer.MAX_VALUE))
+                    .map(this::readAuthRequest)
+                    .defaultIfEmpty(new UsernamePasswordAuthenticationToken(null, null))
+                    .onErrorMap(DataBufferLimitException.class, e -> new PayloadTooLargeException("登录请求内容过大"))
+                    .onErrorMap(UncheckedIOException.class,
+                            e -> new AuthenticationServiceException("登录请求内容格式错误", e.getCause()));
+        }
+        return authRequest
+                .flatMap(token -> {
+                    final long authenticateStart = System.nanoTime();
+                    return authenticationManager.authenticate(token)
+                            .doFinally(signal -> metrics.recordAuthenticate(System.nanoTime() - authenticateStart));
+                })
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("认证失败")))
+                .flatMap(authResult -> successHandler(exchange, authResult, start))
+                .onErrorResume(AuthenticationException.class, e -> failureHandler(exchange, e, start));
+    }
+
+    /**
+     * 从已读取的请求内容中解析用户名和密码，解析完成后释放缓冲区
+     *
+     * @param buffer 请求内容
+     * @return 用户令牌
+     */
+    private UsernamePasswordAuthenticationToken readAuthRequest(final DataBuffer buffer) {
+        try (final InputStream inputStream = buffer.asInputStream(true)) {
+            return LoginRequestUtils.readAuthRequest(inputStream, usernameParameter, passwordParameter);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 登录成功处理器，签发令牌写入 cookie，并返回认证成功的具体信息或自定义信息
+     *
+     * @param exchange   请求和响应
+     * @param authResult 认证信息
+     * @param start      登录开始时刻，纳秒
+     * @return 处理完成信号
+     */
+    private Mono<Void> successHandler(final ServerWebExchange exchange, final Authentication authResult,
+                                      final long start) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final ServerHttpResponse response = exchange.getResponse();
+        /* 根据是否记住我来设置超时时间 */
+        final String rememberMeStr = request.getQueryParams().getFirst(rmbParameter);
+        final long expireTime = Objects.equals(rememberMeStr, rmbValue) ? rmbExpireTime : defaultExpireTime;
+        final KeyRing keyRing = secretProvider.resolve(request);
+        if (null == keyRing) {
+            throw new AuthenticationServiceException("无法确定签发令牌的密钥");
+        }
+        if (!keyRing.getActiveKey().isSignable()) {
+            throw new AuthenticationServiceException("当前密钥只能校验，无法签发令牌");
+        }
+        /* 使用当前密钥签发，kid 写入令牌头 */
+        final long signStart = System.nanoTime();
+        final String jwt = JwtUtils.sign(authResult.getName(), getClaims(authResult), expireTime, keyRing,
+                claimAliases);
+        metrics.recordSign(System.nanoTime() - signStart);
+        response.addCookie(CookieUtils.generateResponseCookie(tokenName, jwt, Path.ROOT, expireTime));
+        final String requestUri = request.getPath().value();
+        final Object result = null != successCallback ?
+                successCallback.apply(requestUri, authResult) : LoginResult.createLoginResult(authResult);
+        return write(response, result).doFinally(signal -> metrics.recordLogin(System.nanoTime() - start, true));
+    }
+
+    /**
+     * 登录失败处理器，带有状态码的异常使用自身状态码，其余为 401
+     *
+     * @param exchange  请求和响应
+     * @param exception 错误细节
+     * @param start     登录开始时刻，纳秒
+     * @return 处理完成信号
+     */
+    private Mono<Void> failureHandler(final ServerWebExchange exchange, final AuthenticationException exception,
+                                      final long start) {
+        final ServerHttpResponse response = exchange.getResponse();
+        final int status = exception instanceof StatusAuthenticationException ?
+                ((StatusAuthenticationException) exception).getStatus() : HttpStatus.UNAUTHORIZED.value();
+        response.setRawStatusCode(status);
+        final String requestUri = exchange.getRequest().getPath().value();
+        /* 默认信息使用预先序列化的内容 */
+        final Mono<Void> written = null != failureCallback ?
+                write(response, failureCallback.apply(requestUri, exception)) :
+                writeBytes(response, serializer.getFailureBody(exception.getMessage()));
+        return written.doFinally(signal -> metrics.recordLogin(System.nanoTime() - start, false));
+    }
+
+    /**
+     * 以 json 格式写入响应
+     *
+     * @param response 响应
+     * @param result   响应对象
+     * @return 写入完成信号
+     */
+    private Mono<Void> write(final ServerHttpResponse response, final Object result) {
+        return Mono.fromCallable(() -> serialize(result)).flatMap(message -> writeBytes(response, message));
+    }
+
+    /**
+     * 写入已序列化的 json 响应
+     *
+     * @param response 响应
+     * @param message  json 字节
+     * @return 写入完成信号
+     */
+    private static Mono<Void> writeBytes(final ServerHttpResponse response, final byte[] message) {
+        /* json 的默认编码即为 utf8，响应体已按 utf8 序列化 */
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(message.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(message)));
+    }
+
+    /**
+     * 序列化响应内容并记录耗时
+     *
+     * @param result 响应对象
+     * @return json 字节
+     * @throws JsonProcessingException 序列化异常
+     */
+    private byte[] serialize(final Object result) throws JsonProcessingException {
+        final long start = System.nanoTime();
+        final byte[] message = serializer.toBytes(result);
+        metrics.recordSerialize(System.nanoTime() - start);
+        return message;
+    }
+
+    /**
+     * 生成令牌中的附加信息，包含自定义信息和角色
+     *
+     * @param authResult 认证信息
+     * @return 附加信息
+     */
+    private Map<String, String> getClaims(final Authentication authResult) {
+        final Map<String, String> claim = new HashMap<>(Number.INITIAL_CAPACITY);
+        if (null != claimCallback) {
+            claim.putAll(claimCallback.apply(authResult));
+        }
+        final RoleExtractor extractor = null != roleExtractor ? roleExtractor : defaultRoleExtractor;
+        final String role = extractor.apply(authResult.getPrincipal());
+        if (null != role) {
+            claim.put(roleParameter, role);
+        }
+        return claim;
+    }
+
+    /* 参数 */
+
+    /**
+     * 自定义记住我超时时间，默认值为 7 天
+     *
+     * @param time 超时时长，单位为毫秒
+     */
+    @Override
+    public void setRmbExpireTime(final long time) {
+        if (0L < time) {
+            rmbExpireTime = time;
+        }
+    }
+
+    /**
+     * 自定义默认超时时长
+     *
+     * @param time 超时时长，单位为毫秒
+     */
+    @Override
+    public void setDefaultExpireTime(final long time) {
+        defaultExpireTime = 0L == time ? defaultExpireTime : time;
+    }
+
+    /**
+     * 自定义记住我字段的启用值，默认值为 "true"
+     *
+     * @param value 字段值
+     */
+    @Override
+    public void setRmbValue(final String value) {
+        rmbValue = Objects.requireNonNullElse(value, rmbValue);
+    }
+
+    /**
+     * 修改登录请求内容的最大长度，超出时以 413 拒绝登录
+     *
+     * @param size 最大字节数，不大于 0 时保持原值
+     */
+    @Override
+    public void setMaxBodySize(final long size) {
+        if (0L < size) {
+            maxBodySize = size;
+        }
+    }
+
+    /* 字段 */
+
+    /**
+     * 自定义 token 名
+     *
+     * @param name token 的 cookie 名
+     */
+    @Override
+    public void setTokenName(final String name) {
+        tokenName = Objects.requireNonNullElse(name, tokenName);
+    }
+
+    /**
+     * 自定义角色字段名
+     *
+     * @param parameter 角色字段名
+     */
+    @Override
+    public void setRoleParameter(final String parameter) {
+        if (null != parameter) {
+            roleParameter = parameter;
+            defaultRoleExtractor = CachedRoleExtractor.createRoleExtractor(parameter);
+        }
+    }
+
+    /**
+     * 自定义记住我的字段名，默认值为 "remember"
+     *
+     * @param parameter 字段名
+     */
+    @Override
+    public void setRmbParameter(final String parameter) {
+        rmbParameter = Objects.requireNonNullElse(parameter, rmbParameter);
+    }
+
+    /**
+     * 修改用户字段名
+     *
+     * @param parameter 字段名
+     */
+    @Override
+    public void setUsernameParameter(final String parameter) {
+        usernameParameter = Objects.requireNonNullElse(parameter, usernameParameter);
+    }
+
+    /**
+     * 修改密码字段名
+     *
+     * @param parameter 字段名
+     */
+    @Override
+    public void setPasswordParameter(final String parameter) {
+        passwordParameter = Objects.requireNonNullElse(parameter, passwordParameter);
+    }
+
+    /* 回调 */
+
+    /**
+     * 自定义 token 中存放的额外信息
+     *
+     * @param claim 返回信息键值对的回调函数
+     */
+    @Override
+    public void setClaimCallback(final Function<? super Authentication, ? extends Map<String, String>> claim) {
+        claimCallback = claim;
+    }
+
+    /**
+     * 自定义角色提取方式，默认按角色字段名从主体的 getter 或字段中读取
+     *
+     * @param extractor 从主体中提取角色的回调函数，为 null 时使用默认方式
+     */
+    @Override
+    public void setRoleExtractor(final RoleExtractor extractor) {
+        roleExtractor = extractor;
+    }
+
+    /**
+     * 自定义成功时返回的内容
+     *
+     * @param success 处理认证信息并返回一个可序列化对象的回调函数
+     */
+    @Override
+    public void setSuccessCallback(final ResultCallback<? super Authentication> success) {
+        successCallback = success;
+    }
+
+    /**
+     * 自定义失败时返回的内容
+     *
+     * @param failure 处理错误细节并返回一个可序列化对象的回调函数
+     */
+    @Override
+    public void setFailureCallback(final ResultCallback<? super AuthenticationException> failure) {
+        failureCallback = failure;
+    }
+
+    /**
+     * 自定义性能指标
+     *
+     * @param securityMetrics 性能指标，为 null 时不记录
+     */
+    @Override
+    public void setMetrics(final SecurityMetrics securityMetrics) {
+        metrics = Objects.requireNonNullElseGet(securityMetrics, NoopSecurityMetrics::createSecurityMetrics);
+    }
+
+    /**
+     * 自定义附加信息字段名别名表，签发时字段名替换为别名以缩短令牌
+     *
+     * @param aliases 别名表，为 null 时不使用别名
+     */
+    @Override
+    public void setClaimAliases(final ClaimAliases aliases) {
+        claimAliases = Objects.requireNonNullElse(aliases, ClaimAliases.NONE);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 响应式过滤器实现类包
+ */
+package com.xumumi.filter.reactive.impl;
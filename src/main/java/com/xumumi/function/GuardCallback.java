@@ -4,6 +4,8 @@ import javax.servlet.http.HttpServletRequest;
 
 /**
  * 守卫函数接口
+ * 登录过滤器在读取请求内容之前调用 {@link #apply(HttpServletRequest)}，读取用户名之后、校验密码之前调用
+ * {@link #applyUsername(HttpServletRequest, String)}，需要中断登录时抛出异常
  *
  * @author XUMUMI
  * @since 1.9
@@ -16,4 +18,13 @@ public interface GuardCallback {
      * @param request 登录请求
      */
     void apply(HttpServletRequest request);
+
+    /**
+     * 按用户名拦截，默认不拦截
+     *
+     * @param request  登录请求
+     * @param username 请求中的用户名
+     */
+    default void applyUsername(final HttpServletRequest request, final String username) {
+    }
 }
@@ -0,0 +1,18 @@
+package com.xumumi.function;
+
+/**
+ * 角色提取函数接口
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+@FunctionalInterface
+public interface RoleExtractor {
+    /**
+     * 执行回调函数
+     *
+     * @param principal 登录成功后的主体对象
+     * @return 存入 token 的角色，多个角色以逗号分隔，没有角色时返回 null
+     */
+    String apply(Object principal);
+}
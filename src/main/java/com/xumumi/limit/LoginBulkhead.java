@@ -0,0 +1,148 @@
+package com.xumumi.limit;
+
+import com.xumumi.exception.TooManyRequestsException;
+import com.xumumi.filter.constant.Number;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 登录并发隔离，限制同时进行的登录总数和同一用户名同时进行的登录数
+ * 计数只使用 CAS，超出上限时立即拒绝，不排队等待，密码哈希占用的处理器资源始终有上限
+ * 用户名按哈希分段计数，不同用户名落在同一段时共用上限，段数足够多时影响可以忽略，内存占用与用户名数量无关
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class LoginBulkhead {
+    /**
+     * 同时进行的登录总数上限，不大于 0 时不限制
+     */
+    private final int maxConcurrent;
+    /**
+     * 同一用户名同时进行的登录数上限，不大于 0 时不限制
+     */
+    private final int maxPerUser;
+    /**
+     * 进行中的登录总数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * 按用户名分段的进行中登录数，不限制时为 null
+     */
+    private final AtomicIntegerArray stripes;
+    /**
+     * 分段下标掩码
+     */
+    private final int mask;
+
+    /**
+     * 构造器
+     *
+     * @param maxConcurrent 同时进行的登录总数上限
+     * @param maxPerUser    同一用户名同时进行的登录数上限
+     * @param stripeCount   分段数，必须为 2 的幂
+     */
+    private LoginBulkhead(final int maxConcurrent, final int maxPerUser, final int stripeCount) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxPerUser = maxPerUser;
+        stripes = 0 < maxPerUser ? new AtomicIntegerArray(stripeCount) : null;
+        mask = stripeCount - 1;
+    }
+
+    /**
+     * {@link LoginBulkhead} 生成器
+     *
+     * @param maxConcurrent 同时进行的登录总数上限，不大于 0 时不限制
+     * @param maxPerUser    同一用户名同时进行的登录数上限，不大于 0 时不限制
+     * @return {@link LoginBulkhead} 对象
+     */
+    public static LoginBulkhead createLoginBulkhead(final int maxConcurrent, final int maxPerUser) {
+        return new LoginBulkhead(maxConcurrent, maxPerUser, Number.LOGIN_BULKHEAD_STRIPES);
+    }
+
+    /**
+     * 占用一个登录名额，成功后必须在登录结束时调用 {@link #release(String)}
+     *
+     * @param username 用户名，可以为 null
+     * @throws TooManyRequestsException 超出任一上限时抛出，此时不占用名额
+     */
+    public void acquire(final String username) {
+        if (0 < maxConcurrent && !tryIncrement(inFlight, maxConcurrent)) {
+            throw new TooManyRequestsException("登录请求过多，请稍后再试");
+        }
+        if (null != stripes && !tryIncrement(stripes, indexOf(username), maxPerUser)) {
+            if (0 < maxConcurrent) {
+                inFlight.decrementAndGet();
+            }
+            throw new TooManyRequestsException("该用户登录请求过多，请稍后再试");
+        }
+    }
+
+    /**
+     * 归还 {@link #acquire(String)} 占用的名额
+     *
+     * @param username 用户名，需与占用时相同
+     */
+    public void release(final String username) {
+        if (null != stripes) {
+            stripes.decrementAndGet(indexOf(username));
+        }
+        if (0 < maxConcurrent) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 获取进行中的登录总数，不限制总数时恒为 0
+     *
+     * @return 登录数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 计算用户名所在分段，高位混入低位以免相近的用户名集中在少数分段
+     *
+     * @param username 用户名
+     * @return 分段下标
+     */
+    private int indexOf(final String username) {
+        final int h = null != username ? username.hashCode() : 0;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    /**
+     * 计数小于上限时加一
+     *
+     * @param counter 计数器
+     * @param max     上限
+     * @return 是否成功
+     */
+    private static boolean tryIncrement(final AtomicInteger counter, final int max) {
+        boolean ret = false;
+        int current = counter.get();
+        while (current < max && !(ret = counter.compareAndSet(current, current + 1))) {
+            current = counter.get();
+        }
+        return ret;
+    }
+
+    /**
+     * 分段计数小于上限时加一
+     *
+     * @param counters 分段计数器
+     * @param index    分段下标
+     * @param max      上限
+     * @return 是否成功
+     */
+    private static boolean tryIncrement(final AtomicIntegerArray counters, final int index, final int max) {
+        boolean ret = false;
+        int current = counters.get(index);
+        while (current < max && !(ret = counters.compareAndSet(index, current, current + 1))) {
+            current = counters.get(index);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,110 @@
+package com.xumumi.limit;
+
+import com.xumumi.exception.TooManyRequestsException;
+import com.xumumi.function.GuardCallback;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 登录限流守卫，分别按客户端地址和用户名限制登录频率，超出时以 429 拒绝登录
+ * 客户端地址在读取请求内容之前检查，用户名在校验密码之前检查，两者均为常数时间，内存占用固定
+ * 可通过 {@link com.xumumi.configure.config.BasicConfig#setGuardCallback(GuardCallback)} 使用
+ *
+ * @author XUMUMI
+ * @see RateLimiter
+ * @since 1.9
+ */
+public final class RateLimitGuard implements GuardCallback {
+    /**
+     * 按客户端地址限流，为 null 时不限制
+     */
+    private final RateLimiter clientLimiter;
+    /**
+     * 按用户名限流，为 null 时不限制
+     */
+    private final RateLimiter usernameLimiter;
+    /**
+     * 客户端标识解析方式
+     */
+    private Function<? super HttpServletRequest, String> clientResolver = ServletRequest::getRemoteAddr;
+
+    /**
+     * 构造器
+     *
+     * @param client   按客户端地址限流
+     * @param username 按用户名限流
+     */
+    private RateLimitGuard(final RateLimiter client, final RateLimiter username) {
+        clientLimiter = client;
+        usernameLimiter = username;
+    }
+
+    /**
+     * {@link RateLimitGuard} 生成器
+     *
+     * @param client   按客户端地址限流，为 null 时不限制
+     * @param username 按用户名限流，为 null 时不限制
+     * @return {@link RateLimitGuard} 对象
+     */
+    public static RateLimitGuard createRateLimitGuard(final RateLimiter client, final RateLimiter username) {
+        return new RateLimitGuard(client, username);
+    }
+
+    /**
+     * {@link RateLimitGuard} 生成器，使用默认桶数
+     *
+     * @param clientPermits   每个客户端地址在周期内允许的登录次数，不大于 0 时不限制
+     * @param usernamePermits 每个用户名在周期内允许的登录次数，不大于 0 时不限制
+     * @param period          周期，单位毫秒
+     * @return {@link RateLimitGuard} 对象
+     */
+    public static RateLimitGuard createRateLimitGuard(final int clientPermits, final int usernamePermits,
+                                                      final long period) {
+        final RateLimiter client = 0 < clientPermits ? RateLimiter.createRateLimiter(clientPermits, period) : null;
+        final RateLimiter username = 0 < usernamePermits ?
+                RateLimiter.createRateLimiter(usernamePermits, period) : null;
+        return new RateLimitGuard(client, username);
+    }
+
+    /**
+     * 自定义客户端标识解析方式，默认使用 {@link ServletRequest#getRemoteAddr()}
+     * 位于反向代理之后时应由容器解析转发头，或在此处自行读取可信的转发头
+     *
+     * @param resolver 解析方式，为 null 时保持原值
+     */
+    public void setClientResolver(final Function<? super HttpServletRequest, String> resolver) {
+        clientResolver = Objects.requireNonNullElse(resolver, clientResolver);
+    }
+
+    /**
+     * 按客户端地址限流
+     *
+     * @param request 登录请求
+     * @throws TooManyRequestsException 超出限制时抛出
+     */
+    @Override
+    public void apply(final HttpServletRequest request) {
+        if (null != clientLimiter && !clientLimiter.tryAcquire(clientResolver.apply(request))) {
+            throw new TooManyRequestsException("登录请求过于频繁，请稍后再试");
+        }
+    }
+
+    /**
+     * 按用户名限流，用户名不区分大小写
+     *
+     * @param request  登录请求
+     * @param username 请求中的用户名
+     * @throws TooManyRequestsException 超出限制时抛出
+     */
+    @Override
+    public void applyUsername(final HttpServletRequest request, final String username) {
+        final String key = null != username ? username.toLowerCase(Locale.ROOT) : null;
+        if (null != usernameLimiter && !usernameLimiter.tryAcquire(key)) {
+            throw new TooManyRequestsException("该用户登录过于频繁，请稍后再试");
+        }
+    }
+}
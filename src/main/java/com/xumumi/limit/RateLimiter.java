@@ -0,0 +1,150 @@
+package com.xumumi.limit;
+
+import com.xumumi.filter.constant.Number;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定内存的按键限流器，每个键相当于一个令牌桶，容量为周期内的许可数，按周期匀速补充
+ * 令牌桶以 GCRA 算法表示为一个理论到达时刻，多个键按 count-min 方式共用一张多行的桶表：
+ * 每个键在每行各占一个桶，各桶均不早于键自身的时刻，取其中最早的时刻判断，放行后只把不足新时刻的桶推进到新时刻
+ * 哈希冲突只会让限流偏严，不会放过超限的键，时刻随时间自然过期，无需清理，内存占用与键的数量无关
+ * 读写均为 CAS，没有锁，并发放行时可能略微超出许可数
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class RateLimiter {
+    /**
+     * FNV-1a 64 位乘数
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * 每行桶数上限
+     */
+    private static final int MAX_WIDTH = 1 << 24;
+
+    /**
+     * 桶表，按行连续存放，每个桶保存理论到达时刻，单位纳秒，以 {@link #origin} 为起点
+     */
+    private final AtomicLongArray table;
+    private final int width;
+    private final int mask;
+    /**
+     * 每个许可的补充间隔，单位纳秒
+     */
+    private final long interval;
+    /**
+     * 允许的突发量，即桶容量对应的时长，单位纳秒
+     */
+    private final long tolerance;
+    /**
+     * 随机哈希种子，避免攻击者构造冲突键使他人被限流
+     */
+    private final long seed = new SecureRandom().nextLong();
+    /**
+     * 计时起点，保证时刻为非负数
+     */
+    private final long origin = System.nanoTime();
+
+    /**
+     * 构造器
+     *
+     * @param permits 周期内的许可数
+     * @param period  周期，单位毫秒
+     * @param width   每行桶数，必须为 2 的幂
+     */
+    private RateLimiter(final int permits, final long period, final int width) {
+        interval = Math.max(1L, TimeUnit.MILLISECONDS.toNanos(period) / permits);
+        tolerance = interval * permits;
+        this.width = width;
+        mask = width - 1;
+        table = new AtomicLongArray(width * Number.RATE_LIMIT_DEPTH);
+    }
+
+    /**
+     * {@link RateLimiter} 生成器，使用默认桶数
+     *
+     * @param permits 周期内的许可数，必须大于 0
+     * @param period  周期，单位毫秒，必须大于 0
+     * @return {@link RateLimiter} 对象
+     */
+    public static RateLimiter createRateLimiter(final int permits, final long period) {
+        return createRateLimiter(permits, period, Number.RATE_LIMIT_WIDTH);
+    }
+
+    /**
+     * {@link RateLimiter} 生成器
+     *
+     * @param permits 周期内的许可数，必须大于 0
+     * @param period  周期，单位毫秒，必须大于 0
+     * @param width   每行桶数，向上取整为 2 的幂，应明显大于周期内同时活跃的键数
+     * @return {@link RateLimiter} 对象
+     */
+    public static RateLimiter createRateLimiter(final int permits, final long period, final int width) {
+        if (0 >= permits || 0L >= period || 0 >= width) {
+            throw new IllegalArgumentException("permits, period and width must be positive");
+        }
+        final int size = Integer.highestOneBit(Math.max(1, Math.min(width, MAX_WIDTH) - 1) << 1);
+        return new RateLimiter(permits, period, size);
+    }
+
+    /**
+     * 尝试为键获取一个许可
+     *
+     * @param key 键，为 null 时视为空字符串
+     * @return 是否放行
+     */
+    public boolean tryAcquire(final String key) {
+        final long now = System.nanoTime() - origin;
+        final long hash = hash(null != key ? key : "");
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        long tat = Long.MAX_VALUE;
+        for (int i = 0; i < Number.RATE_LIMIT_DEPTH; i++) {
+            tat = Math.min(tat, table.get(indexOf(i, h1, h2)));
+        }
+        final long next = Math.max(tat, now) + interval;
+        final boolean ret = next - now <= tolerance;
+        if (ret) {
+            for (int i = 0; i < Number.RATE_LIMIT_DEPTH; i++) {
+                table.accumulateAndGet(indexOf(i, h1, h2), next, Math::max);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * 计算键在某一行中的桶下标，各行使用双重哈希得到不同的位置
+     *
+     * @param row 行号
+     * @param h1  第一哈希
+     * @param h2  第二哈希，奇数
+     * @return 桶下标
+     */
+    private int indexOf(final int row, final int h1, final int h2) {
+        return row * width + ((h1 + row * h2) & mask);
+    }
+
+    /**
+     * 带种子的 64 位哈希，FNV-1a 后再做一次 murmur3 混合
+     *
+     * @param key 键
+     * @return 哈希值
+     */
+    private long hash(final String key) {
+        long h = seed;
+        final int length = key.length();
+        for (int i = 0; i < length; i++) {
+            h = (h ^ key.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 登录限流类包
+ */
+package com.xumumi.limit;
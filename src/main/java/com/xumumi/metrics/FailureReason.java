@@ -0,0 +1,38 @@
+package com.xumumi.metrics;
+
+/**
+ * 令牌校验失败原因
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public enum FailureReason {
+    /**
+     * 无法确定请求对应的密钥
+     */
+    NO_KEY,
+    /**
+     * 令牌的 kid 不在密钥环中或对应密钥已停用
+     */
+    UNKNOWN_KEY,
+    /**
+     * 令牌格式错误，无法解析
+     */
+    MALFORMED,
+    /**
+     * 签名错误或算法不符
+     */
+    SIGNATURE,
+    /**
+     * 令牌已过期
+     */
+    EXPIRED,
+    /**
+     * 令牌没有过期时间或其他标准字段校验失败
+     */
+    INVALID_CLAIM,
+    /**
+     * 令牌已被吊销
+     */
+    REVOKED
+}
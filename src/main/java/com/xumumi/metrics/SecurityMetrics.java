@@ -0,0 +1,69 @@
+package com.xumumi.metrics;
+
+/**
+ * 性能指标接口
+ * 由过滤器在令牌校验、刷新、签发和登录过程中调用，所有方法都在请求线程中同步执行，实现应保证开销足够小且线程安全
+ * 默认方法均为空操作，只需重写关心的指标
+ *
+ * @author XUMUMI
+ * @see com.xumumi.metrics.impl.NoopSecurityMetrics
+ * @see com.xumumi.metrics.impl.LongAdderSecurityMetrics
+ * @see com.xumumi.metrics.impl.MicrometerSecurityMetrics
+ * @since 1.9
+ */
+public interface SecurityMetrics {
+    /**
+     * 记录一次令牌校验，命中已校验令牌缓存或请求未携带令牌时不记录
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    default void recordVerify(final long nanos) {
+    }
+
+    /**
+     * 记录一次令牌校验失败
+     *
+     * @param reason 失败原因
+     */
+    default void recordVerifyFailure(final FailureReason reason) {
+    }
+
+    /**
+     * 记录一次令牌刷新，并发请求共用的刷新结果只记录一次
+     */
+    default void recordRefresh() {
+    }
+
+    /**
+     * 记录一次令牌签发
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    default void recordSign(final long nanos) {
+    }
+
+    /**
+     * 记录一次登录请求，从读取请求内容开始到写完响应结束
+     *
+     * @param nanos   耗时，单位纳秒
+     * @param success 是否登录成功
+     */
+    default void recordLogin(final long nanos, final boolean success) {
+    }
+
+    /**
+     * 记录一次 {@link org.springframework.security.authentication.AuthenticationManager} 认证
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    default void recordAuthenticate(final long nanos) {
+    }
+
+    /**
+     * 记录一次登录响应序列化
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    default void recordSerialize(final long nanos) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.xumumi.metrics.impl;
+
+import com.xumumi.metrics.FailureReason;
+import com.xumumi.metrics.SecurityMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 {@link LongAdder} 的内存性能指标，不依赖其他库
+ * 计数和累计耗时在高并发下没有竞争，可随时读取，适合自行导出或在调试时查看
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class LongAdderSecurityMetrics implements SecurityMetrics {
+    private final Timer verifyTimer = new Timer();
+    private final Timer signTimer = new Timer();
+    private final Timer loginTimer = new Timer();
+    private final Timer authenticateTimer = new Timer();
+    private final Timer serializeTimer = new Timer();
+    private final Map<FailureReason, LongAdder> failures = new EnumMap<>(FailureReason.class);
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder loginFailureCount = new LongAdder();
+
+    /**
+     * 构造器
+     */
+    private LongAdderSecurityMetrics() {
+        for (final FailureReason reason : FailureReason.values()) {
+            failures.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * {@link SecurityMetrics} 生成器
+     *
+     * @return {@link LongAdderSecurityMetrics} 对象
+     */
+    public static LongAdderSecurityMetrics createSecurityMetrics() {
+        return new LongAdderSecurityMetrics();
+    }
+
+    /**
+     * 记录一次令牌校验
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordVerify(final long nanos) {
+        verifyTimer.record(nanos);
+    }
+
+    /**
+     * 记录一次令牌校验失败
+     *
+     * @param reason 失败原因
+     */
+    @Override
+    public void recordVerifyFailure(final FailureReason reason) {
+        failures.get(reason).increment();
+    }
+
+    /**
+     * 记录一次令牌刷新
+     */
+    @Override
+    public void recordRefresh() {
+        refreshCount.increment();
+    }
+
+    /**
+     * 记录一次令牌签发
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordSign(final long nanos) {
+        signTimer.record(nanos);
+    }
+
+    /**
+     * 记录一次登录请求
+     *
+     * @param nanos   耗时，单位纳秒
+     * @param success 是否登录成功
+     */
+    @Override
+    public void recordLogin(final long nanos, final boolean success) {
+        loginTimer.record(nanos);
+        if (!success) {
+            loginFailureCount.increment();
+        }
+    }
+
+    /**
+     * 记录一次认证管理器认证
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordAuthenticate(final long nanos) {
+        authenticateTimer.record(nanos);
+    }
+
+    /**
+     * 记录一次登录响应序列化
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordSerialize(final long nanos) {
+        serializeTimer.record(nanos);
+    }
+
+    /**
+     * 获取令牌校验耗时
+     *
+     * @return 计时器
+     */
+    public Timer getVerifyTimer() {
+        return verifyTimer;
+    }
+
+    /**
+     * 获取令牌签发耗时
+     *
+     * @return 计时器
+     */
+    public Timer getSignTimer() {
+        return signTimer;
+    }
+
+    /**
+     * 获取登录请求耗时
+     *
+     * @return 计时器
+     */
+    public Timer getLoginTimer() {
+        return loginTimer;
+    }
+
+    /**
+     * 获取认证管理器耗时
+     *
+     * @return 计时器
+     */
+    public Timer getAuthenticateTimer() {
+        return authenticateTimer;
+    }
+
+    /**
+     * 获取登录响应序列化耗时
+     *
+     * @return 计时器
+     */
+    public Timer getSerializeTimer() {
+        return serializeTimer;
+    }
+
+    /**
+     * 获取令牌校验失败次数
+     *
+     * @param reason 失败原因
+     * @return 次数
+     */
+    public long getFailureCount(final FailureReason reason) {
+        return failures.get(reason).sum();
+    }
+
+    /**
+     * 获取令牌刷新次数
+     *
+     * @return 次数
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * 获取登录失败次数
+     *
+     * @return 次数
+     */
+    public long getLoginFailureCount() {
+        return loginFailureCount.sum();
+    }
+
+    /**
+     * 计时器，记录次数、累计耗时和最大耗时
+     */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        /**
+         * 构造器
+         */
+        Timer() {
+        }
+
+        /**
+         * 记录一次耗时
+         *
+         * @param nanos 耗时，单位纳秒
+         */
+        void record(final long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * 获取次数
+         *
+         * @return 次数
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * 获取累计耗时
+         *
+         * @return 耗时，单位纳秒
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * 获取最大耗时
+         *
+         * @return 耗时，单位纳秒
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * 获取平均耗时
+         *
+         * @return 耗时，单位纳秒，没有记录时为 0
+         */
+        public double getMeanNanos() {
+            final long n = count.sum();
+            return 0L == n ? 0.0 : (double) totalNanos.sum() / n;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.xumumi.metrics.impl;
+
+import com.xumumi.metrics.FailureReason;
+import com.xumumi.metrics.SecurityMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.NonNull;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer 性能指标适配器，需要自行引入 micrometer-core
+ * 所有指标在创建时注册，记录时只调用已有的计时器和计数器，不再查找注册表
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class MicrometerSecurityMetrics implements SecurityMetrics {
+    /**
+     * 默认指标名前缀
+     */
+    public static final String DEFAULT_PREFIX = "xumumi.security";
+
+    private final Timer verifyTimer;
+    private final Timer signTimer;
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+    private final Timer authenticateTimer;
+    private final Timer serializeTimer;
+    private final Counter refreshCounter;
+    private final Map<FailureReason, Counter> failures = new EnumMap<>(FailureReason.class);
+
+    /**
+     * 构造器
+     *
+     * @param registry 注册表
+     * @param prefix   指标名前缀
+     */
+    private MicrometerSecurityMetrics(@NonNull final MeterRegistry registry, @NonNull final String prefix) {
+        verifyTimer = Timer.builder(prefix + ".token.verify").register(registry);
+        signTimer = Timer.builder(prefix + ".token.sign").register(registry);
+        loginSuccessTimer = Timer.builder(prefix + ".login").tag("outcome", "success").register(registry);
+        loginFailureTimer = Timer.builder(prefix + ".login").tag("outcome", "failure").register(registry);
+        authenticateTimer = Timer.builder(prefix + ".login.authenticate").register(registry);
+        serializeTimer = Timer.builder(prefix + ".login.serialize").register(registry);
+        refreshCounter = Counter.builder(prefix + ".token.refresh").register(registry);
+        for (final FailureReason reason : FailureReason.values()) {
+            failures.put(reason, Counter.builder(prefix + ".token.verify.failure")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT)).register(registry));
+        }
+    }
+
+    /**
+     * {@link SecurityMetrics} 生成器，使用默认指标名前缀
+     *
+     * @param registry 注册表
+     * @return {@link SecurityMetrics} 对象
+     */
+    public static SecurityMetrics createSecurityMetrics(@NonNull final MeterRegistry registry) {
+        return new MicrometerSecurityMetrics(registry, DEFAULT_PREFIX);
+    }
+
+    /**
+     * {@link SecurityMetrics} 生成器
+     *
+     * @param registry 注册表
+     * @param prefix   指标名前缀
+     * @return {@link SecurityMetrics} 对象
+     */
+    public static SecurityMetrics createSecurityMetrics(@NonNull final MeterRegistry registry,
+                                                        @NonNull final String prefix) {
+        return new MicrometerSecurityMetrics(registry, prefix);
+    }
+
+    /**
+     * 记录一次令牌校验
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordVerify(final long nanos) {
+        verifyTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次令牌校验失败
+     *
+     * @param reason 失败原因
+     */
+    @Override
+    public void recordVerifyFailure(final FailureReason reason) {
+        failures.get(reason).increment();
+    }
+
+    /**
+     * 记录一次令牌刷新
+     */
+    @Override
+    public void recordRefresh() {
+        refreshCounter.increment();
+    }
+
+    /**
+     * 记录一次令牌签发
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordSign(final long nanos) {
+        signTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次登录请求
+     *
+     * @param nanos   耗时，单位纳秒
+     * @param success 是否登录成功
+     */
+    @Override
+    public void recordLogin(final long nanos, final boolean success) {
+        (success ? loginSuccessTimer : loginFailureTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次认证管理器认证
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordAuthenticate(final long nanos) {
+        authenticateTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次登录响应序列化
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    @Override
+    public void recordSerialize(final long nanos) {
+        serializeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,28 @@
+package com.xumumi.metrics.impl;
+
+import com.xumumi.metrics.SecurityMetrics;
+
+/**
+ * 空性能指标，不记录任何内容，为过滤器的默认值
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class NoopSecurityMetrics implements SecurityMetrics {
+    private static final SecurityMetrics INSTANCE = new NoopSecurityMetrics();
+
+    /**
+     * 构造器
+     */
+    private NoopSecurityMetrics() {
+    }
+
+    /**
+     * {@link SecurityMetrics} 生成器，返回共享的实例
+     *
+     * @return {@link SecurityMetrics} 对象
+     */
+    public static SecurityMetrics createSecurityMetrics() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 性能指标实现类包
+ */
+package com.xumumi.metrics.impl;
\ No newline at end of file
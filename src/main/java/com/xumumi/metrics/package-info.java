@@ -0,0 +1,4 @@
+/**
+ * 性能指标类包
+ */
+package com.xumumi.metrics;
\ No newline at end of file
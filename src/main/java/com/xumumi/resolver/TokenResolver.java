@@ -0,0 +1,43 @@
+package com.xumumi.resolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 令牌读取接口
+ * 授权过滤器按顺序调用各读取器，使用第一个读到的令牌，刷新后的令牌由读到令牌的读取器写回，保证与客户端携带令牌的方式一致
+ *
+ * @author XUMUMI
+ * @see com.xumumi.resolver.impl.BearerTokenResolver
+ * @see com.xumumi.resolver.impl.CookieTokenResolver
+ * @see com.xumumi.resolver.impl.HeaderTokenResolver
+ * @since 1.9
+ */
+public interface TokenResolver {
+    /**
+     * 从请求中读取令牌
+     *
+     * @param request 请求
+     * @return 令牌，请求未携带时返回 null
+     */
+    String resolve(final HttpServletRequest request);
+
+    /**
+     * 写回刷新后的令牌
+     *
+     * @param response 响应
+     * @param token    新令牌
+     * @param maxAge   新令牌的剩余有效期，单位毫秒
+     */
+    void writeToken(final HttpServletResponse response, final String token, final long maxAge);
+
+    /**
+     * 以该方式携带令牌的请求是否需要防御跨站请求伪造
+     * 浏览器会自动附带 cookie，需要防御；请求头只能由客户端主动设置，无需防御
+     *
+     * @return 是否需要防御，默认需要
+     */
+    default boolean isCsrfRequired() {
+        return true;
+    }
+}
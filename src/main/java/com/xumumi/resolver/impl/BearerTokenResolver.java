@@ -0,0 +1,95 @@
+package com.xumumi.resolver.impl;
+
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.resolver.TokenResolver;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Objects;
+
+/**
+ * 从 Authorization: Bearer 请求头中读取令牌，刷新后的令牌写入响应头，默认为 {@link Parameter#REFRESH_TOKEN_HEADER}
+ * 跨域调用时需在 Access-Control-Expose-Headers 中暴露该响应头
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class BearerTokenResolver implements TokenResolver {
+    /**
+     * 认证方式前缀，比较时忽略大小写
+     */
+    private static final String BEARER = "Bearer ";
+
+    /**
+     * 刷新后的令牌所在的响应头
+     */
+    private final String refreshHeader;
+
+    /**
+     * 构造器
+     *
+     * @param header 刷新后的令牌所在的响应头
+     */
+    private BearerTokenResolver(final String header) {
+        refreshHeader = header;
+    }
+
+    /**
+     * {@link BearerTokenResolver} 生成器，刷新后的令牌写入默认响应头
+     *
+     * @return {@link BearerTokenResolver} 对象
+     */
+    public static BearerTokenResolver createTokenResolver() {
+        return new BearerTokenResolver(Parameter.REFRESH_TOKEN_HEADER);
+    }
+
+    /**
+     * {@link BearerTokenResolver} 生成器
+     *
+     * @param header 刷新后的令牌所在的响应头，为 null 时使用默认值
+     * @return {@link BearerTokenResolver} 对象
+     */
+    public static BearerTokenResolver createTokenResolver(final String header) {
+        return new BearerTokenResolver(Objects.requireNonNullElse(header, Parameter.REFRESH_TOKEN_HEADER));
+    }
+
+    /**
+     * 读取 Authorization 请求头中的 Bearer 令牌
+     *
+     * @param request 请求
+     * @return 令牌，请求未携带或不是 Bearer 方式时返回 null
+     */
+    @Override
+    public String resolve(final HttpServletRequest request) {
+        final String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String ret = null;
+        if (null != authorization && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            final String token = authorization.substring(BEARER.length()).trim();
+            ret = token.isEmpty() ? null : token;
+        }
+        return ret;
+    }
+
+    /**
+     * 将刷新后的令牌写入响应头
+     *
+     * @param response 响应
+     * @param token    新令牌
+     * @param maxAge   新令牌的剩余有效期，单位毫秒，令牌自身带有过期时间，不单独写出
+     */
+    @Override
+    public void writeToken(final HttpServletResponse response, final String token, final long maxAge) {
+        response.setHeader(refreshHeader, token);
+    }
+
+    /**
+     * 浏览器不会自动附带 Authorization 请求头，无需防御跨站请求伪造
+     *
+     * @return false
+     */
+    @Override
+    public boolean isCsrfRequired() {
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.xumumi.resolver.impl;
+
+import com.xumumi.filter.constant.Path;
+import com.xumumi.resolver.TokenResolver;
+import com.xumumi.util.CookieUtils;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 从 cookie 中读取令牌，刷新后的令牌以 Set-Cookie 写回
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class CookieTokenResolver implements TokenResolver {
+    /**
+     * 令牌的 cookie 名
+     */
+    private final String tokenName;
+
+    /**
+     * 构造器
+     *
+     * @param name 令牌的 cookie 名
+     */
+    private CookieTokenResolver(final String name) {
+        tokenName = name;
+    }
+
+    /**
+     * {@link CookieTokenResolver} 生成器
+     *
+     * @param name 令牌的 cookie 名
+     * @return {@link CookieTokenResolver} 对象
+     */
+    public static CookieTokenResolver createTokenResolver(@NonNull final String name) {
+        return new CookieTokenResolver(name);
+    }
+
+    /**
+     * 直接扫描 Cookie 请求头读取令牌
+     *
+     * @param request 请求
+     * @return 令牌，请求未携带时返回 null
+     */
+    @Override
+    public String resolve(final HttpServletRequest request) {
+        return CookieUtils.getCookieValue(request, tokenName);
+    }
+
+    /**
+     * 以 Set-Cookie 写回刷新后的令牌，cookie 有效期与新令牌一致
+     *
+     * @param response 响应
+     * @param token    新令牌
+     * @param maxAge   新令牌的剩余有效期，单位毫秒
+     */
+    @Override
+    public void writeToken(final HttpServletResponse response, final String token, final long maxAge) {
+        response.addCookie(CookieUtils.generateCookie(tokenName, token, Path.ROOT, maxAge));
+    }
+}
@@ -0,0 +1,74 @@
+package com.xumumi.resolver.impl;
+
+import com.xumumi.resolver.TokenResolver;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 从自定义请求头中读取令牌，刷新后的令牌写入同名响应头
+ * 跨域调用时需在 Access-Control-Expose-Headers 中暴露该响应头
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class HeaderTokenResolver implements TokenResolver {
+    /**
+     * 令牌所在的请求头和响应头
+     */
+    private final String headerName;
+
+    /**
+     * 构造器
+     *
+     * @param name 请求头名
+     */
+    private HeaderTokenResolver(final String name) {
+        headerName = name;
+    }
+
+    /**
+     * {@link HeaderTokenResolver} 生成器
+     *
+     * @param name 请求头名
+     * @return {@link HeaderTokenResolver} 对象
+     */
+    public static HeaderTokenResolver createTokenResolver(@NonNull final String name) {
+        return new HeaderTokenResolver(name);
+    }
+
+    /**
+     * 读取请求头中的令牌
+     *
+     * @param request 请求
+     * @return 令牌，请求未携带时返回 null
+     */
+    @Override
+    public String resolve(final HttpServletRequest request) {
+        final String token = request.getHeader(headerName);
+        return null != token && !token.isEmpty() ? token : null;
+    }
+
+    /**
+     * 将刷新后的令牌写入同名响应头
+     *
+     * @param response 响应
+     * @param token    新令牌
+     * @param maxAge   新令牌的剩余有效期，单位毫秒，令牌自身带有过期时间，不单独写出
+     */
+    @Override
+    public void writeToken(final HttpServletResponse response, final String token, final long maxAge) {
+        response.setHeader(headerName, token);
+    }
+
+    /**
+     * 浏览器不会自动附带自定义请求头，无需防御跨站请求伪造
+     *
+     * @return false
+     */
+    @Override
+    public boolean isCsrfRequired() {
+        return false;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 令牌读取实现类包
+ */
+package com.xumumi.resolver.impl;
@@ -0,0 +1,4 @@
+/**
+ * 令牌读取类包
+ */
+package com.xumumi.resolver;
@@ -0,0 +1,76 @@
+package com.xumumi.revocation;
+
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.util.VerifiedToken;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 令牌吊销列表接口
+ * 以令牌标识 jti 记录已吊销的令牌，授权过滤器对每个请求调用 {@link #isRevoked(String)}，实现应保证该方法足够快且线程安全
+ * 吊销记录只需保留到令牌过期，过期后令牌本身已无法通过校验
+ *
+ * @author XUMUMI
+ * @see com.xumumi.revocation.impl.BloomTokenRevocation
+ * @since 1.9
+ */
+public interface TokenRevocation {
+    /**
+     * 吊销令牌
+     *
+     * @param tokenId   令牌标识 jti，为 null 时忽略
+     * @param expiresAt 令牌过期时刻，毫秒时间戳，记录在此之后自动失效
+     */
+    void revoke(final String tokenId, final long expiresAt);
+
+    /**
+     * 吊销已校验的令牌，比如注销时吊销请求携带的令牌
+     *
+     * @param token 已校验的令牌
+     */
+    default void revoke(@NonNull final VerifiedToken token) {
+        revoke(token.getTokenId(), token.getExpiresAt());
+    }
+
+    /**
+     * 吊销当前请求携带的令牌，用于注销接口
+     * 令牌由授权过滤器校验后保存在请求属性 {@link Parameter#VERIFIED_TOKEN_ATTRIBUTE} 中，无需再次读取和校验
+     * 令牌在本次请求中被刷新时，新令牌已通过响应写回，同样按 {@link Parameter#REFRESHED_TOKEN_ID_ATTRIBUTE} 吊销
+     * 响应式应用可从请求交换属性中读取同名属性后调用 {@link #revoke(VerifiedToken)} 和 {@link #revoke(String, long)}
+     * 注销地址不能跳过令牌处理，否则授权过滤器不会保存令牌，该方法返回 false 且不吊销任何令牌
+     * 开启 {@link com.xumumi.configure.config.AuthorizeConfig#setSkipPermitAll(boolean)} 时注销地址不能列为无需授权页面，
+     * 也不能列入 {@link com.xumumi.configure.config.AuthorizeConfig#setSkip(String...)}
+     *
+     * @param request 请求
+     * @return 请求是否携带有效的令牌
+     */
+    default boolean revokeCurrent(@NonNull final HttpServletRequest request) {
+        final Object token = request.getAttribute(Parameter.VERIFIED_TOKEN_ATTRIBUTE);
+        final boolean ret = token instanceof VerifiedToken;
+        if (ret) {
+            revoke((VerifiedToken) token);
+        }
+        final Object refreshedId = request.getAttribute(Parameter.REFRESHED_TOKEN_ID_ATTRIBUTE);
+        final Object refreshedExpiresAt = request.getAttribute(Parameter.REFRESHED_EXPIRES_AT_ATTRIBUTE);
+        if (refreshedId instanceof String && refreshedExpiresAt instanceof Long) {
+            revoke((String) refreshedId, (Long) refreshedExpiresAt);
+        }
+        return ret;
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param tokenId 令牌标识 jti，为 null 时返回 false
+     * @return 吊销布尔值
+     */
+    boolean isRevoked(final String tokenId);
+
+    /**
+     * 获取尚未过期的吊销记录数
+     *
+     * @return 记录数
+     */
+    int size();
+}
@@ -0,0 +1,209 @@
+package com.xumumi.revocation.impl;
+
+import com.xumumi.filter.constant.Number;
+import com.xumumi.revocation.TokenRevocation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 以布隆过滤器为快速路径的内存令牌吊销列表
+ * 查询先探测布隆过滤器，未命中即可确定令牌没有被吊销，全程不加锁也不分配对象；命中时再查精确表排除误判
+ * 吊销操作较少，串行执行，并在过期记录累积或记录数超出容量时重建布隆过滤器，重建后整体替换，查询不受影响
+ * 只在单个实例的内存中生效，多实例部署需自行同步吊销操作
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class BloomTokenRevocation implements TokenRevocation {
+    /**
+     * 每个令牌的探测次数
+     */
+    private static final int HASH_COUNT = 7;
+    /**
+     * 每条记录占用的位数，配合 7 次探测误判率约为 1%
+     */
+    private static final int BITS_PER_ENTRY = 10;
+    /**
+     * 第一个哈希的初始值和乘数，即 64 位 FNV-1a 的参数
+     */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    /**
+     * 第二个哈希的初始值和乘数，与第一个哈希互相独立
+     */
+    private static final long POLY_SEED = 0x243F6A8885A308D3L;
+    private static final long POLY_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 令牌标识到过期时刻的精确表
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(Number.INITIAL_CAPACITY);
+    private final int expectedSize;
+    private volatile Bloom bloom;
+    private long nextPurge;
+
+    /**
+     * 构造器
+     *
+     * @param size 预计同时存在的吊销记录数
+     */
+    private BloomTokenRevocation(final int size) {
+        expectedSize = Math.max(size, Number.INITIAL_CAPACITY);
+        bloom = new Bloom(expectedSize);
+        nextPurge = System.currentTimeMillis() + Number.REVOCATION_PURGE_MILLISECONDS;
+    }
+
+    /**
+     * {@link TokenRevocation} 生成器，使用默认容量
+     *
+     * @return {@link TokenRevocation} 对象
+     */
+    public static TokenRevocation createTokenRevocation() {
+        return new BloomTokenRevocation(Number.REVOCATION_EXPECTED_SIZE);
+    }
+
+    /**
+     * {@link TokenRevocation} 生成器
+     *
+     * @param size 预计同时存在的吊销记录数，超出后自动扩容
+     * @return {@link TokenRevocation} 对象
+     */
+    public static TokenRevocation createTokenRevocation(final int size) {
+        return new BloomTokenRevocation(size);
+    }
+
+    /**
+     * 吊销令牌，已过期的令牌不记录
+     *
+     * @param tokenId   令牌标识 jti，为 null 时忽略
+     * @param expiresAt 令牌过期时刻，毫秒时间戳，记录在此之后自动失效
+     */
+    @Override
+    public synchronized void revoke(final String tokenId, final long expiresAt) {
+        final long now = System.currentTimeMillis();
+        if (null != tokenId && expiresAt > now) {
+            revoked.merge(tokenId, expiresAt, Math::max);
+            if (now >= nextPurge || revoked.size() > bloom.capacity) {
+                purge(now);
+            } else {
+                bloom.add(tokenId);
+            }
+        }
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param tokenId 令牌标识 jti，为 null 时返回 false
+     * @return 吊销布尔值
+     */
+    @Override
+    public boolean isRevoked(final String tokenId) {
+        boolean ret = false;
+        /* 未吊销的令牌只需计算两次哈希和几次位运算 */
+        if (null != tokenId && bloom.mightContain(tokenId)) {
+            final Long expiresAt = revoked.get(tokenId);
+            ret = null != expiresAt && expiresAt > System.currentTimeMillis();
+        }
+        return ret;
+    }
+
+    /**
+     * 获取尚未清理的吊销记录数
+     *
+     * @return 记录数
+     */
+    @Override
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * 清理过期记录并按剩余记录重建布隆过滤器，调用方需持有锁
+     *
+     * @param now 当前时刻，毫秒时间戳
+     */
+    private void purge(final long now) {
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        final Bloom next = new Bloom(Math.max(expectedSize, revoked.size() * 2));
+        revoked.keySet().forEach(next::add);
+        bloom = next;
+        nextPurge = now + Number.REVOCATION_PURGE_MILLISECONDS;
+    }
+
+    /**
+     * 布隆过滤器，位数为 2 的幂，由完整令牌标识计算的两个独立 64 位哈希派生全部探测位置
+     * 不使用 {@link String#hashCode()}，其 32 位结果相同的令牌标识会探测完全相同的位置
+     */
+    private static final class Bloom {
+        private final AtomicLongArray bits;
+        private final int mask;
+        private final int capacity;
+
+        /**
+         * 构造器
+         *
+         * @param size 容量
+         */
+        Bloom(final int size) {
+            final int bitCount = Integer.highestOneBit(Math.max(size * BITS_PER_ENTRY - 1, Long.SIZE)) << 1;
+            bits = new AtomicLongArray(bitCount / Long.SIZE);
+            mask = bitCount - 1;
+            capacity = size;
+        }
+
+        /**
+         * 加入元素
+         *
+         * @param tokenId 令牌标识
+         */
+        void add(final String tokenId) {
+            final long step = hash(tokenId, POLY_SEED, POLY_MULTIPLIER) | 1L;
+            long index = hash(tokenId, FNV_OFFSET, FNV_PRIME);
+            for (int i = 0; i < HASH_COUNT; i++, index += step) {
+                final int bit = (int) index & mask;
+                bits.accumulateAndGet(bit >>> 6, 1L << bit, (a, b) -> a | b);
+            }
+        }
+
+        /**
+         * 判断元素是否可能存在
+         *
+         * @param tokenId 令牌标识
+         * @return 不存在时一定返回 false
+         */
+        boolean mightContain(final String tokenId) {
+            final long step = hash(tokenId, POLY_SEED, POLY_MULTIPLIER) | 1L;
+            long index = hash(tokenId, FNV_OFFSET, FNV_PRIME);
+            boolean ret = true;
+            for (int i = 0; ret && i < HASH_COUNT; i++, index += step) {
+                final int bit = (int) index & mask;
+                ret = 0L != (bits.get(bit >>> 6) & 1L << bit);
+            }
+            return ret;
+        }
+
+        /**
+         * 逐字符计算 64 位哈希，再扩散使高低位都均匀分布
+         *
+         * @param tokenId    令牌标识
+         * @param seed       初始值
+         * @param multiplier 每个字符的乘数，需为奇数
+         * @return 哈希值
+         */
+        private static long hash(final String tokenId, final long seed, final long multiplier) {
+            long h = seed;
+            for (int i = 0; i < tokenId.length(); i++) {
+                h = (h ^ tokenId.charAt(i)) * multiplier;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
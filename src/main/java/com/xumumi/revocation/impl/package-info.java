@@ -0,0 +1,4 @@
+/**
+ * 令牌吊销实现类包
+ */
+package com.xumumi.revocation.impl;
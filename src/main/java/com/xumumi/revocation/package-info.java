@@ -0,0 +1,4 @@
+/**
+ * 令牌吊销类包
+ */
+package com.xumumi.revocation;
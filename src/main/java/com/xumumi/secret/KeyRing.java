@@ -0,0 +1,139 @@
+package com.xumumi.secret;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 密钥环
+ * 包含一个用于签发的当前密钥和若干只用于校验的旧密钥，签发时在令牌头写入 kid，校验时按 kid 直接取得对应密钥
+ * 更换密钥后旧密钥在指定时长内仍可校验，使已签发的令牌可以正常使用到过期，不会因轮换导致所有用户重新登录
+ * 该类不可变，轮换会生成新的密钥环，可以安全地在线程之间共享和缓存
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class KeyRing {
+    /**
+     * 没有 kid 的密钥在表中使用的键
+     */
+    private static final String NO_ID = "";
+
+    private final SigningKey activeKey;
+    private final Map<String, Entry> keys;
+
+    /**
+     * 构造器
+     *
+     * @param activeKey 当前密钥
+     * @param keys      全部可用于校验的密钥
+     */
+    private KeyRing(final SigningKey activeKey, final Map<String, Entry> keys) {
+        this.activeKey = activeKey;
+        this.keys = Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * 生成只包含一个密钥的密钥环
+     *
+     * @param key 当前密钥
+     * @return 密钥环
+     */
+    public static KeyRing of(@NonNull final SigningKey key) {
+        final Map<String, Entry> keys = new HashMap<>(2);
+        keys.put(idOf(key), new Entry(key, 0L));
+        return new KeyRing(key, keys);
+    }
+
+    /**
+     * 轮换密钥，新密钥用于之后的签发，原当前密钥在保留时长内只用于校验
+     *
+     * @param next        新密钥，应带有与现有密钥不同的标识
+     * @param retireAfter 原当前密钥的保留时长，单位毫秒，应不小于令牌的最长有效期
+     * @return 新的密钥环
+     */
+    public KeyRing rotate(@NonNull final SigningKey next, final long retireAfter) {
+        final long now = System.currentTimeMillis();
+        final Map<String, Entry> rotated = new HashMap<>(keys.size() + 2);
+        /* 丢弃已过保留期的旧密钥 */
+        keys.forEach((id, entry) -> {
+            if (!entry.isRetired(now)) {
+                rotated.put(id, entry);
+            }
+        });
+        rotated.put(idOf(activeKey), new Entry(activeKey, now + Math.max(0L, retireAfter)));
+        rotated.put(idOf(next), new Entry(next, 0L));
+        return new KeyRing(next, rotated);
+    }
+
+    /**
+     * 获取用于签发的当前密钥
+     *
+     * @return 当前密钥
+     */
+    public SigningKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * 按 kid 获取用于校验的密钥
+     * 没有 kid 的令牌优先使用没有标识的旧密钥，否则使用当前密钥，以兼容启用 kid 之前签发的令牌
+     *
+     * @param keyId 令牌头中的 kid，可为 null
+     * @return 密钥，找不到或已过保留期时返回 null
+     */
+    public SigningKey getKey(final String keyId) {
+        final Entry entry = keys.get(null == keyId ? NO_ID : keyId);
+        final SigningKey key;
+        if (null != entry && !entry.isRetired(System.currentTimeMillis())) {
+            key = entry.key;
+        } else if (null == keyId) {
+            key = activeKey;
+        } else {
+            key = null;
+        }
+        return key;
+    }
+
+    /**
+     * 获取密钥在表中使用的键
+     *
+     * @param key 密钥
+     * @return 键
+     */
+    private static String idOf(final SigningKey key) {
+        final String id = key.getId();
+        return null == id ? NO_ID : id;
+    }
+
+    /**
+     * 密钥及其停用时刻
+     */
+    private static final class Entry {
+        private final SigningKey key;
+        private final long retireAt;
+
+        /**
+         * 构造器
+         *
+         * @param key      密钥
+         * @param retireAt 停用时刻，毫秒时间戳，0 表示不停用
+         */
+        Entry(final SigningKey key, final long retireAt) {
+            this.key = key;
+            this.retireAt = retireAt;
+        }
+
+        /**
+         * 是否已停用
+         *
+         * @param now 当前时间
+         * @return 停用布尔值
+         */
+        boolean isRetired(final long now) {
+            return 0L != retireAt && retireAt <= now;
+        }
+    }
+}
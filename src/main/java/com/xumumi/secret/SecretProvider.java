@@ -0,0 +1,25 @@
+package com.xumumi.secret;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 密钥提供者接口
+ * 每个请求只调用一次，返回的密钥环同时用于校验和刷新令牌，校验按令牌的 kid 选取密钥，签发使用当前密钥
+ *
+ * @author XUMUMI
+ * @see com.xumumi.secret.impl.StaticSecretProvider
+ * @see com.xumumi.secret.impl.KeyStoreSecretProvider
+ * @see com.xumumi.secret.impl.TenantSecretProvider
+ * @see com.xumumi.secret.impl.CallbackSecretProvider
+ * @since 1.9
+ */
+@FunctionalInterface
+public interface SecretProvider {
+    /**
+     * 获取请求对应的密钥
+     *
+     * @param request 请求
+     * @return 密钥环，无法确定密钥时返回 null，此时请求视为未登录
+     */
+    KeyRing resolve(HttpServletRequest request);
+}
@@ -0,0 +1,135 @@
+package com.xumumi.secret;
+
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * 签名算法
+ * HMAC 算法签发和校验使用同一个密钥，所有校验令牌的节点都必须持有密钥
+ * ECDSA 和 RSA 算法使用私钥签发、公钥校验，只负责校验的节点可以只持有公钥
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public enum SigningAlgorithm {
+    /**
+     * HMAC SHA-256，默认算法
+     */
+    HS256(true),
+    /**
+     * HMAC SHA-512
+     */
+    HS512(true),
+    /**
+     * ECDSA P-256 SHA-256，签名短，签发快于 RSA
+     */
+    ES256(false),
+    /**
+     * RSA SHA-256，校验快于 ECDSA
+     */
+    RS256(false);
+
+    private final boolean symmetric;
+
+    /**
+     * 构造器
+     *
+     * @param symmetric 是否为对称算法
+     */
+    SigningAlgorithm(final boolean symmetric) {
+        this.symmetric = symmetric;
+    }
+
+    /**
+     * 是否为对称算法
+     *
+     * @return 对称布尔值
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * 使用字符串密钥生成 HMAC 密钥句柄
+     *
+     * @param id     密钥标识，可为 null
+     * @param secret 密钥
+     * @return 密钥句柄
+     * @throws IllegalStateException 非对称算法不能使用字符串密钥
+     */
+    public SigningKey createKey(final String id, @NonNull final String secret) {
+        return createKey(id, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 使用字节密钥生成 HMAC 密钥句柄
+     *
+     * @param id     密钥标识，可为 null
+     * @param secret 密钥
+     * @return 密钥句柄
+     * @throws IllegalStateException 非对称算法不能使用字节密钥
+     */
+    public SigningKey createKey(final String id, @NonNull final byte[] secret) {
+        final SigningKey key;
+        if (HS256 == this) {
+            key = SigningKey.hmac256(id, secret);
+        } else if (HS512 == this) {
+            key = SigningKey.hmac512(id, secret);
+        } else {
+            throw new IllegalStateException(name() + " requires a key pair");
+        }
+        return key;
+    }
+
+    /**
+     * 使用密钥对生成 ECDSA 或 RSA 密钥句柄
+     *
+     * @param id         密钥标识，可为 null
+     * @param publicKey  公钥
+     * @param privateKey 私钥，为 null 时密钥句柄只能校验
+     * @return 密钥句柄
+     * @throws IllegalStateException    对称算法不能使用密钥对
+     * @throws IllegalArgumentException 密钥类型与算法不符
+     */
+    public SigningKey createKey(final String id, @NonNull final PublicKey publicKey, final PrivateKey privateKey) {
+        final SigningKey key;
+        if (ES256 == this && publicKey instanceof ECPublicKey
+                && (null == privateKey || privateKey instanceof ECPrivateKey)) {
+            key = SigningKey.ecdsa256(id, (ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+        } else if (RS256 == this && publicKey instanceof RSAPublicKey
+                && (null == privateKey || privateKey instanceof RSAPrivateKey)) {
+            key = SigningKey.rsa256(id, (RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+        } else if (symmetric) {
+            throw new IllegalStateException(name() + " requires a secret");
+        } else {
+            throw new IllegalArgumentException(publicKey.getAlgorithm() + " key cannot be used with " + name());
+        }
+        return key;
+    }
+
+    /**
+     * 根据公钥类型选择算法
+     *
+     * @param publicKey 公钥
+     * @return 签名算法
+     * @throws IllegalArgumentException 不支持的密钥类型
+     */
+    public static SigningAlgorithm of(@NonNull final PublicKey publicKey) {
+        final SigningAlgorithm algorithm;
+        if (publicKey instanceof ECPublicKey) {
+            algorithm = ES256;
+        } else if (publicKey instanceof RSAPublicKey) {
+            algorithm = RS256;
+        } else {
+            throw new IllegalArgumentException("unsupported key type " + publicKey.getAlgorithm());
+        }
+        return algorithm;
+    }
+}
@@ -0,0 +1,167 @@
+package com.xumumi.secret;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.springframework.lang.NonNull;
+
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * 密钥句柄
+ * 在创建时完成密钥初始化并生成可复用的签名算法和校验器，之后每次签发和校验都直接使用，不再接触原始密钥
+ * 非对称密钥可以只提供公钥，此时密钥句柄只能校验，适用于不签发令牌的节点
+ * 该类不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class SigningKey {
+    private final String id;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final boolean signable;
+
+    /**
+     * 构造器
+     *
+     * @param id        密钥标识，可为 null
+     * @param algorithm 签名算法
+     * @param signable  是否可用于签发
+     */
+    private SigningKey(final String id, @NonNull final Algorithm algorithm, final boolean signable) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.signable = signable;
+        verifier = JWT.require(algorithm).build();
+    }
+
+    /**
+     * 构造器，生成可签发的密钥句柄
+     *
+     * @param id        密钥标识，可为 null
+     * @param algorithm 签名算法
+     */
+    private SigningKey(final String id, @NonNull final Algorithm algorithm) {
+        this(id, algorithm, true);
+    }
+
+    /**
+     * 使用已有的签名算法生成密钥句柄
+     *
+     * @param id        密钥标识，可为 null
+     * @param algorithm 签名算法
+     * @return 密钥句柄
+     */
+    public static SigningKey of(final String id, @NonNull final Algorithm algorithm) {
+        return new SigningKey(id, algorithm);
+    }
+
+    /**
+     * 使用字符串密钥生成 HMAC256 密钥句柄
+     *
+     * @param secret 密钥，建议长度至少为 256 个字符
+     * @return 密钥句柄
+     */
+    public static SigningKey hmac256(@NonNull final String secret) {
+        return new SigningKey(null, Algorithm.HMAC256(secret));
+    }
+
+    /**
+     * 使用字符串密钥生成带标识的 HMAC256 密钥句柄，标识作为 kid 写入令牌头，用于密钥轮换
+     *
+     * @param id     密钥标识，可为 null
+     * @param secret 密钥，建议长度至少为 256 个字符
+     * @return 密钥句柄
+     */
+    public static SigningKey hmac256(final String id, @NonNull final String secret) {
+        return new SigningKey(id, Algorithm.HMAC256(secret));
+    }
+
+    /**
+     * 使用字节密钥生成 HMAC256 密钥句柄
+     *
+     * @param id     密钥标识，可为 null
+     * @param secret 密钥
+     * @return 密钥句柄
+     */
+    public static SigningKey hmac256(final String id, @NonNull final byte[] secret) {
+        return new SigningKey(id, Algorithm.HMAC256(secret));
+    }
+
+    /**
+     * 使用字节密钥生成 HMAC512 密钥句柄
+     *
+     * @param id     密钥标识，可为 null
+     * @param secret 密钥，建议长度至少为 64 字节
+     * @return 密钥句柄
+     */
+    public static SigningKey hmac512(final String id, @NonNull final byte[] secret) {
+        return new SigningKey(id, Algorithm.HMAC512(secret));
+    }
+
+    /**
+     * 使用 P-256 密钥对生成 ES256 密钥句柄
+     *
+     * @param id         密钥标识，可为 null
+     * @param publicKey  公钥
+     * @param privateKey 私钥，为 null 时只能校验
+     * @return 密钥句柄
+     */
+    public static SigningKey ecdsa256(final String id, @NonNull final ECPublicKey publicKey,
+                                      final ECPrivateKey privateKey) {
+        return new SigningKey(id, Algorithm.ECDSA256(publicKey, privateKey), null != privateKey);
+    }
+
+    /**
+     * 使用 RSA 密钥对生成 RS256 密钥句柄
+     *
+     * @param id         密钥标识，可为 null
+     * @param publicKey  公钥
+     * @param privateKey 私钥，为 null 时只能校验
+     * @return 密钥句柄
+     */
+    public static SigningKey rsa256(final String id, @NonNull final RSAPublicKey publicKey,
+                                    final RSAPrivateKey privateKey) {
+        return new SigningKey(id, Algorithm.RSA256(publicKey, privateKey), null != privateKey);
+    }
+
+    /**
+     * 获取密钥标识，签发时作为 kid 写入令牌头
+     *
+     * @return 密钥标识，可能为 null
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取签名算法
+     *
+     * @return 签名算法
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 是否可用于签发，只有公钥的密钥句柄只能校验
+     *
+     * @return 可签发布尔值
+     */
+    public boolean isSignable() {
+        return signable;
+    }
+
+    /**
+     * 获取校验器，校验器线程安全，可被并发复用
+     *
+     * @return 校验器
+     */
+    public JWTVerifier getVerifier() {
+        return verifier;
+    }
+}
@@ -0,0 +1,89 @@
+package com.xumumi.secret.impl;
+
+import com.xumumi.filter.constant.Number;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.util.BoundedCache;
+import com.xumumi.util.JwtUtils;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.function.Function;
+
+/**
+ * 回调密钥提供者，兼容 {@link com.xumumi.configure.config.TokenConfig#setSecretCallback(Function)}
+ * 回调返回的字符串密钥缓存为只含一个密钥的密钥环，HS256 算法与 {@link JwtUtils#getKeyRing(String)} 共用缓存
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class CallbackSecretProvider implements SecretProvider {
+    private final Function<? super HttpServletRequest, String> secretCallback;
+    private final SigningAlgorithm algorithm;
+    private final BoundedCache<String, KeyRing> cache;
+
+    /**
+     * 构造器
+     *
+     * @param secret    根据请求返回字符串密钥的回调函数
+     * @param algorithm HMAC 签名算法
+     */
+    private CallbackSecretProvider(@NonNull final Function<? super HttpServletRequest, String> secret,
+                                   @NonNull final SigningAlgorithm algorithm) {
+        if (!algorithm.isSymmetric()) {
+            throw new IllegalArgumentException(algorithm + " requires a key pair, use a SecretProvider instead");
+        }
+        secretCallback = secret;
+        this.algorithm = algorithm;
+        cache = SigningAlgorithm.HS256 == algorithm ? JwtUtils.getKeyCache() :
+                new BoundedCache<>(Number.KEY_CACHE_SIZE, Number.ONE_HOUR_MILLISECONDS);
+    }
+
+    /**
+     * {@link SecretProvider} 生成器，使用 HS256 算法
+     *
+     * @param secret 根据请求返回字符串密钥的回调函数
+     * @return {@link SecretProvider} 对象
+     */
+    public static SecretProvider createSecretProvider(
+            @NonNull final Function<? super HttpServletRequest, String> secret) {
+        return new CallbackSecretProvider(secret, SigningAlgorithm.HS256);
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param secret    根据请求返回字符串密钥的回调函数
+     * @param algorithm HMAC 签名算法，字符串密钥不能用于非对称算法
+     * @return {@link SecretProvider} 对象
+     * @throws IllegalArgumentException 算法不是 HMAC 算法
+     */
+    public static SecretProvider createSecretProvider(
+            @NonNull final Function<? super HttpServletRequest, String> secret,
+            @NonNull final SigningAlgorithm algorithm) {
+        return new CallbackSecretProvider(secret, algorithm);
+    }
+
+    /**
+     * 获取请求对应的密钥
+     *
+     * @param request 请求
+     * @return 密钥环，回调返回 null 时返回 null
+     */
+    @Override
+    public KeyRing resolve(final HttpServletRequest request) {
+        final String secret = secretCallback.apply(request);
+        return null != secret ? cache.computeIfAbsent(secret, this::load) : null;
+    }
+
+    /**
+     * 生成字符串密钥对应的密钥环
+     *
+     * @param secret 字符串密钥
+     * @return 密钥环
+     */
+    private KeyRing load(final String secret) {
+        return KeyRing.of(algorithm.createKey(null, secret));
+    }
+}
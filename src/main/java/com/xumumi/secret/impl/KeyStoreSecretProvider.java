@@ -0,0 +1,112 @@
+package com.xumumi.secret.impl;
+
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningAlgorithm;
+import com.xumumi.secret.SigningKey;
+import org.springframework.lang.NonNull;
+
+import javax.crypto.SecretKey;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+
+/**
+ * 密钥库密钥提供者
+ * 在创建时从 PKCS12 或 JCEKS 密钥库文件中读取一次密钥，之后所有请求使用同一个密钥
+ * 对称密钥使用 HMAC 算法，EC 和 RSA 私钥条目分别使用 ES256 和 RS256 算法，只有证书的条目生成只能校验的密钥
+ * 别名作为 kid 写入令牌，轮换时可将新别名的密钥通过 {@link KeyRing#rotate(SigningKey, long)} 交给 {@link StaticSecretProvider}
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class KeyStoreSecretProvider implements SecretProvider {
+    private final KeyRing keyRing;
+
+    /**
+     * 构造器
+     *
+     * @param signingKey 密钥句柄
+     */
+    private KeyStoreSecretProvider(final SigningKey signingKey) {
+        keyRing = KeyRing.of(signingKey);
+    }
+
+    /**
+     * {@link SecretProvider} 生成器，对称密钥使用 HS256 算法
+     *
+     * @param file          密钥库文件
+     * @param type          密钥库类型，比如 PKCS12 或 JCEKS
+     * @param storePassword 密钥库密码
+     * @param alias         密钥别名，同时作为密钥标识
+     * @param keyPassword   密钥密码，只有证书的条目可为 null
+     * @return {@link SecretProvider} 对象
+     * @throws IOException              读取文件失败
+     * @throws GeneralSecurityException 密钥库格式错误、密码错误或别名对应的密钥类型不受支持
+     */
+    public static SecretProvider createSecretProvider(@NonNull final Path file, @NonNull final String type,
+                                                      final char[] storePassword, @NonNull final String alias,
+                                                      final char[] keyPassword)
+            throws IOException, GeneralSecurityException {
+        return createSecretProvider(file, type, storePassword, alias, keyPassword, SigningAlgorithm.HS256);
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param file          密钥库文件
+     * @param type          密钥库类型，比如 PKCS12 或 JCEKS
+     * @param storePassword 密钥库密码
+     * @param alias         密钥别名，同时作为密钥标识
+     * @param keyPassword   密钥密码，只有证书的条目可为 null
+     * @param hmac          对称密钥使用的 HMAC 算法，非对称密钥按密钥类型选择算法
+     * @return {@link SecretProvider} 对象
+     * @throws IOException              读取文件失败
+     * @throws GeneralSecurityException 密钥库格式错误、密码错误或别名对应的密钥类型不受支持
+     */
+    public static SecretProvider createSecretProvider(@NonNull final Path file, @NonNull final String type,
+                                                      final char[] storePassword, @NonNull final String alias,
+                                                      final char[] keyPassword,
+                                                      @NonNull final SigningAlgorithm hmac)
+            throws IOException, GeneralSecurityException {
+        final KeyStore keyStore = KeyStore.getInstance(type);
+        try (final InputStream in = Files.newInputStream(file)) {
+            keyStore.load(in, storePassword);
+        }
+        /* 只有证书的条目返回 null */
+        final Key stored = keyStore.getKey(alias, keyPassword);
+        final Certificate certificate = keyStore.getCertificate(alias);
+        final SigningKey key;
+        try {
+            if (stored instanceof SecretKey) {
+                key = hmac.createKey(alias, stored.getEncoded());
+            } else if (null != certificate && (null == stored || stored instanceof PrivateKey)) {
+                key = SigningAlgorithm.of(certificate.getPublicKey())
+                        .createKey(alias, certificate.getPublicKey(), (PrivateKey) stored);
+            } else {
+                throw new GeneralSecurityException("no usable key found for alias " + alias);
+            }
+        } catch (final IllegalArgumentException | IllegalStateException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+        return new KeyStoreSecretProvider(key);
+    }
+
+    /**
+     * 获取请求对应的密钥
+     *
+     * @param request 请求
+     * @return 固定的密钥环
+     */
+    @Override
+    public KeyRing resolve(final HttpServletRequest request) {
+        return keyRing;
+    }
+}
@@ -0,0 +1,79 @@
+package com.xumumi.secret.impl;
+
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningKey;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 固定密钥提供者，所有请求使用同一个密钥环
+ * 可在运行时轮换密钥，轮换后新令牌使用新密钥签发，旧令牌在保留期内仍按 kid 使用旧密钥校验
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class StaticSecretProvider implements SecretProvider {
+    private volatile KeyRing keyRing;
+
+    /**
+     * 构造器
+     *
+     * @param ring 密钥环
+     */
+    private StaticSecretProvider(@NonNull final KeyRing ring) {
+        keyRing = ring;
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param secret 密钥，建议长度至少为 256 个字符
+     * @return {@link SecretProvider} 对象
+     */
+    public static StaticSecretProvider createSecretProvider(@NonNull final String secret) {
+        return new StaticSecretProvider(KeyRing.of(SigningKey.hmac256(secret)));
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param signingKey 密钥句柄
+     * @return {@link SecretProvider} 对象
+     */
+    public static StaticSecretProvider createSecretProvider(@NonNull final SigningKey signingKey) {
+        return new StaticSecretProvider(KeyRing.of(signingKey));
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param ring 密钥环
+     * @return {@link SecretProvider} 对象
+     */
+    public static StaticSecretProvider createSecretProvider(@NonNull final KeyRing ring) {
+        return new StaticSecretProvider(ring);
+    }
+
+    /**
+     * 轮换密钥
+     *
+     * @param next        新密钥，应带有与现有密钥不同的标识
+     * @param retireAfter 原密钥的保留时长，单位毫秒，应不小于令牌的最长有效期
+     */
+    public synchronized void rotate(@NonNull final SigningKey next, final long retireAfter) {
+        keyRing = keyRing.rotate(next, retireAfter);
+    }
+
+    /**
+     * 获取请求对应的密钥
+     *
+     * @param request 请求
+     * @return 固定的密钥环
+     */
+    @Override
+    public KeyRing resolve(final HttpServletRequest request) {
+        return keyRing;
+    }
+}
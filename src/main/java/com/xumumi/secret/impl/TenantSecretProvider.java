@@ -0,0 +1,146 @@
+package com.xumumi.secret.impl;
+
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SecretProvider;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.util.BoundedCache;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 多租户密钥提供者
+ * 先从请求中取得租户标识，再按租户查找密钥，查找结果以有界 LRU 缓存保存，查找函数只在缓存未命中时于缓存之外调用，
+ * 同一租户并发未命中时可能调用多次，使用先写入缓存的结果
+ * 轮换过的租户密钥环单独保存且不会淘汰，优先于查找函数使用，避免缓存淘汰后丢失带标识的密钥
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class TenantSecretProvider implements SecretProvider {
+    private final Function<? super HttpServletRequest, String> tenantCallback;
+    private final Function<? super String, String> secretCallback;
+    private final BoundedCache<String, KeyRing> cache;
+    /**
+     * 轮换过的租户密钥环，不受缓存容量和存活时长影响
+     */
+    private final Map<String, KeyRing> rotated = new ConcurrentHashMap<>();
+
+    /**
+     * 构造器
+     *
+     * @param tenant      从请求中取得租户标识的回调函数，比如读取请求头或域名，不应进行网络查询
+     * @param secret      根据租户标识查找字符串密钥的回调函数，找不到时返回 null
+     * @param maximumSize 缓存的最大租户数
+     * @param expireTime  缓存的存活时长，单位毫秒，0 表示不过期
+     */
+    private TenantSecretProvider(@NonNull final Function<? super HttpServletRequest, String> tenant,
+                                 @NonNull final Function<? super String, String> secret,
+                                 final int maximumSize, final long expireTime) {
+        tenantCallback = tenant;
+        secretCallback = secret;
+        cache = new BoundedCache<>(maximumSize, expireTime);
+    }
+
+    /**
+     * {@link SecretProvider} 生成器
+     *
+     * @param tenant      从请求中取得租户标识的回调函数，比如读取请求头或域名，不应进行网络查询
+     * @param secret      根据租户标识查找字符串密钥的回调函数，找不到时返回 null
+     * @param maximumSize 缓存的最大租户数
+     * @param expireTime  缓存的存活时长，单位毫秒，0 表示不过期
+     * @return {@link SecretProvider} 对象
+     */
+    public static TenantSecretProvider createSecretProvider(
+            @NonNull final Function<? super HttpServletRequest, String> tenant,
+            @NonNull final Function<? super String, String> secret,
+            final int maximumSize, final long expireTime) {
+        return new TenantSecretProvider(tenant, secret, maximumSize, expireTime);
+    }
+
+    /**
+     * 获取请求对应的密钥
+     *
+     * @param request 请求
+     * @return 租户的密钥环，无法确定租户或找不到密钥时返回 null
+     */
+    @Override
+    public KeyRing resolve(final HttpServletRequest request) {
+        final String tenant = tenantCallback.apply(request);
+        KeyRing ring = null != tenant ? cache.get(tenant) : null;
+        /* 在缓存之外调用查找函数，查找期间不持有哈希桶锁，并发查找同一租户时使用先写入的结果 */
+        if (null == ring && null != tenant) {
+            ring = load(tenant);
+            if (null != ring) {
+                final KeyRing existing = cache.putIfAbsent(tenant, ring);
+                ring = null != existing ? existing : ring;
+            }
+        }
+        return ring;
+    }
+
+    /**
+     * 使租户的缓存失效，更换租户密钥后调用，不影响已轮换的密钥环
+     *
+     * @param tenant 租户标识
+     */
+    public void invalidate(final String tenant) {
+        cache.remove(tenant);
+    }
+
+    /**
+     * 移除租户的轮换状态，之后重新使用查找函数返回的密钥，以轮换密钥签发的令牌将无法验证
+     *
+     * @param tenant 租户标识
+     */
+    public synchronized void clearRotation(final String tenant) {
+        rotated.remove(tenant);
+        cache.remove(tenant);
+    }
+
+    /**
+     * 轮换租户密钥，租户尚未轮换过时以查找函数返回的密钥为基础
+     * 轮换结果单独保存，缓存淘汰、过期或调用 {@link #invalidate(String)} 后仍然有效
+     *
+     * @param tenant      租户标识
+     * @param next        新密钥，应带有与现有密钥不同的标识
+     * @param retireAfter 原密钥的保留时长，单位毫秒
+     */
+    public synchronized void rotate(@NonNull final String tenant, @NonNull final SigningKey next,
+                                    final long retireAfter) {
+        final KeyRing current = load(tenant);
+        final KeyRing ring = null != current ? current.rotate(next, retireAfter) : KeyRing.of(next);
+        rotated.put(tenant, ring);
+        cache.put(tenant, ring);
+    }
+
+    /**
+     * 获取租户密钥缓存，可用于读取命中率
+     *
+     * @return 缓存
+     */
+    public BoundedCache<String, KeyRing> getCache() {
+        return cache;
+    }
+
+    /**
+     * 查找租户密钥，已轮换的租户直接使用轮换后的密钥环
+     *
+     * @param tenant 租户标识
+     * @return 密钥环，找不到时返回 null
+     */
+    private KeyRing load(final String tenant) {
+        final KeyRing ring = rotated.get(tenant);
+        final KeyRing ret;
+        if (null != ring) {
+            ret = ring;
+        } else {
+            final String secret = secretCallback.apply(tenant);
+            ret = null != secret ? KeyRing.of(SigningKey.hmac256(secret)) : null;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 密钥提供者实现类包
+ */
+package com.xumumi.secret.impl;
\ No newline at end of file
@@ -0,0 +1,4 @@
+/**
+ * 密钥类包
+ */
+package com.xumumi.secret;
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.xumumi.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有界并发缓存
+ * 读操作无锁，超出容量时按 CLOCK（近似 LRU）策略淘汰，每个条目可单独指定过期时间
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class BoundedCache<K, V> {
+    /**
+     * 淘汰队列允许堆积的过期节点倍数
+     */
+    private static final int QUEUE_FACTOR = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final Queue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maximumSize;
+    private final long expireAfterWrite;
+
+    /* 统计 */
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 构造器
+     *
+     * @param maximumSize      最大条目数，必须大于 0
+     * @param expireAfterWrite 写入后的默认存活时长，单位毫秒，0 表示不过期
+     */
+    public BoundedCache(final int maximumSize, final long expireAfterWrite) {
+        if (0 >= maximumSize) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = Math.max(0L, expireAfterWrite);
+        map = new ConcurrentHashMap<>(Math.min(maximumSize, Integer.MAX_VALUE / QUEUE_FACTOR));
+    }
+
+    /**
+     * 读取缓存，过期条目视为不存在
+     *
+     * @param key 键
+     * @return 值，不存在时返回 null
+     */
+    public V get(final K key) {
+        final Node<K, V> node = map.get(key);
+        final V value;
+        if (null == node) {
+            value = null;
+        } else if (node.isExpired(System.currentTimeMillis())) {
+            map.remove(key, node);
+            value = null;
+        } else {
+            node.referenced = true;
+            value = node.value;
+        }
+        if (null == value) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 读取缓存，不存在时使用加载函数生成并写入，同一个键并发加载时只会执行一次
+     *
+     * @param key    键
+     * @param loader 加载函数，返回 null 时不写入
+     * @return 值
+     */
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (null == value) {
+            final long now = System.currentTimeMillis();
+            final Node<K, V> node = map.compute(key, (k, old) -> {
+                final Node<K, V> ret;
+                if (null != old && !old.isExpired(now)) {
+                    ret = old;
+                } else {
+                    final V loaded = loader.apply(k);
+                    ret = null == loaded ? null : newNode(k, loaded, defaultExpireAt(now));
+                }
+                return ret;
+            });
+            value = null == node ? null : node.value;
+            evictIfNeeded();
+        }
+        return value;
+    }
+
+    /**
+     * 键不存在时写入，使用默认存活时长，不调用加载函数，因此不会在持有哈希桶锁时执行耗时操作
+     *
+     * @param key   键
+     * @param value 值，不可为 null
+     * @return 已存在的值，写入成功时返回 null
+     */
+    public V putIfAbsent(final K key, final V value) {
+        final long now = System.currentTimeMillis();
+        final Node<K, V> created = new Node<>(key, value, defaultExpireAt(now));
+        final Node<K, V> current = map.compute(key, (k, old) -> null != old && !old.isExpired(now) ? old : created);
+        final V ret;
+        if (current == created) {
+            clock.offer(created);
+            clockSize.incrementAndGet();
+            missCount.increment();
+            evictIfNeeded();
+            ret = null;
+        } else {
+            current.referenced = true;
+            hitCount.increment();
+            ret = current.value;
+        }
+        return ret;
+    }
+
+    /**
+     * 写入缓存，使用默认存活时长
+     *
+     * @param key   键
+     * @param value 值，不可为 null
+     */
+    public void put(final K key, final V value) {
+        put(key, value, defaultExpireAt(System.currentTimeMillis()));
+    }
+
+    /**
+     * 写入缓存并指定过期时刻
+     *
+     * @param key      键
+     * @param value    值，不可为 null
+     * @param expireAt 过期时刻，毫秒时间戳，0 表示不过期
+     */
+    public void put(final K key, final V value, final long expireAt) {
+        map.put(key, newNode(key, value, expireAt));
+        evictIfNeeded();
+    }
+
+    /**
+     * 移除缓存
+     *
+     * @param key 键
+     */
+    public void remove(final K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 清空缓存，统计信息保留
+     */
+    public void clear() {
+        map.clear();
+        clock.clear();
+        clockSize.set(0);
+    }
+
+    /**
+     * 当前条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return 次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return 次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 因容量或过期被淘汰的条目数
+     *
+     * @return 条目数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率
+     *
+     * @return 0 到 1 之间的命中率，没有任何请求时为 0
+     */
+    public double getHitRate() {
+        final long hit = hitCount.sum();
+        final long total = hit + missCount.sum();
+        return 0L == total ? 0.0 : (double) hit / total;
+    }
+
+    /**
+     * 计算默认过期时刻
+     *
+     * @param now 当前时间
+     * @return 过期时刻
+     */
+    private long defaultExpireAt(final long now) {
+        return 0L == expireAfterWrite ? 0L : now + expireAfterWrite;
+    }
+
+    /**
+     * 生成节点并加入淘汰队列
+     *
+     * @param key      键
+     * @param value    值
+     * @param expireAt 过期时刻
+     * @return 节点
+     */
+    private Node<K, V> newNode(final K key, final V value, final long expireAt) {
+        final Node<K, V> node = new Node<>(key, value, expireAt);
+        clock.offer(node);
+        clockSize.incrementAndGet();
+        return node;
+    }
+
+    /**
+     * 超出容量时淘汰，同一时间只有一个线程执行淘汰，其余线程直接返回
+     */
+    private void evictIfNeeded() {
+        if (needEvict() && evicting.compareAndSet(false, true)) {
+            try {
+                final long now = System.currentTimeMillis();
+                /* 最多扫描两轮，保证被给予第二次机会的节点也能被淘汰 */
+                int budget = clockSize.get() * QUEUE_FACTOR;
+                while (needEvict() && 0 < budget--) {
+                    final Node<K, V> node = clock.poll();
+                    if (null == node) {
+                        break;
+                    }
+                    clockSize.decrementAndGet();
+                    /* 已被替换或移除的节点直接丢弃 */
+                    if (map.get(node.key) != node) {
+                        continue;
+                    }
+                    final boolean expired = node.isExpired(now);
+                    if (!expired && (map.size() <= maximumSize || node.referenced)) {
+                        /* 仅因队列堆积而扫描时保留存活节点，最近被访问过的节点给予第二次机会 */
+                        node.referenced = node.referenced && map.size() <= maximumSize;
+                        clock.offer(node);
+                        clockSize.incrementAndGet();
+                    } else if (map.remove(node.key, node)) {
+                        evictionCount.increment();
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * 是否需要淘汰
+     *
+     * @return 条目数超出上限或淘汰队列堆积过多时为真
+     */
+    private boolean needEvict() {
+        return map.size() > maximumSize || clockSize.get() > maximumSize * QUEUE_FACTOR;
+    }
+
+    /**
+     * 缓存节点
+     *
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long expireAt;
+        private volatile boolean referenced;
+
+        /**
+         * 构造器
+         *
+         * @param key      键
+         * @param value    值
+         * @param expireAt 过期时刻
+         */
+        Node(final K key, final V value, final long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        /**
+         * 是否过期
+         *
+         * @param now 当前时间
+         * @return 过期布尔值
+         */
+        boolean isExpired(final long now) {
+            return 0L != expireAt && expireAt <= now;
+        }
+    }
+}
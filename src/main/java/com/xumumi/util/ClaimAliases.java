@@ -0,0 +1,103 @@
+package com.xumumi.util;
+
+import com.xumumi.filter.constant.Number;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 附加信息字段名别名表，签发时将字段名替换为短别名，校验时再换回原字段名，以缩短每个请求都会携带的令牌
+ * 没有别名的字段保持原样，启用别名之前签发的令牌仍能正常读取
+ * 该类不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @see JwtUtils#sign(String, Map, long, com.xumumi.secret.KeyRing, ClaimAliases)
+ * @see JwtUtils#verify(String, com.xumumi.secret.KeyRing, com.xumumi.metrics.SecurityMetrics, ClaimAliases)
+ * @since 1.9
+ */
+public final class ClaimAliases {
+    /**
+     * 空别名表，字段名保持原样
+     */
+    public static final ClaimAliases NONE = new ClaimAliases(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, String> aliases;
+    private final Map<String, String> names;
+
+    /**
+     * 构造器
+     *
+     * @param aliases 字段名到别名
+     * @param names   别名到字段名
+     */
+    private ClaimAliases(final Map<String, String> aliases, final Map<String, String> names) {
+        this.aliases = aliases;
+        this.names = names;
+    }
+
+    /**
+     * {@link ClaimAliases} 生成器
+     *
+     * @param aliases 字段名到别名的映射，别名不能重复，不能是标准字段名，也不能与其他字段名相同，为 null 或空时返回 {@link #NONE}
+     * @return {@link ClaimAliases} 对象
+     * @throws IllegalArgumentException 别名冲突
+     */
+    public static ClaimAliases of(final Map<String, String> aliases) {
+        final ClaimAliases ret;
+        if (null == aliases || aliases.isEmpty()) {
+            ret = NONE;
+        } else {
+            final Map<String, String> forward = new HashMap<>(Number.INITIAL_CAPACITY);
+            final Map<String, String> backward = new HashMap<>(Number.INITIAL_CAPACITY);
+            aliases.forEach((name, alias) -> {
+                if (null == name || null == alias || alias.isEmpty()) {
+                    throw new IllegalArgumentException("字段名和别名不能为空");
+                }
+                if (JwtUtils.REGISTERED_CLAIMS.contains(name) || JwtUtils.REGISTERED_CLAIMS.contains(alias)) {
+                    throw new IllegalArgumentException("标准字段不能使用别名: " + name + " -> " + alias);
+                }
+                if (null != backward.putIfAbsent(alias, name)) {
+                    throw new IllegalArgumentException("别名重复: " + alias);
+                }
+                forward.put(name, alias);
+            });
+            for (final String alias : backward.keySet()) {
+                if (forward.containsKey(alias) && !alias.equals(forward.get(alias))) {
+                    throw new IllegalArgumentException("别名与其他字段名相同: " + alias);
+                }
+            }
+            ret = new ClaimAliases(Collections.unmodifiableMap(forward), Collections.unmodifiableMap(backward));
+        }
+        return ret;
+    }
+
+    /**
+     * 获取字段的别名
+     *
+     * @param name 字段名
+     * @return 别名，没有别名时返回字段名本身
+     */
+    public String toAlias(final String name) {
+        return aliases.getOrDefault(name, name);
+    }
+
+    /**
+     * 获取别名对应的字段名
+     *
+     * @param alias 别名
+     * @return 字段名，不是别名时返回其本身
+     */
+    public String toName(final String alias) {
+        return names.getOrDefault(alias, alias);
+    }
+
+    /**
+     * 判断是否为空别名表
+     *
+     * @return 空布尔值
+     */
+    public boolean isEmpty() {
+        return aliases.isEmpty();
+    }
+}
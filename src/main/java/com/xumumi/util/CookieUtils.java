@@ -1,9 +1,15 @@
 package com.xumumi.util;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
 import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.Enumeration;
 
 /**
- * cookie 生成工具
+ * cookie 生成与读取工具
  * @author XUMUMI
  * @since 1.9
  */
@@ -29,4 +35,102 @@ public enum CookieUtils {
         cookie.setMaxAge((int)(expiry / MULTIPLE));
         return cookie;
     }
+
+    /**
+     * 生成响应式响应使用的 cookie，属性与 {@link #generateCookie(String, String, String, long)} 一致
+     *
+     * @param cookieName cookie 名
+     * @param value cookie 内容
+     * @param uri 可见路径
+     * @param expiry 过期时间
+     * @return cookie
+     */
+    public static ResponseCookie generateResponseCookie(final String cookieName, final String value,
+                                                        final String uri, final long expiry) {
+        return ResponseCookie.from(cookieName, value).httpOnly(true).path(uri)
+                .maxAge(Duration.ofSeconds(expiry / MULTIPLE)).build();
+    }
+
+    /**
+     * 从请求的 Cookie 请求头中读取指定 cookie 的值
+     * 直接扫描原始请求头，不会让容器把所有 cookie 解析为 {@link Cookie} 数组，只为找到的值分配一个字符串
+     * 同名 cookie 返回第一个非空的值，HTTP/2 拆分为多个请求头时依次扫描
+     *
+     * @param request    请求
+     * @param cookieName cookie 名
+     * @return cookie 值，不存在或为空时返回 null
+     */
+    public static String getCookieValue(final HttpServletRequest request, final String cookieName) {
+        String ret = null;
+        final Enumeration<String> headers = request.getHeaders(HttpHeaders.COOKIE);
+        while (null == ret && null != headers && headers.hasMoreElements()) {
+            ret = getCookieValue(headers.nextElement(), cookieName);
+        }
+        return ret;
+    }
+
+    /**
+     * 从 Cookie 请求头的原始内容中读取指定 cookie 的值
+     * 按 RFC 6265 以分号分隔，名称区分大小写，值两侧的空白和双引号会被去除，空值视为不存在
+     *
+     * @param header     Cookie 请求头内容，可以为 null
+     * @param cookieName cookie 名
+     * @return cookie 值，不存在或为空时返回 null
+     */
+    public static String getCookieValue(final String header, final String cookieName) {
+        String ret = null;
+        final int length = null != header ? header.length() : 0;
+        final int nameLength = cookieName.length();
+        int start = 0;
+        while (null == ret && start < length) {
+            /* 跳过分隔符后的空白 */
+            while (start < length && isWhitespace(header.charAt(start))) {
+                start++;
+            }
+            int end = header.indexOf(';', start);
+            if (0 > end) {
+                end = length;
+            }
+            final int equals = start + nameLength;
+            if (equals < end && '=' == header.charAt(equals) && header.startsWith(cookieName, start)) {
+                ret = trimValue(header, equals + 1, end);
+            }
+            start = end + 1;
+        }
+        return ret;
+    }
+
+    /**
+     * 截取 cookie 值，去除两侧空白和双引号
+     *
+     * @param header 请求头内容
+     * @param from   起始位置
+     * @param to     结束位置，不包含
+     * @return cookie 值，为空时返回 null
+     */
+    private static String trimValue(final String header, final int from, final int to) {
+        int begin = from;
+        int end = to;
+        while (begin < end && isWhitespace(header.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && isWhitespace(header.charAt(end - 1))) {
+            end--;
+        }
+        if (1 < end - begin && '"' == header.charAt(begin) && '"' == header.charAt(end - 1)) {
+            begin++;
+            end--;
+        }
+        return begin < end ? header.substring(begin, end) : null;
+    }
+
+    /**
+     * 判断是否为 cookie 分隔空白
+     *
+     * @param c 字符
+     * @return 是否为空格或制表符
+     */
+    private static boolean isWhitespace(final char c) {
+        return ' ' == c || '\t' == c;
+    }
 }
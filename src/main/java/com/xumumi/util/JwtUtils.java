@@ -4,18 +4,28 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.xumumi.filter.constant.Number;
+import com.xumumi.metrics.FailureReason;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.metrics.impl.NoopSecurityMetrics;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
 import org.springframework.lang.NonNull;
 
-import java.util.Calendar;
+import java.nio.ByteBuffer;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * jwt 处理工具
@@ -26,6 +36,196 @@ import java.util.Map;
 public enum JwtUtils {
     /* 工具类 */;
 
+    /**
+     * 以字符串密钥为键的密钥环缓存，避免每次请求都重新初始化密钥和校验器
+     */
+    private static final BoundedCache<String, KeyRing> KEY_CACHE =
+            new BoundedCache<>(Number.KEY_CACHE_SIZE, Number.ONE_HOUR_MILLISECONDS);
+    /**
+     * 标准字段，由签发过程单独写入，不作为附加信息复制
+     */
+    static final Set<String> REGISTERED_CLAIMS = Set.of("iss", "sub", "aud", "exp", "nbf", "iat", "jti");
+    /**
+     * 令牌标识编码器
+     */
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * 获取字符串密钥对应的密钥环，只包含一个没有标识的密钥，优先从缓存读取
+     *
+     * @param secret 密钥，不可为 null
+     * @return 密钥环
+     */
+    public static KeyRing getKeyRing(@NonNull final String secret) {
+        return KEY_CACHE.computeIfAbsent(secret, s -> KeyRing.of(SigningKey.hmac256(s)));
+    }
+
+    /**
+     * 获取字符串密钥对应的密钥句柄，优先从缓存读取
+     *
+     * @param secret 密钥，不可为 null
+     * @return 密钥句柄
+     */
+    public static SigningKey getSigningKey(@NonNull final String secret) {
+        return getKeyRing(secret).getActiveKey();
+    }
+
+    /**
+     * 获取密钥对应的签名算法，优先从缓存读取
+     *
+     * @param secret 密钥，不可为 null
+     * @return 签名算法
+     */
+    public static Algorithm getAlgorithm(@NonNull final String secret) {
+        return getSigningKey(secret).getAlgorithm();
+    }
+
+    /**
+     * 获取密钥对应的校验器，优先从缓存读取
+     *
+     * @param secret 密钥，不可为 null
+     * @return 校验器
+     */
+    public static JWTVerifier getVerifier(@NonNull final String secret) {
+        return getSigningKey(secret).getVerifier();
+    }
+
+    /**
+     * 获取密钥环缓存，可用于读取命中统计或在更换密钥后清空
+     *
+     * @return 缓存
+     */
+    public static BoundedCache<String, KeyRing> getKeyCache() {
+        return KEY_CACHE;
+    }
+
+    /**
+     * 解析并校验令牌，签名和有效期只检查一次
+     *
+     * @param token  令牌
+     * @param secret 密钥
+     * @return 校验通过的令牌，无效时返回 null
+     */
+    public static VerifiedToken verify(final String token, final String secret) {
+        return null != secret ? verify(token, getKeyRing(secret)) : null;
+    }
+
+    /**
+     * 解析并校验令牌，签名和有效期只检查一次
+     *
+     * @param token 令牌
+     * @param key   密钥句柄
+     * @return 校验通过的令牌，无效时返回 null
+     */
+    public static VerifiedToken verify(final String token, final SigningKey key) {
+        VerifiedToken verified = null;
+        if (null != token && null != key) {
+            try {
+                verified = verify(JWT.decode(token), key, ClaimAliases.NONE);
+            } catch (final JWTVerificationException ignored) {
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * 解析并校验令牌，按令牌头的 kid 从密钥环中直接选取密钥，令牌只解析一次，签名只检查一次
+     * 没有 kid 的令牌使用当前密钥，kid 不在密钥环中或对应密钥已停用的令牌视为无效，不会逐个尝试其他密钥
+     *
+     * @param token   令牌
+     * @param keyRing 密钥环
+     * @return 校验通过的令牌，无效时返回 null
+     */
+    public static VerifiedToken verify(final String token, final KeyRing keyRing) {
+        return verify(token, keyRing, NoopSecurityMetrics.createSecurityMetrics());
+    }
+
+    /**
+     * 解析并校验令牌，校验失败时记录失败原因
+     *
+     * @param token   令牌
+     * @param keyRing 密钥环
+     * @param metrics 性能指标
+     * @return 校验通过的令牌，无效时返回 null
+     * @see #verify(String, KeyRing)
+     */
+    public static VerifiedToken verify(final String token, final KeyRing keyRing,
+                                       @NonNull final SecurityMetrics metrics) {
+        return verify(token, keyRing, metrics, ClaimAliases.NONE);
+    }
+
+    /**
+     * 解析并校验令牌，附加信息的别名换回原字段名，校验失败时记录失败原因
+     * 未携带令牌不是校验失败，不记录
+     *
+     * @param token   令牌
+     * @param keyRing 密钥环
+     * @param metrics 性能指标
+     * @param aliases 字段名别名表
+     * @return 校验通过的令牌，无效时返回 null
+     * @see #verify(String, KeyRing)
+     */
+    public static VerifiedToken verify(final String token, final KeyRing keyRing,
+                                       @NonNull final SecurityMetrics metrics, @NonNull final ClaimAliases aliases) {
+        VerifiedToken verified = null;
+        FailureReason reason = null;
+        if (null != token && null == keyRing) {
+            reason = FailureReason.NO_KEY;
+        } else if (null != token) {
+            try {
+                final DecodedJWT decode = JWT.decode(token);
+                final SigningKey key = keyRing.getKey(decode.getKeyId());
+                if (null == key) {
+                    reason = FailureReason.UNKNOWN_KEY;
+                } else {
+                    verified = verify(decode, key, aliases);
+                    reason = null == verified ? FailureReason.INVALID_CLAIM : null;
+                }
+            } catch (final TokenExpiredException e) {
+                reason = FailureReason.EXPIRED;
+            } catch (final SignatureVerificationException | AlgorithmMismatchException e) {
+                reason = FailureReason.SIGNATURE;
+            } catch (final JWTDecodeException e) {
+                reason = FailureReason.MALFORMED;
+            } catch (final JWTVerificationException e) {
+                reason = FailureReason.INVALID_CLAIM;
+            }
+        }
+        if (null != reason) {
+            metrics.recordVerifyFailure(reason);
+        }
+        return verified;
+    }
+
+    /**
+     * 校验已解析的令牌
+     *
+     * @param decode  已解析的令牌
+     * @param key     密钥句柄
+     * @param aliases 字段名别名表
+     * @return 校验通过的令牌，没有过期时间时返回 null
+     * @throws JWTVerificationException 签名错误或已过期
+     */
+    private static VerifiedToken verify(final DecodedJWT decode, final SigningKey key, final ClaimAliases aliases) {
+        VerifiedToken verified = null;
+        /* 校验器会同时检查签名和过期时间 */
+        key.getVerifier().verify(decode);
+        final Date expiresAt = decode.getExpiresAt();
+        if (null != expiresAt) {
+            final Map<String, String> claims = new HashMap<>(Number.INITIAL_CAPACITY);
+            decode.getClaims().forEach((name, claim) -> {
+                final String value = claim.asString();
+                if (!REGISTERED_CLAIMS.contains(name) && null != value) {
+                    claims.put(aliases.toName(name), value);
+                }
+            });
+            final Date issuedAt = decode.getIssuedAt();
+            verified = new VerifiedToken(decode.getToken(), decode.getSubject(), expiresAt.getTime(),
+                    null != issuedAt ? issuedAt.getTime() : 0L, decode.getId(), claims);
+        }
+        return verified;
+    }
+
     /**
      * 验证令牌是否有效
      *
@@ -34,17 +234,7 @@ public enum JwtUtils {
      * @return 有效布尔值
      */
     public static boolean isValid(final String token, final String secret) {
-        boolean result;
-        try {
-            final Algorithm algorithm = Algorithm.HMAC256(secret);
-            final String subject = getSubject(token);
-            final JWTVerifier build = JWT.require(algorithm).withSubject(subject).build();
-            build.verify(token);
-            result = noExpired(token);
-        } catch (final JWTVerificationException ignored) {
-            result = false;
-        }
-        return result;
+        return null != verify(token, secret);
     }
 
     /**
@@ -67,16 +257,23 @@ public enum JwtUtils {
      * @return 信息内容
      */
     public static String getClaimValue(final String token, final String secret, final String name) {
-        String claimValue = null;
-        if (null != token && null != name && isValid(token, secret)) {
-            try {
-                final DecodedJWT decode = JWT.decode(token);
-                final Claim claim = decode.getClaim(name);
-                claimValue = claim.asString();
-            } catch (final JWTDecodeException ignored) {
-            }
-        }
-        return claimValue;
+        return getClaimValue(token, secret, name, ClaimAliases.NONE);
+    }
+
+    /**
+     * 获取使用别名签发的令牌中的信息
+     *
+     * @param token   令牌
+     * @param secret  用于加密的密钥字符串
+     * @param name    信息的原字段名
+     * @param aliases 字段名别名表，需与签发时一致
+     * @return 信息内容
+     */
+    public static String getClaimValue(final String token, final String secret, final String name,
+                                       @NonNull final ClaimAliases aliases) {
+        final VerifiedToken verified = null != name && null != secret ?
+                verify(token, getKeyRing(secret), NoopSecurityMetrics.createSecurityMetrics(), aliases) : null;
+        return null != verified ? verified.getClaim(name) : null;
     }
 
     /**
@@ -90,53 +287,192 @@ public enum JwtUtils {
      */
     public static String sign(@NonNull final String subject, final Map<String, String> claims,
                               final long expireTime, @NonNull final String secret) {
-        String token;
-        try {
-            final JWTCreator.Builder jwt = JWT.create();
-            if (null != claims) {
-                claims.forEach(jwt::withClaim);
+        return sign(subject, claims, expireTime, getSigningKey(secret));
+    }
+
+    /**
+     * 使用密钥环的当前密钥签发令牌
+     *
+     * @param subject    主体，不可为 null
+     * @param claims     附加信息
+     * @param expireTime 令牌过期时间
+     * @param keyRing    密钥环，不可为 null
+     * @return token  令牌
+     */
+    public static String sign(@NonNull final String subject, final Map<String, String> claims,
+                              final long expireTime, @NonNull final KeyRing keyRing) {
+        return sign(subject, claims, expireTime, keyRing.getActiveKey(), ClaimAliases.NONE);
+    }
+
+    /**
+     * 使用密钥环的当前密钥签发令牌，附加信息使用别名
+     *
+     * @param subject    主体，不可为 null
+     * @param claims     附加信息
+     * @param expireTime 令牌过期时间
+     * @param keyRing    密钥环，不可为 null
+     * @param aliases    字段名别名表
+     * @return token  令牌
+     */
+    public static String sign(@NonNull final String subject, final Map<String, String> claims,
+                              final long expireTime, @NonNull final KeyRing keyRing,
+                              @NonNull final ClaimAliases aliases) {
+        return sign(subject, claims, expireTime, keyRing.getActiveKey(), aliases);
+    }
+
+    /**
+     * 签发令牌，密钥带有标识时写入令牌头的 kid，只能校验的密钥返回 null
+     * 每个令牌都带有随机的 jti，用于吊销单个令牌
+     *
+     * @param subject    主体，不可为 null
+     * @param claims     附加信息
+     * @param expireTime 令牌过期时间
+     * @param key        密钥句柄，不可为 null
+     * @return token  令牌
+     */
+    public static String sign(@NonNull final String subject, final Map<String, String> claims,
+                              final long expireTime, @NonNull final SigningKey key) {
+        return sign(subject, claims, expireTime, key, ClaimAliases.NONE);
+    }
+
+    /**
+     * 签发令牌，附加信息使用别名
+     *
+     * @param subject    主体，不可为 null
+     * @param claims     附加信息
+     * @param expireTime 令牌过期时间
+     * @param key        密钥句柄，不可为 null
+     * @param aliases    字段名别名表
+     * @return token  令牌
+     * @see #sign(String, Map, long, SigningKey)
+     */
+    public static String sign(@NonNull final String subject, final Map<String, String> claims,
+                              final long expireTime, @NonNull final SigningKey key,
+                              @NonNull final ClaimAliases aliases) {
+        return sign(subject, claims, expireTime, key, aliases, newTokenId(), System.currentTimeMillis());
+    }
+
+    /**
+     * 使用密钥环的当前密钥，以调用方给定的 jti 和签发时刻签发令牌，调用方无需解析新令牌即可得知其 jti 和过期时刻
+     * 令牌中的时刻精确到秒，过期时刻为签发时刻加有效期后舍去毫秒
+     *
+     * @param subject     主体，不可为 null
+     * @param claims      附加信息
+     * @param expireTime  令牌过期时间
+     * @param keyRing     密钥环，不可为 null
+     * @param aliases     字段名别名表
+     * @param tokenId     令牌标识，可由 {@link #newTokenId()} 生成
+     * @param currentTime 签发时刻，毫秒时间戳
+     * @return token  令牌
+     */
+    public static String sign(@NonNull final String subject, final Map<String, String> claims,
+                              final long expireTime, @NonNull final KeyRing keyRing,
+                              @NonNull final ClaimAliases aliases, @NonNull final String tokenId,
+                              final long currentTime) {
+        return sign(subject, claims, expireTime, keyRing.getActiveKey(), aliases, tokenId, currentTime);
+    }
+
+    /**
+     * 以给定的 jti 和签发时刻签发令牌
+     *
+     * @param subject     主体，不可为 null
+     * @param claims      附加信息
+     * @param expireTime  令牌过期时间
+     * @param key         密钥句柄，不可为 null
+     * @param aliases     字段名别名表
+     * @param tokenId     令牌标识
+     * @param currentTime 签发时刻，毫秒时间戳
+     * @return token  令牌
+     */
+    private static String sign(final String subject, final Map<String, String> claims, final long expireTime,
+                               final SigningKey key, final ClaimAliases aliases, final String tokenId,
+                               final long currentTime) {
+        String token = null;
+        if (key.isSignable()) {
+            try {
+                final JWTCreator.Builder jwt = JWT.create();
+                if (null != claims) {
+                    claims.forEach((name, value) -> jwt.withClaim(aliases.toAlias(name), value));
+                }
+                if (null != key.getId()) {
+                    jwt.withKeyId(key.getId());
+                }
+                token = jwt.withSubject(subject).withJWTId(tokenId).withIssuedAt(new Date(currentTime))
+                        .withExpiresAt(new Date(currentTime + expireTime)).sign(key.getAlgorithm());
+            } catch (final JWTCreationException ignored) {
             }
-            final long currentTime = System.currentTimeMillis();
-            final Algorithm algorithm = Algorithm.HMAC256(secret);
-            token = jwt.withSubject(subject).withExpiresAt(new Date(currentTime + expireTime)).sign(algorithm);
-        } catch (final JWTCreationException e) {
-            token = null;
         }
         return token;
     }
 
     /**
-     * 验证令牌是否过期
+     * 生成令牌标识，128 位随机数的 base64url 编码
+     * 令牌标识只用于区分令牌，不需要保密，令牌的完整性由签名保证
      *
-     * @param token 令牌
-     * @return 是否过期布尔值
+     * @return 令牌标识
      */
-    private static boolean noExpired(final String token) {
-        final Date now = Calendar.getInstance().getTime();
-        final DecodedJWT decode = JWT.decode(token);
-        final Date expiresAt = decode.getExpiresAt();
-        return !expiresAt.before(now);
+    public static String newTokenId() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 2);
+        buffer.putLong(random.nextLong()).putLong(random.nextLong());
+        return TOKEN_ID_ENCODER.encodeToString(buffer.array());
     }
 
     /**
-     * 刷新令牌，如果令牌无效则返回 null
+     * 刷新令牌，如果令牌无效或无需刷新则返回 null
      *
      * @param token          令牌
-     * @param expireDuration 剩余过期时长
+     * @param expireDuration 刷新阈值，剩余有效期小于该时长时刷新
      * @param secret         密钥
      * @return 新令牌
      */
     public static String refresh(final String token, final long expireDuration, @NonNull final String secret) {
+        return refresh(verify(token, secret), RefreshPolicy.DEFAULT.withThreshold(expireDuration),
+                getKeyRing(secret));
+    }
+
+    /**
+     * 按默认策略刷新已校验的令牌，剩余有效期不足时签发新令牌，否则返回 null
+     *
+     * @param verified       已校验的令牌
+     * @param expireDuration 刷新阈值，剩余有效期小于该时长时刷新
+     * @param key            密钥句柄
+     * @return 新令牌
+     * @see RefreshPolicy#DEFAULT
+     */
+    public static String refresh(final VerifiedToken verified, final long expireDuration,
+                                 @NonNull final SigningKey key) {
+        return refresh(verified, RefreshPolicy.DEFAULT.withThreshold(expireDuration), KeyRing.of(key));
+    }
+
+    /**
+     * 按刷新策略刷新已校验的令牌，使用密钥环的当前密钥签发，使旧密钥签发的令牌在刷新时迁移到新密钥
+     *
+     * @param verified 已校验的令牌
+     * @param policy   刷新策略
+     * @param keyRing  密钥环
+     * @return 新令牌，无需刷新时返回 null
+     */
+    public static String refresh(final VerifiedToken verified, @NonNull final RefreshPolicy policy,
+                                 @NonNull final KeyRing keyRing) {
+        return refresh(verified, policy, keyRing, ClaimAliases.NONE);
+    }
+
+    /**
+     * 按刷新策略刷新已校验的令牌，附加信息使用别名，使别名签发的令牌刷新后仍保持紧凑
+     *
+     * @param verified 已校验的令牌，需按同一别名表校验
+     * @param policy   刷新策略
+     * @param keyRing  密钥环
+     * @param aliases  字段名别名表
+     * @return 新令牌，无需刷新时返回 null
+     * @see #refresh(VerifiedToken, RefreshPolicy, KeyRing)
+     */
+    public static String refresh(final VerifiedToken verified, @NonNull final RefreshPolicy policy,
+                                 @NonNull final KeyRing keyRing, @NonNull final ClaimAliases aliases) {
         String ret = null;
-        if (null != token && isValid(token, secret)) {
-            final DecodedJWT decode = JWT.decode(token);
-            final long expireTime = decode.getExpiresAt().getTime();
-            final long currentTime = System.currentTimeMillis();
-            if ((expireTime - currentTime) < expireDuration) {
-                final Map<String, String> claims = new HashMap<>(Number.INITIAL_CAPACITY);
-                decode.getClaims().forEach((s, claim) -> claims.put(s, claim.asString()));
-                ret = sign(decode.getSubject(), claims, expireDuration, secret);
-            }
+        if (null != verified && policy.shouldRefresh(verified, System.currentTimeMillis())) {
+            ret = sign(verified.getSubject(), verified.getClaims(), policy.lifetimeOf(verified), keyRing, aliases);
         }
         return ret;
     }
@@ -0,0 +1,86 @@
+package com.xumumi.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 限制最大读取长度的输入流，读取超出限制时抛出异常，避免过大的请求内容占用内存
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class LimitedInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+    private boolean exceeded;
+
+    /**
+     * 构造器
+     *
+     * @param in    被包装的输入流
+     * @param limit 最多允许读取的字节数
+     */
+    public LimitedInputStream(final InputStream in, final long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    /**
+     * 是否因超出限制而中断读取
+     *
+     * @return 超出限制布尔值
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int ret = super.read();
+        if (-1 != ret) {
+            count(1L);
+        }
+        return ret;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        int ret = 0;
+        if (0 < len) {
+            /* 多读一个字节用于判断是否恰好超出限制 */
+            final int allowed = (int) Math.min(len, limit - count + 1L);
+            ret = super.read(b, off, Math.max(allowed, 1));
+            if (0 < ret) {
+                count(ret);
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long ret = 0L < n ? super.skip(Math.min(n, limit - count + 1L)) : 0L;
+        count(ret);
+        return ret;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * 累计读取长度
+     *
+     * @param read 本次读取的字节数
+     * @throws IOException 超出限制
+     */
+    private void count(final long read) throws IOException {
+        count += read;
+        if (count > limit) {
+            exceeded = true;
+            throw new IOException("input exceeds " + limit + " bytes");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.xumumi.util;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步登录线程池工具
+ * 普通线程池的线程数和队列长度均有上限，队列已满时提交会抛出 {@link RejectedExecutionException}
+ * 使用虚拟线程时每个登录各用一个虚拟线程，不排队，同时进行的登录数上限为最大线程数与队列容量之和，
+ * 即与普通线程池允许接收的登录数相同，查询用户等阻塞操作不再占用平台线程，超出上限时同样抛出 {@link RejectedExecutionException}
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public enum LoginExecutors {
+    /* 工具类 */;
+
+    /**
+     * 登录线程名前缀
+     */
+    private static final String THREAD_PREFIX = "xumumi-login-";
+    /**
+     * 空闲线程存活时长，单位秒
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * 生成有界登录线程池，空闲线程会自动回收，无需关闭
+     *
+     * @param threads   最大线程数，不大于 0 时使用处理器核数
+     * @param queueSize 等待队列容量
+     * @param virtual   是否为每个登录使用一个虚拟线程，运行环境不支持时使用守护线程池
+     * @return 线程池
+     */
+    public static ExecutorService createLoginExecutor(final int threads, final int queueSize, final boolean virtual) {
+        final int size = 0 < threads ? threads : Runtime.getRuntime().availableProcessors();
+        final int queue = Math.max(1, queueSize);
+        final ThreadFactory factory = virtual ? createVirtualThreadFactory() : null;
+        final ExecutorService ret;
+        if (null != factory) {
+            ret = new VirtualThreadExecutor(factory, size + queue);
+        } else {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), createDaemonThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            ret = executor;
+        }
+        return ret;
+    }
+
+    /**
+     * 生成守护线程工厂，不阻止应用退出
+     *
+     * @return 线程工厂
+     */
+    private static ThreadFactory createDaemonThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_PREFIX + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射生成虚拟线程工厂，编译目标版本不包含虚拟线程接口
+     *
+     * @return 线程工厂，运行环境不支持时返回 null
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        ThreadFactory ret;
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Method name = builderClass.getMethod("name", String.class, long.class);
+            final Object named = name.invoke(builder, THREAD_PREFIX, 1L);
+            ret = (ThreadFactory) builderClass.getMethod("factory").invoke(named);
+        } catch (final ReflectiveOperationException | ClassCastException e) {
+            ret = null;
+        }
+        return ret;
+    }
+
+    /**
+     * 虚拟线程执行器，每个任务一个虚拟线程，以信号量限制同时执行的任务数，没有等待队列
+     */
+    private static final class VirtualThreadExecutor extends AbstractExecutorService {
+        private final ThreadFactory factory;
+        private final Semaphore permits;
+        private final int maximum;
+        private volatile boolean shutdown;
+
+        /**
+         * 构造器
+         *
+         * @param factory 虚拟线程工厂
+         * @param maximum 同时执行的任务数上限
+         */
+        VirtualThreadExecutor(final ThreadFactory factory, final int maximum) {
+            this.factory = factory;
+            this.maximum = maximum;
+            permits = new Semaphore(maximum);
+        }
+
+        /**
+         * 在新的虚拟线程中执行任务
+         *
+         * @param command 任务
+         * @throws RejectedExecutionException 已关闭或同时执行的任务数已达上限时抛出
+         */
+        @Override
+        public void execute(final Runnable command) {
+            if (shutdown || !permits.tryAcquire()) {
+                throw new RejectedExecutionException("login executor saturated");
+            }
+            try {
+                factory.newThread(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                }).start();
+            } catch (final RuntimeException | Error e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && maximum == permits.availablePermits();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            final boolean idle = permits.tryAcquire(maximum, timeout, unit);
+            if (idle) {
+                permits.release(maximum);
+            }
+            return idle && shutdown;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.xumumi.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * 登录请求解析工具，servlet 和响应式登录过滤器共用
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public enum LoginRequestUtils {
+    /* 工具类 */;
+
+    /**
+     * 线程安全的 json 解析器工厂
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 从 json 请求内容中读取用户名和密码并生成登录令牌
+     * 用户名去除首尾空白并转义，缺少的字段视为空字符串，请求内容为空时用户名和密码均为 null
+     *
+     * @param body              请求内容输入流
+     * @param usernameParameter 用户字段名
+     * @param passwordParameter 密码字段名
+     * @return 用户令牌
+     * @throws IOException 读写异常或 json 格式错误
+     */
+    public static UsernamePasswordAuthenticationToken readAuthRequest(final InputStream body,
+                                                                      final String usernameParameter,
+                                                                      final String passwordParameter)
+            throws IOException {
+        String username = null, password = null;
+        final Credentials credentials = readCredentials(body, usernameParameter, passwordParameter);
+        if (null != credentials) {
+            /* 处理从 json 中得到的用户名和密码 */
+            username = Objects.requireNonNullElse(credentials.username, StringUtils.EMPTY);
+            username = username.trim();
+            username = HtmlUtils.htmlEscape(username);
+            password = Objects.requireNonNullElse(credentials.password, StringUtils.EMPTY);
+        }
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+
+    /**
+     * 以流的方式从 json 中只读取用户名和密码字段，其余字段直接跳过
+     *
+     * @param body              请求内容输入流
+     * @param usernameParameter 用户字段名
+     * @param passwordParameter 密码字段名
+     * @return 用户名和密码，缺少的字段为 null，请求内容为空时返回 null
+     * @throws IOException 读写异常或 json 格式错误
+     */
+    private static Credentials readCredentials(final InputStream body, final String usernameParameter,
+                                               final String passwordParameter) throws IOException {
+        Credentials credentials = null;
+        try (final JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (null != token) {
+                if (JsonToken.START_OBJECT != token) {
+                    throw new JsonParseException(parser, "登录请求内容必须为 json 对象");
+                }
+                credentials = new Credentials();
+            }
+            while (null != token && JsonToken.FIELD_NAME == (token = parser.nextToken())) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (!value.isScalarValue()) {
+                    parser.skipChildren();
+                } else if (usernameParameter.equals(field)) {
+                    credentials.username = parser.getValueAsString();
+                } else if (passwordParameter.equals(field)) {
+                    credentials.password = parser.getValueAsString();
+                }
+            }
+        }
+        return credentials;
+    }
+
+    /**
+     * 从登录请求中读取到的用户名和密码
+     */
+    private static final class Credentials {
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,115 @@
+package com.xumumi.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.xumumi.filter.constant.Number;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 登录响应序列化工具，servlet 和响应式登录过滤器共用，线程安全
+ * 默认成功响应 {@link LoginResult} 使用预先解析的序列化器，直接以 UTF-8 字节写入输出流，不经过中间字符串
+ * 默认失败响应只包含错误信息，相同错误信息的响应只序列化一次
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class LoginResponseSerializer {
+    /**
+     * 通用序列化器，用于自定义回调返回的对象，写入后不关闭输出流
+     */
+    private final ObjectWriter objectWriter;
+    /**
+     * 默认成功响应的序列化器
+     */
+    private final ObjectWriter resultWriter;
+    /**
+     * 以错误信息为键的失败响应缓存
+     */
+    private final BoundedCache<String, byte[]> failureBodies =
+            new BoundedCache<>(Number.FAILURE_BODY_CACHE_SIZE, 0L);
+
+    /**
+     * 构造器
+     */
+    private LoginResponseSerializer() {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        objectWriter = objectMapper.writer();
+        resultWriter = objectMapper.writerFor(LoginResult.class);
+    }
+
+    /**
+     * {@link LoginResponseSerializer} 生成器
+     *
+     * @return {@link LoginResponseSerializer} 对象
+     */
+    public static LoginResponseSerializer createLoginResponseSerializer() {
+        return new LoginResponseSerializer();
+    }
+
+    /**
+     * 将响应对象以 json 格式写入输出流
+     *
+     * @param out    输出流
+     * @param result 响应对象
+     * @throws IOException 读写异常
+     */
+    public void write(final OutputStream out, final Object result) throws IOException {
+        writerOf(result).writeValue(out, result);
+    }
+
+    /**
+     * 将响应对象序列化为 json 字节
+     *
+     * @param result 响应对象
+     * @return json 字节
+     * @throws JsonProcessingException 序列化异常
+     */
+    public byte[] toBytes(final Object result) throws JsonProcessingException {
+        return writerOf(result).writeValueAsBytes(result);
+    }
+
+    /**
+     * 获取默认失败响应，即错误信息的 json 字符串，返回的数组为共用的缓存，不得修改
+     *
+     * @param message 错误信息
+     * @return json 字节
+     */
+    public byte[] getFailureBody(final String message) {
+        /* 空信息无法作为缓存键，直接序列化 */
+        final byte[] ret = null != message ?
+                failureBodies.computeIfAbsent(message, this::serializeMessage) : serializeMessage(null);
+        return ret;
+    }
+
+    /**
+     * 选择序列化器，默认成功响应使用预先解析的序列化器
+     *
+     * @param result 响应对象
+     * @return 序列化器
+     */
+    private ObjectWriter writerOf(final Object result) {
+        return result instanceof LoginResult ? resultWriter : objectWriter;
+    }
+
+    /**
+     * 序列化错误信息
+     *
+     * @param message 错误信息
+     * @return json 字节
+     */
+    private byte[] serializeMessage(final String message) {
+        final byte[] ret;
+        try {
+            ret = objectWriter.writeValueAsBytes(message);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ret;
+    }
+}
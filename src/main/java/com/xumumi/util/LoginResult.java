@@ -0,0 +1,65 @@
+package com.xumumi.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 默认的登录成功响应内容，只包含用户名和角色
+ * 不再序列化整个 {@link Authentication}，响应中不会出现主体的其他字段和请求参数
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class LoginResult {
+    private final String name;
+    private final List<String> authorities;
+
+    /**
+     * 构造器
+     *
+     * @param name        用户名
+     * @param authorities 角色列表
+     */
+    private LoginResult(final String name, final List<String> authorities) {
+        this.name = name;
+        this.authorities = Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * {@link LoginResult} 生成器
+     *
+     * @param authResult 认证信息
+     * @return {@link LoginResult} 对象
+     */
+    public static LoginResult createLoginResult(final Authentication authResult) {
+        final Collection<? extends GrantedAuthority> granted = authResult.getAuthorities();
+        final List<String> authorities = new ArrayList<>(granted.size());
+        for (final GrantedAuthority authority : granted) {
+            authorities.add(authority.getAuthority());
+        }
+        return new LoginResult(authResult.getName(), authorities);
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取角色列表
+     *
+     * @return 角色列表，不可修改
+     */
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+}
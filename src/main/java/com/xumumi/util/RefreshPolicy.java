@@ -0,0 +1,144 @@
+package com.xumumi.util;
+
+import com.xumumi.filter.constant.Number;
+
+/**
+ * 令牌刷新策略
+ * 令牌剩余有效期小于刷新阈值时签发新令牌，新令牌的有效期独立于刷新阈值，刷新后的令牌不会立即再次落入刷新窗口
+ * 可选保留原令牌的有效期，使记住我令牌刷新后仍为原来的时长，同时可限制同一令牌两次签发之间的最小间隔
+ * 该类不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+public final class RefreshPolicy {
+    /**
+     * 默认策略，剩余 1 分钟时刷新，新令牌有效期 5 分钟，保留记住我的有效期
+     */
+    public static final RefreshPolicy DEFAULT = new RefreshPolicy(Number.ONE_MINUTES_MILLISECONDS,
+            Number.FIVE_MINUTES_MILLISECONDS, 0L, true);
+
+    private final long threshold;
+    private final long lifetime;
+    private final long minInterval;
+    private final boolean keepLifetime;
+
+    /**
+     * 构造器
+     *
+     * @param threshold    刷新阈值，剩余有效期小于该时长时刷新
+     * @param lifetime     新令牌的有效期
+     * @param minInterval  令牌签发后至少经过该时长才允许刷新
+     * @param keepLifetime 是否保留原令牌的有效期
+     */
+    private RefreshPolicy(final long threshold, final long lifetime, final long minInterval,
+                          final boolean keepLifetime) {
+        this.threshold = threshold;
+        this.lifetime = lifetime;
+        this.minInterval = minInterval;
+        this.keepLifetime = keepLifetime;
+    }
+
+    /**
+     * 修改刷新阈值
+     *
+     * @param duration 剩余时长，单位毫秒，不大于 0 时保持原值
+     * @return 新策略
+     */
+    public RefreshPolicy withThreshold(final long duration) {
+        return 0L < duration ? new RefreshPolicy(duration, lifetime, minInterval, keepLifetime) : this;
+    }
+
+    /**
+     * 修改新令牌的有效期，应大于刷新阈值，不足时签发按 {@link #lifetimeOf(VerifiedToken)} 的下限延长
+     *
+     * @param time 有效期，单位毫秒，不大于 0 时保持原值
+     * @return 新策略
+     */
+    public RefreshPolicy withLifetime(final long time) {
+        return 0L < time ? new RefreshPolicy(threshold, time, minInterval, keepLifetime) : this;
+    }
+
+    /**
+     * 修改两次签发之间的最小间隔
+     *
+     * @param interval 间隔，单位毫秒，0 表示不限制
+     * @return 新策略
+     */
+    public RefreshPolicy withMinInterval(final long interval) {
+        return new RefreshPolicy(threshold, lifetime, Math.max(0L, interval), keepLifetime);
+    }
+
+    /**
+     * 修改是否保留原令牌的有效期
+     *
+     * @param keep 为真时刷新后的令牌与原令牌有效期相同，记住我令牌保持记住我的时长
+     * @return 新策略
+     */
+    public RefreshPolicy withKeepLifetime(final boolean keep) {
+        return new RefreshPolicy(threshold, lifetime, minInterval, keep);
+    }
+
+    /**
+     * 是否需要刷新
+     *
+     * @param verified 已校验的令牌
+     * @param now      当前时间
+     * @return 剩余有效期小于刷新阈值且距上次签发不少于最小间隔时为真
+     */
+    public boolean shouldRefresh(final VerifiedToken verified, final long now) {
+        final long issuedAt = verified.getIssuedAt();
+        return verified.getExpiresAt() - now < threshold
+                && (0L == minInterval || 0L == issuedAt || now - issuedAt >= minInterval);
+    }
+
+    /**
+     * 计算刷新后令牌的有效期
+     * 有效期不小于刷新阈值加上刷新阈值与最小间隔中的较大者，使刷新后的令牌不会立即再次落入刷新窗口
+     *
+     * @param verified 已校验的令牌
+     * @return 有效期，单位毫秒
+     */
+    public long lifetimeOf(final VerifiedToken verified) {
+        final long issuedAt = verified.getIssuedAt();
+        final long original = 0L != issuedAt ? verified.getExpiresAt() - issuedAt : 0L;
+        final long time = keepLifetime && original > threshold ? original : lifetime;
+        return Math.max(time, threshold + Math.max(threshold, minInterval));
+    }
+
+    /**
+     * 获取刷新阈值
+     *
+     * @return 剩余时长
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 获取新令牌的有效期
+     *
+     * @return 有效期
+     */
+    public long getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * 获取两次签发之间的最小间隔
+     *
+     * @return 间隔
+     */
+    public long getMinInterval() {
+        return minInterval;
+    }
+
+    /**
+     * 是否保留原令牌的有效期
+     *
+     * @return 保留布尔值
+     */
+    public boolean isKeepLifetime() {
+        return keepLifetime;
+    }
+}
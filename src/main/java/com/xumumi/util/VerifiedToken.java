@@ -0,0 +1,106 @@
+package com.xumumi.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 已通过签名和有效期校验的令牌
+ * 令牌只在校验时解析一次，之后读取主体、角色、过期时间和附加信息都不再重复解析
+ * 该类不可变，可以安全地在线程之间共享
+ *
+ * @author XUMUMI
+ * @see JwtUtils#verify(String, String)
+ * @since 1.9
+ */
+public final class VerifiedToken {
+    private final String token;
+    private final String subject;
+    private final long expiresAt;
+    private final long issuedAt;
+    private final String tokenId;
+    private final Map<String, String> claims;
+
+    /**
+     * 构造器，仅由 {@link JwtUtils} 在校验通过后调用
+     *
+     * @param token     原始令牌
+     * @param subject   主体
+     * @param expiresAt 过期时刻，毫秒时间戳
+     * @param issuedAt  签发时刻，毫秒时间戳，令牌没有 iat 时为 0
+     * @param tokenId   令牌标识 jti，令牌没有 jti 时为 null
+     * @param claims    附加信息，不含 sub、exp 等标准字段
+     */
+    VerifiedToken(final String token, final String subject, final long expiresAt, final long issuedAt,
+                  final String tokenId, final Map<String, String> claims) {
+        this.token = token;
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+        this.issuedAt = issuedAt;
+        this.tokenId = tokenId;
+        this.claims = Collections.unmodifiableMap(claims);
+    }
+
+    /**
+     * 获取原始令牌
+     *
+     * @return 令牌
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 获取令牌主体
+     *
+     * @return 主体名
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * 获取过期时刻
+     *
+     * @return 毫秒时间戳
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 获取签发时刻
+     *
+     * @return 毫秒时间戳，令牌没有 iat 时为 0
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * 获取令牌标识，用于吊销令牌
+     *
+     * @return 令牌标识 jti，令牌没有 jti 时为 null
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * 获取附加信息，角色也作为附加信息存放
+     *
+     * @return 不可修改的附加信息表
+     */
+    public Map<String, String> getClaims() {
+        return claims;
+    }
+
+    /**
+     * 获取单个附加信息，比如使用角色字段名获取角色
+     *
+     * @param name 信息名
+     * @return 信息内容，不存在时返回 null
+     */
+    public String getClaim(final String name) {
+        return null == name ? null : claims.get(name);
+    }
+}
@@ -0,0 +1,122 @@
+package com.xumumi.authorize;
+
+import com.xumumi.filter.constant.Number;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link PathIndex} 与 Spring Security 按顺序逐条匹配的 {@link AntPathRequestMatcher} 的一致性测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class PathIndexTest {
+    /**
+     * 地址表，覆盖文字段、通配段、路径变量、**、开头和末尾的 /
+     */
+    private static final String[] PATTERNS = {
+            "/", "/*", "/api/*", "/api/*/", "/api/**", "/api/**/b", "/a/**/b", "/**/b", "/**/*.js", "/a/*/c",
+            "/a/*/c/", "/a/b", "/a/b/", "/a/{id}", "/a/{id:\\d+}", "/a/b?", "/**", "**", "/a/**/b/**", "/a/*/**",
+            "/a/**/x/**/b", "a/**", "a/*"
+    };
+    /**
+     * 路径表，不含连续的 /，该类路径会被 Spring Security 的防火墙拒绝
+     */
+    private static final String[] PATHS = {
+            "", "/", "/api", "/api/", "/api/x", "/api/x/", "/api/x/y", "/api/x/y/", "/api/b", "/api/x/b/", "/a", "/a/",
+            "/a/b", "/a/b/", "/a/x/b", "/a/x/b/", "/a/x/y/b", "/a/b/c", "/a/x/c", "/a/x/c/", "/a/12", "/a/bc", "/b",
+            "/b/", "/x/b", "/x.js", "/x/y.js/", "/a/x/q/x/b", "/a/x/b/y", "a", "a/", "a/b"
+    };
+    /**
+     * 同一层的路径变量兄弟节点数
+     */
+    private static final int VARIABLE_SIBLINGS = 32;
+
+    /**
+     * 每条地址单独与 {@link AntPathRequestMatcher} 比较
+     */
+    @Test
+    void matchesAntPathRequestMatcher() {
+        for (final String pattern : PATTERNS) {
+            final PathIndex index = PathIndex.createPathIndex(new String[]{pattern}, null, null);
+            final AntPathRequestMatcher matcher = new AntPathRequestMatcher(pattern);
+            for (final String path : PATHS) {
+                assertEquals(matcher.matches(request(path)), Access.PERMIT_ALL == index.match(path),
+                        () -> pattern + " -> " + path);
+            }
+        }
+    }
+
+    /**
+     * 多条规则同时匹配时与按顺序逐条匹配的结果相同
+     */
+    @Test
+    void matchesFirstDeclaredRule() {
+        final Map<String, String> roleRightsMap = new LinkedHashMap<>(PATTERNS.length);
+        for (int i = 0; i < PATTERNS.length; i++) {
+            roleRightsMap.put("ROLE" + i, PATTERNS[i]);
+        }
+        final PathIndex index = PathIndex.createPathIndex(null, null, roleRightsMap);
+        for (final String path : PATHS) {
+            String expected = Access.DENY_ALL.toString();
+            for (final Map.Entry<String, String> entry : roleRightsMap.entrySet()) {
+                if (new AntPathRequestMatcher(entry.getValue()).matches(request(path))) {
+                    expected = Access.hasAnyRole(entry.getKey()).toString();
+                    break;
+                }
+            }
+            assertEquals(expected, index.match(path).toString(), path);
+        }
+    }
+
+    /**
+     * 同一条地址含多个 ** 和大量路径变量兄弟节点时，剪枝后的结果仍与按顺序逐条匹配相同
+     */
+    @Test
+    void prunesWithoutChangingResult() {
+        final Map<String, String> roleRightsMap = new LinkedHashMap<>(Number.INITIAL_CAPACITY);
+        for (int i = 0; i < VARIABLE_SIBLINGS; i++) {
+            roleRightsMap.put("VAR" + i, "/{v" + i + "}/s" + i);
+        }
+        roleRightsMap.put("DIGITS", "/{id:\\d+}/s1");
+        roleRightsMap.put("DEEP", "/**/a/**/b/**/c");
+        roleRightsMap.put("TWO", "/a/**/b/**");
+        roleRightsMap.put("TAIL", "/**/c");
+        roleRightsMap.put("ALL", "/**");
+        final PathIndex index = PathIndex.createPathIndex(null, null, roleRightsMap);
+        final String[] paths = {
+                "/x/s0", "/x/s1", "/12/s1", "/x/s" + (VARIABLE_SIBLINGS - 1), "/x/s" + VARIABLE_SIBLINGS, "/a/b/c",
+                "/x/a/y/b/z/c", "/a/a/b/b/c/c", "/a/b/a/b/a/b/a/b/a/b/a/b/x", "/a/b/a/b/a/b/a/b/a/b/a/b/c",
+                "/q/a/q/b/q/a/q/b/q/a/q/b/q", "/c", "/a/b/", "/x/s0/"
+        };
+        for (final String path : paths) {
+            String expected = Access.DENY_ALL.toString();
+            for (final Map.Entry<String, String> entry : roleRightsMap.entrySet()) {
+                if (new AntPathRequestMatcher(entry.getValue()).matches(request(path))) {
+                    expected = Access.hasAnyRole(entry.getKey()).toString();
+                    break;
+                }
+            }
+            assertEquals(expected, index.match(path).toString(), path);
+        }
+    }
+
+    /**
+     * 生成只有请求路径的请求
+     *
+     * @param path 路径
+     * @return 请求
+     */
+    private static HttpServletRequest request(final String path) {
+        return (HttpServletRequest) Proxy.newProxyInstance(PathIndexTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getServletPath".equals(method.getName()) ? path : null);
+    }
+}
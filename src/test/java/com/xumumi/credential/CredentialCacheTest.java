@@ -0,0 +1,142 @@
+package com.xumumi.credential;
+
+import com.xumumi.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link CredentialCache} 命中、过期、失效和只缓存登录成功与密码错误的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class CredentialCacheTest {
+    /**
+     * 测试使用的用户名
+     */
+    private static final String USER = "user";
+    /**
+     * 正确的密码
+     */
+    private static final String PASSWORD = "right";
+    /**
+     * 认证管理器以 429 拒绝的密码，模拟登录并发隔离
+     */
+    private static final String THROTTLED = "throttled";
+    /**
+     * 缓存容量
+     */
+    private static final int SIZE = 16;
+    /**
+     * 登录成功结果缓存时长
+     */
+    private static final long SUCCESS_DURATION = 60000L;
+    /**
+     * 密码错误结果缓存时长
+     */
+    private static final long FAILURE_DURATION = 50L;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AuthenticationManager manager = request -> {
+        calls.incrementAndGet();
+        final Object credentials = request.getCredentials();
+        if (THROTTLED.equals(credentials)) {
+            throw new TooManyRequestsException("too many");
+        }
+        if (!PASSWORD.equals(credentials)) {
+            throw new BadCredentialsException("bad credentials");
+        }
+        return new UsernamePasswordAuthenticationToken(request.getName(), credentials,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    };
+    private final CredentialCache cache = CredentialCache.createCredentialCache(SIZE, SUCCESS_DURATION,
+            FAILURE_DURATION);
+
+    /**
+     * 登录成功后以相同凭据再次登录不再交给认证管理器，结果中不含密码
+     */
+    @Test
+    void skipsManagerOnHit() {
+        final Authentication first = cache.authenticate(request(USER, PASSWORD), manager);
+        final Authentication second = cache.authenticate(request(USER, PASSWORD), manager);
+        assertEquals(1, calls.get());
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertNull(second.getCredentials());
+    }
+
+    /**
+     * 密码错误的结果在较短的时间内命中，过期后重新认证
+     *
+     * @throws InterruptedException 等待中断
+     */
+    @Test
+    void expiresFailures() throws InterruptedException {
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, "wrong"), manager));
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, "wrong"), manager));
+        assertEquals(1, calls.get());
+        Thread.sleep(FAILURE_DURATION * 2);
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, "wrong"), manager));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * 失效后的用户重新认证，其他用户不受影响
+     */
+    @Test
+    void invalidatesUser() {
+        cache.authenticate(request(USER, PASSWORD), manager);
+        cache.authenticate(request("other", PASSWORD), manager);
+        cache.invalidate(USER);
+        cache.authenticate(request(USER, PASSWORD), manager);
+        assertEquals(3, calls.get());
+        cache.authenticate(request(USER, PASSWORD), manager);
+        cache.authenticate(request("other", PASSWORD), manager);
+        assertEquals(3, calls.get());
+    }
+
+    /**
+     * 同一用户名的其他密码不会命中登录成功的条目
+     */
+    @Test
+    void neverMatchesOtherPasswords() {
+        cache.authenticate(request(USER, PASSWORD), manager);
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, "wrong"), manager));
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, PASSWORD + " "), manager));
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(request(USER, ""), manager));
+        assertEquals(4, calls.get());
+    }
+
+    /**
+     * 密码错误以外的失败不缓存，比如登录并发隔离的 429
+     */
+    @Test
+    void skipsOtherFailures() {
+        assertThrows(TooManyRequestsException.class, () -> cache.authenticate(request(USER, THROTTLED), manager));
+        assertThrows(TooManyRequestsException.class, () -> cache.authenticate(request(USER, THROTTLED), manager));
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.getCache().size());
+    }
+
+    /**
+     * 生成登录请求
+     *
+     * @param username 用户名
+     * @param password 密码
+     * @return 登录请求
+     */
+    private static UsernamePasswordAuthenticationToken request(final String username, final String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
@@ -0,0 +1,135 @@
+package com.xumumi.filter.impl;
+
+import com.xumumi.function.RoleExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link CachedRoleExtractor} 查找和转换角色的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class CachedRoleExtractorTest {
+    /**
+     * 测试使用的角色字段名
+     */
+    private static final String ROLE = "role";
+
+    /**
+     * getter 优先于同名字段
+     */
+    @Test
+    void prefersGetter() {
+        final RoleExtractor extractor = CachedRoleExtractor.createRoleExtractor(ROLE);
+        assertEquals("GETTER", extractor.apply(new GetterPrincipal()));
+        assertEquals("FLAG", extractor.apply(new BooleanGetterPrincipal()));
+    }
+
+    /**
+     * 没有 getter 时读取本类或父类中的私有字段
+     */
+    @Test
+    void readsInheritedField() {
+        final RoleExtractor extractor = CachedRoleExtractor.createRoleExtractor(ROLE);
+        assertEquals("ADMIN", extractor.apply(new FieldPrincipal("ADMIN")));
+        assertEquals("USER", extractor.apply(new ChildPrincipal("USER")));
+        assertNull(extractor.apply(new ChildPrincipal(null)));
+    }
+
+    /**
+     * 集合和 {@link org.springframework.security.core.GrantedAuthority} 以逗号拼接，空集合视为没有角色
+     */
+    @Test
+    void joinsCollections() {
+        final RoleExtractor extractor = CachedRoleExtractor.createRoleExtractor(ROLE);
+        assertEquals("ADMIN,USER", extractor.apply(
+                new FieldPrincipal(Arrays.asList(new SimpleGrantedAuthority("ADMIN"), "USER", null))));
+        assertNull(extractor.apply(new FieldPrincipal(Collections.emptyList())));
+    }
+
+    /**
+     * 静态 getter 和静态字段不会导致异常，按类读取
+     */
+    @Test
+    void readsStaticMembers() {
+        final RoleExtractor extractor = CachedRoleExtractor.createRoleExtractor(ROLE);
+        assertEquals("STATIC_GETTER", extractor.apply(new StaticGetterPrincipal()));
+        assertEquals("STATIC_FIELD", extractor.apply(new StaticFieldPrincipal()));
+        assertEquals("STATIC_FIELD", extractor.apply(new StaticFieldPrincipal()));
+    }
+
+    /**
+     * 找不到角色或主体为 null 时返回 null
+     */
+    @Test
+    void returnsNullWhenMissing() {
+        final RoleExtractor extractor = CachedRoleExtractor.createRoleExtractor(ROLE);
+        assertNull(extractor.apply(null));
+        assertNull(extractor.apply(new Object()));
+        assertNull(extractor.apply("principal"));
+    }
+
+    /**
+     * 带 getter 的主体
+     */
+    public static final class GetterPrincipal {
+        private final String role = "FIELD";
+
+        public String getRole() {
+            return "GETTER";
+        }
+    }
+
+    /**
+     * 带 is 前缀 getter 的主体
+     */
+    public static final class BooleanGetterPrincipal {
+        public String isRole() {
+            return "FLAG";
+        }
+    }
+
+    /**
+     * 只有私有字段的主体
+     */
+    private static class FieldPrincipal {
+        private final Object role;
+
+        FieldPrincipal(final Object role) {
+            this.role = role;
+        }
+    }
+
+    /**
+     * 字段声明在父类中的主体
+     */
+    private static final class ChildPrincipal extends FieldPrincipal {
+        ChildPrincipal(final Object role) {
+            super(role);
+        }
+    }
+
+    /**
+     * 带静态 getter 的主体
+     */
+    public static final class StaticGetterPrincipal {
+        public static String getRole() {
+            return "STATIC_GETTER";
+        }
+    }
+
+    /**
+     * 带静态字段的主体
+     */
+    private static final class StaticFieldPrincipal {
+        private static final List<String> role = Collections.singletonList("STATIC_FIELD");
+    }
+}
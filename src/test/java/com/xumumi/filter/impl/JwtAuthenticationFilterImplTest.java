@@ -0,0 +1,241 @@
+package com.xumumi.filter.impl;
+
+import com.xumumi.filter.JwtAuthenticationFilter;
+import com.xumumi.filter.constant.Number;
+import com.xumumi.filter.constant.Parameter;
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.resolver.impl.BearerTokenResolver;
+import com.xumumi.revocation.TokenRevocation;
+import com.xumumi.revocation.impl.BloomTokenRevocation;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.secret.impl.StaticSecretProvider;
+import com.xumumi.util.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link JwtAuthenticationFilterImpl} 与注销吊销和跨站请求伪造防御配合的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class JwtAuthenticationFilterImplTest {
+    /**
+     * 注销地址，通常为无需授权页面
+     */
+    private static final String LOGOUT = "/logout";
+    /**
+     * 令牌有效期，大于默认刷新阈值，请求不会刷新令牌
+     */
+    private static final long LIFETIME = 600000L;
+    /**
+     * 令牌有效期，小于默认刷新阈值，请求会刷新令牌
+     */
+    private static final long NEAR_EXPIRY = 30000L;
+
+    private final KeyRing keyRing = KeyRing.of(SigningKey.hmac256("test-secret"));
+    private final TokenRevocation revocation = BloomTokenRevocation.createTokenRevocation();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 默认不跳过无需授权页面，注销地址能读取并吊销令牌，之后携带该令牌的请求视为未登录
+     *
+     * @throws Exception 过滤异常
+     */
+    @Test
+    void permitAllLogoutRevokesToken() throws Exception {
+        final JwtAuthenticationFilter filter = createFilter();
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), LIFETIME, keyRing);
+        assertTrue(logout(filter, token));
+        assertNull(authenticate(filter, token));
+    }
+
+    /**
+     * 注销地址被跳过时授权过滤器不保存令牌，无法吊销
+     *
+     * @throws Exception 过滤异常
+     */
+    @Test
+    void skippedLogoutRevokesNothing() throws Exception {
+        final JwtAuthenticationFilter filter = createFilter();
+        filter.setSkipMatcher(new AntPathRequestMatcher(LOGOUT));
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), LIFETIME, keyRing);
+        assertFalse(logout(filter, token));
+        filter.setSkipMatcher(null);
+        assertNotNull(authenticate(filter, token));
+    }
+
+    /**
+     * 跨站请求伪造防御只校验请求头令牌，不刷新也不写回，之后的过滤器使用同一校验结果，不再校验
+     *
+     * @throws Exception 过滤异常
+     */
+    @Test
+    void csrfExemptVerifiesOnceWithoutRefresh() throws Exception {
+        final AtomicInteger verifies = new AtomicInteger();
+        final JwtAuthenticationFilter filter = createFilter();
+        filter.setTokenResolvers(Collections.singletonList(BearerTokenResolver.createTokenResolver()));
+        filter.setMetrics(new SecurityMetrics() {
+            @Override
+            public void recordVerify(final long nanos) {
+                verifies.incrementAndGet();
+            }
+        });
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), NEAR_EXPIRY, keyRing);
+        final HttpServletRequest request = request("/user", token);
+        final Map<String, String> headers = new HashMap<>(Number.INITIAL_CAPACITY);
+        final HttpServletResponse response = response(headers);
+        assertTrue(filter.isCsrfExempt(request));
+        assertEquals(1, verifies.get());
+        assertNull(request.getAttribute(Parameter.REFRESHED_TOKEN_ID_ATTRIBUTE));
+        assertTrue(headers.isEmpty());
+        final AtomicReference<Authentication> ret = new AtomicReference<>();
+        filter.doFilter(request, response,
+                (req, res) -> ret.set(SecurityContextHolder.getContext().getAuthentication()));
+        assertNotNull(ret.get());
+        assertEquals(1, verifies.get());
+        assertNotNull(headers.get(Parameter.REFRESH_TOKEN_HEADER));
+        /* 无效的请求头令牌和 cookie 中的令牌都需要防御 */
+        assertFalse(filter.isCsrfExempt(request("/user", token + "x")));
+        filter.setTokenResolvers(null);
+        assertFalse(filter.isCsrfExempt(request("/user", token)));
+    }
+
+    /**
+     * 生成使用测试密钥和吊销列表的过滤器
+     *
+     * @return 过滤器
+     */
+    private JwtAuthenticationFilter createFilter() {
+        final JwtAuthenticationFilter filter = JwtAuthenticationFilterImpl.createJwtAuthenticationFilter(
+                StaticSecretProvider.createSecretProvider(keyRing));
+        filter.setTokenRevocation(revocation);
+        return filter;
+    }
+
+    /**
+     * 携带令牌请求注销地址，在过滤链中吊销当前令牌
+     *
+     * @param filter 过滤器
+     * @param token  令牌
+     * @return 是否吊销了令牌
+     * @throws Exception 过滤异常
+     */
+    private boolean logout(final JwtAuthenticationFilter filter, final String token) throws Exception {
+        final AtomicBoolean ret = new AtomicBoolean();
+        filter.doFilter(request(LOGOUT, token), response(),
+                (req, res) -> ret.set(revocation.revokeCurrent((HttpServletRequest) req)));
+        return ret.get();
+    }
+
+    /**
+     * 携带令牌请求其他地址
+     *
+     * @param filter 过滤器
+     * @param token  令牌
+     * @return 过滤链中的认证信息
+     * @throws Exception 过滤异常
+     */
+    private static Authentication authenticate(final JwtAuthenticationFilter filter, final String token)
+            throws Exception {
+        final AtomicReference<Authentication> ret = new AtomicReference<>();
+        filter.doFilter(request("/user", token), response(),
+                (req, res) -> ret.set(SecurityContextHolder.getContext().getAuthentication()));
+        return ret.get();
+    }
+
+    /**
+     * 生成带有令牌 cookie 的请求，支持读写请求属性
+     *
+     * @param path  路径
+     * @param token 令牌
+     * @return 请求
+     */
+    private static HttpServletRequest request(final String path, final String token) {
+        final Map<Object, Object> attributes = new HashMap<>(Number.INITIAL_CAPACITY);
+        return (HttpServletRequest) Proxy.newProxyInstance(JwtAuthenticationFilterImplTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    final Object ret;
+                    switch (method.getName()) {
+                        case "getServletPath":
+                        case "getRequestURI":
+                            ret = path;
+                            break;
+                        case "getHeaders":
+                            ret = Collections.enumeration(HttpHeaders.COOKIE.equals(args[0]) ?
+                                    Collections.singletonList(Parameter.TOKEN_NAME + "=" + token) :
+                                    Collections.emptyList());
+                            break;
+                        case "getHeader":
+                            ret = HttpHeaders.AUTHORIZATION.equals(args[0]) ? "Bearer " + token : null;
+                            break;
+                        case "getDispatcherType":
+                            ret = DispatcherType.REQUEST;
+                            break;
+                        case "getAttribute":
+                            ret = attributes.get(args[0]);
+                            break;
+                        case "setAttribute":
+                            ret = attributes.put(args[0], args[1]);
+                            break;
+                        case "removeAttribute":
+                            ret = attributes.remove(args[0]);
+                            break;
+                        default:
+                            ret = boolean.class == method.getReturnType() ? Boolean.FALSE : null;
+                    }
+                    return void.class == method.getReturnType() ? null : ret;
+                });
+    }
+
+    /**
+     * 生成不记录任何内容的响应
+     *
+     * @return 响应
+     */
+    private static HttpServletResponse response() {
+        return response(new HashMap<>(Number.INITIAL_CAPACITY));
+    }
+
+    /**
+     * 生成记录响应头的响应
+     *
+     * @param headers 记录响应头的表
+     * @return 响应
+     */
+    private static HttpServletResponse response(final Map<String, String> headers) {
+        return (HttpServletResponse) Proxy.newProxyInstance(JwtAuthenticationFilterImplTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    if ("setHeader".equals(method.getName())) {
+                        headers.put((String) args[0], (String) args[1]);
+                    }
+                    return boolean.class == method.getReturnType() ? Boolean.FALSE : null;
+                });
+    }
+}
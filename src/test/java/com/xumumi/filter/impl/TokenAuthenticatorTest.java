@@ -0,0 +1,141 @@
+package com.xumumi.filter.impl;
+
+import com.xumumi.metrics.SecurityMetrics;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TokenAuthenticator} 并发刷新只签发一次的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class TokenAuthenticatorTest {
+    /**
+     * 并发请求数
+     */
+    private static final int THREADS = 16;
+    /**
+     * 等待其他线程的最长时间，单位秒
+     */
+    private static final long TIMEOUT_SECONDS = 10L;
+    /**
+     * 旧令牌的有效期，小于默认的 1 分钟刷新阈值
+     */
+    private static final long NEAR_EXPIRY = 30000L;
+
+    private final KeyRing keyRing = KeyRing.of(SigningKey.hmac256("test-secret"));
+
+    /**
+     * 同一旧令牌的并发请求只签发一次，签发期间其余请求不刷新，签发完成后共用同一个新令牌
+     *
+     * @throws Exception 线程异常
+     */
+    @Test
+    void signsOnceForConcurrentRequests() throws Exception {
+        final CountDownLatch othersDone = new CountDownLatch(THREADS - 1);
+        final AtomicInteger signs = new AtomicInteger();
+        final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+        /* 签发的线程在记录指标时等待其余线程返回，保证它们都在签发完成前到达 */
+        authenticator.setMetrics(new SecurityMetrics() {
+            @Override
+            public void recordSign(final long nanos) {
+                signs.incrementAndGet();
+                try {
+                    othersDone.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), NEAR_EXPIRY, keyRing);
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<String>> futures = new ArrayList<>(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    final TokenAuthenticator.Result result = authenticator.authenticate(token, keyRing);
+                    assertNotNull(result.getAuthentication());
+                    final String refreshed = result.getRefreshedToken();
+                    if (null == refreshed) {
+                        othersDone.countDown();
+                    }
+                    return refreshed;
+                }));
+            }
+            final List<String> signed = new ArrayList<>(1);
+            for (final Future<String> future : futures) {
+                final String refreshed = future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (null != refreshed) {
+                    signed.add(refreshed);
+                }
+            }
+            assertEquals(1, signs.get());
+            assertEquals(1, signed.size());
+            /* 签发完成后到达的请求共用结果，不再签发 */
+            for (int i = 0; i < THREADS; i++) {
+                assertEquals(signed.get(0), authenticator.authenticate(token, keyRing).getRefreshedToken());
+            }
+            assertEquals(1, signs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 签发失败后移除未完成的结果，下一个请求重新签发
+     */
+    @Test
+    void retriesAfterFailedSign() {
+        final AtomicInteger signs = new AtomicInteger();
+        final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+        authenticator.setMetrics(new SecurityMetrics() {
+            @Override
+            public void recordSign(final long nanos) {
+                if (1 == signs.incrementAndGet()) {
+                    throw new IllegalStateException("sign failed");
+                }
+            }
+        });
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), NEAR_EXPIRY, keyRing);
+        assertThrows(IllegalStateException.class, () -> authenticator.authenticate(token, keyRing));
+        final String refreshed = authenticator.authenticate(token, keyRing).getRefreshedToken();
+        assertNotNull(refreshed);
+        assertEquals(2, signs.get());
+        assertEquals(refreshed, authenticator.authenticate(token, keyRing).getRefreshedToken());
+        assertEquals(2, signs.get());
+    }
+
+    /**
+     * 剩余有效期充足的令牌不刷新
+     */
+    @Test
+    void skipsFreshTokens() {
+        final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), NEAR_EXPIRY * 10, keyRing);
+        final TokenAuthenticator.Result result = authenticator.authenticate(token, keyRing);
+        assertTrue(null != result.getAuthentication() && "user".equals(result.getAuthentication().getName()));
+        assertNull(result.getRefreshedToken());
+    }
+}
@@ -0,0 +1,33 @@
+package com.xumumi.filter.reactive;
+
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.secret.impl.CallbackSecretProvider;
+import com.xumumi.secret.impl.StaticSecretProvider;
+import com.xumumi.secret.impl.TenantSecretProvider;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link ReactiveSecretProvider#of} 只接受与请求无关的密钥提供者的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class ReactiveSecretProviderTest {
+    /**
+     * 固定密钥提供者可以转换，按请求区分密钥的提供者在配置时拒绝
+     */
+    @Test
+    void rejectsRequestDependentProviders() {
+        final KeyRing keyRing = KeyRing.of(SigningKey.hmac256("test-secret"));
+        assertSame(keyRing, ReactiveSecretProvider.of(StaticSecretProvider.createSecretProvider(keyRing)).resolve(null));
+        assertThrows(IllegalArgumentException.class, () -> ReactiveSecretProvider.of(
+                CallbackSecretProvider.createSecretProvider(request -> request.getRemoteAddr())));
+        assertThrows(IllegalArgumentException.class, () -> ReactiveSecretProvider.of(
+                TenantSecretProvider.createSecretProvider(request -> request.getServerName(), tenant -> tenant,
+                        Short.SIZE, 0L)));
+    }
+}
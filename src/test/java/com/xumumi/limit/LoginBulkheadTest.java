@@ -0,0 +1,65 @@
+package com.xumumi.limit;
+
+import com.xumumi.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link LoginBulkhead} 总数上限、用户名上限和归还名额的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class LoginBulkheadTest {
+    /**
+     * 同时进行的登录总数上限
+     */
+    private static final int MAX_CONCURRENT = 2;
+
+    /**
+     * 超出总数上限时拒绝，归还名额后可以再次占用
+     */
+    @Test
+    void rejectsOverGlobalCap() {
+        final LoginBulkhead bulkhead = LoginBulkhead.createLoginBulkhead(MAX_CONCURRENT, 0);
+        bulkhead.acquire("a");
+        bulkhead.acquire("b");
+        assertThrows(TooManyRequestsException.class, () -> bulkhead.acquire("c"));
+        assertEquals(MAX_CONCURRENT, bulkhead.getInFlight());
+        bulkhead.release("a");
+        assertEquals(MAX_CONCURRENT - 1, bulkhead.getInFlight());
+        assertDoesNotThrow(() -> bulkhead.acquire("c"));
+        assertEquals(MAX_CONCURRENT, bulkhead.getInFlight());
+    }
+
+    /**
+     * 同一用户名超出上限时拒绝并退回已占用的总数名额，其他用户名不受影响
+     */
+    @Test
+    void rejectsOverPerUserCapAndRollsBack() {
+        final LoginBulkhead bulkhead = LoginBulkhead.createLoginBulkhead(MAX_CONCURRENT + 1, 1);
+        bulkhead.acquire("user");
+        assertThrows(TooManyRequestsException.class, () -> bulkhead.acquire("user"));
+        assertEquals(1, bulkhead.getInFlight());
+        assertDoesNotThrow(() -> bulkhead.acquire("other"));
+        assertEquals(MAX_CONCURRENT, bulkhead.getInFlight());
+        bulkhead.release("user");
+        assertDoesNotThrow(() -> bulkhead.acquire("user"));
+        assertEquals(MAX_CONCURRENT, bulkhead.getInFlight());
+    }
+
+    /**
+     * 上限不大于 0 时不限制，不限制总数时进行中的登录数恒为 0
+     */
+    @Test
+    void allowsAllWhenUnlimited() {
+        final LoginBulkhead bulkhead = LoginBulkhead.createLoginBulkhead(0, 0);
+        for (int i = 0; i <= MAX_CONCURRENT; i++) {
+            assertDoesNotThrow(() -> bulkhead.acquire("user"));
+        }
+        assertEquals(0, bulkhead.getInFlight());
+    }
+}
@@ -0,0 +1,92 @@
+package com.xumumi.limit;
+
+import com.xumumi.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link RateLimitGuard} 按客户端地址和用户名限流的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class RateLimitGuardTest {
+    /**
+     * 每个客户端地址在周期内允许的登录次数
+     */
+    private static final int CLIENT_PERMITS = 2;
+    /**
+     * 每个用户名在周期内允许的登录次数
+     */
+    private static final int USERNAME_PERMITS = 3;
+    /**
+     * 周期，单位毫秒，测试期间不会补充许可
+     */
+    private static final long PERIOD = 60000L;
+
+    /**
+     * 同一客户端地址超出次数时以 429 拒绝，其他地址不受影响
+     */
+    @Test
+    void limitsClientAddress() {
+        final RateLimitGuard guard = RateLimitGuard.createRateLimitGuard(CLIENT_PERMITS, 0, PERIOD);
+        for (int i = 0; i < CLIENT_PERMITS; i++) {
+            assertDoesNotThrow(() -> guard.apply(request("10.0.0.1")));
+        }
+        assertThrows(TooManyRequestsException.class, () -> guard.apply(request("10.0.0.1")));
+        assertDoesNotThrow(() -> guard.apply(request("10.0.0.2")));
+        /* 不按用户名限流 */
+        for (int i = 0; i <= USERNAME_PERMITS; i++) {
+            assertDoesNotThrow(() -> guard.applyUsername(request("10.0.0.3"), "user"));
+        }
+    }
+
+    /**
+     * 同一用户名超出次数时以 429 拒绝，用户名不区分大小写
+     */
+    @Test
+    void limitsUsernameIgnoringCase() {
+        final RateLimitGuard guard = RateLimitGuard.createRateLimitGuard(0, USERNAME_PERMITS, PERIOD);
+        for (int i = 0; i < USERNAME_PERMITS; i++) {
+            final String username = 0 == i % 2 ? "user" : "USER";
+            assertDoesNotThrow(() -> guard.applyUsername(request("10.0.0.1"), username));
+        }
+        assertThrows(TooManyRequestsException.class, () -> guard.applyUsername(request("10.0.0.2"), "User"));
+        assertDoesNotThrow(() -> guard.applyUsername(request("10.0.0.1"), "other"));
+        /* 不按客户端地址限流 */
+        for (int i = 0; i <= CLIENT_PERMITS; i++) {
+            assertDoesNotThrow(() -> guard.apply(request("10.0.0.1")));
+        }
+    }
+
+    /**
+     * 自定义客户端标识解析方式
+     */
+    @Test
+    void usesClientResolver() {
+        final RateLimitGuard guard = RateLimitGuard.createRateLimitGuard(CLIENT_PERMITS, 0, PERIOD);
+        guard.setClientResolver(request -> "proxy");
+        for (int i = 0; i < CLIENT_PERMITS; i++) {
+            final String address = "10.0.0." + i;
+            assertDoesNotThrow(() -> guard.apply(request(address)));
+        }
+        assertThrows(TooManyRequestsException.class, () -> guard.apply(request("10.0.0.9")));
+    }
+
+    /**
+     * 生成只有客户端地址的请求
+     *
+     * @param address 客户端地址
+     * @return 请求
+     */
+    private static HttpServletRequest request(final String address) {
+        return (HttpServletRequest) Proxy.newProxyInstance(RateLimitGuardTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getRemoteAddr".equals(method.getName()) ? address : null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.xumumi.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RateLimiter} 突发许可、匀速补充、键之间互不影响和参数校验的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class RateLimiterTest {
+    /**
+     * 周期内的许可数
+     */
+    private static final int PERMITS = 5;
+    /**
+     * 周期，单位毫秒，每个许可的补充间隔为 100 毫秒
+     */
+    private static final long PERIOD = 500L;
+
+    /**
+     * 突发时恰好放行许可数次，之后拒绝
+     */
+    @Test
+    void allowsBurstOfPermits() {
+        final RateLimiter limiter = RateLimiter.createRateLimiter(PERMITS, PERIOD);
+        for (int i = 0; i < PERMITS; i++) {
+            assertTrue(limiter.tryAcquire("key"), "permit " + i);
+        }
+        assertFalse(limiter.tryAcquire("key"));
+        assertFalse(limiter.tryAcquire("key"));
+    }
+
+    /**
+     * 用完许可后等待一个补充间隔，可以再获取一个许可
+     *
+     * @throws InterruptedException 等待中断
+     */
+    @Test
+    void refillsAfterInterval() throws InterruptedException {
+        final RateLimiter limiter = RateLimiter.createRateLimiter(PERMITS, PERIOD);
+        for (int i = 0; i < PERMITS; i++) {
+            limiter.tryAcquire("key");
+        }
+        assertFalse(limiter.tryAcquire("key"));
+        Thread.sleep(PERIOD / PERMITS * 3 / 2);
+        assertTrue(limiter.tryAcquire("key"));
+    }
+
+    /**
+     * 一个键用完许可不影响其他键，null 与空字符串视为同一个键
+     */
+    @Test
+    void keepsKeysIndependent() {
+        final RateLimiter limiter = RateLimiter.createRateLimiter(PERMITS, PERIOD);
+        for (int i = 0; i < PERMITS; i++) {
+            limiter.tryAcquire("key");
+            limiter.tryAcquire(null);
+        }
+        assertFalse(limiter.tryAcquire("key"));
+        assertFalse(limiter.tryAcquire(""));
+        for (int i = 0; i < PERMITS; i++) {
+            assertTrue(limiter.tryAcquire("other"), "permit " + i);
+        }
+    }
+
+    /**
+     * 许可数、周期和桶数必须大于 0
+     */
+    @Test
+    void rejectsNonPositiveArguments() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.createRateLimiter(0, PERIOD));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.createRateLimiter(-1, PERIOD));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.createRateLimiter(PERMITS, 0L));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.createRateLimiter(PERMITS, -1L));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.createRateLimiter(PERMITS, PERIOD, 0));
+    }
+}
@@ -0,0 +1,102 @@
+package com.xumumi.revocation;
+
+import com.xumumi.filter.impl.TokenAuthenticator;
+import com.xumumi.revocation.impl.BloomTokenRevocation;
+import com.xumumi.secret.KeyRing;
+import com.xumumi.secret.SigningKey;
+import com.xumumi.util.JwtUtils;
+import com.xumumi.util.VerifiedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BloomTokenRevocation} 吊销、过期、重建和与令牌缓存配合的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class BloomTokenRevocationTest {
+    /**
+     * 吊销记录数，超出最小容量以触发布隆过滤器重建
+     */
+    private static final int COUNT = 1000;
+    /**
+     * 令牌有效期，大于默认刷新阈值
+     */
+    private static final long LIFETIME = 600000L;
+
+    /**
+     * 已吊销的令牌标识全部命中，未吊销的全部放行，包括字符串哈希相同的标识
+     */
+    @Test
+    void rejectsOnlyRevokedIds() {
+        final TokenRevocation revocation = BloomTokenRevocation.createTokenRevocation(Short.SIZE);
+        final long expiresAt = System.currentTimeMillis() + LIFETIME;
+        /* 超出容量时清理并重建布隆过滤器，已有记录不能丢失 */
+        for (int i = 0; i < COUNT; i++) {
+            revocation.revoke("revoked-" + i, expiresAt);
+        }
+        for (int i = 0; i < COUNT; i++) {
+            assertTrue(revocation.isRevoked("revoked-" + i), "revoked-" + i);
+            assertFalse(revocation.isRevoked("active-" + i), "active-" + i);
+        }
+        assertEquals(COUNT, revocation.size());
+        /* "Aa" 与 "BB" 的 hashCode 相同 */
+        revocation.revoke("AaAa", expiresAt);
+        assertTrue(revocation.isRevoked("AaAa"));
+        assertFalse(revocation.isRevoked("BBBB"));
+        assertFalse(revocation.isRevoked(null));
+    }
+
+    /**
+     * 记录在令牌过期时刻失效，已过期的令牌不记录
+     *
+     * @throws InterruptedException 等待中断
+     */
+    @Test
+    void forgetsExpiredIds() throws InterruptedException {
+        final TokenRevocation revocation = BloomTokenRevocation.createTokenRevocation();
+        final long now = System.currentTimeMillis();
+        revocation.revoke("expired", now - 1L);
+        assertFalse(revocation.isRevoked("expired"));
+        assertEquals(0, revocation.size());
+        revocation.revoke("short", now + 50L);
+        assertTrue(revocation.isRevoked("short"));
+        Thread.sleep(100L);
+        assertFalse(revocation.isRevoked("short"));
+        revocation.revoke(null, now + LIFETIME);
+        assertEquals(1, revocation.size());
+    }
+
+    /**
+     * 已校验的令牌按 jti 吊销，缓存命中的令牌吊销后同样视为未登录
+     */
+    @Test
+    void rejectsCachedTokens() {
+        final KeyRing keyRing = KeyRing.of(SigningKey.hmac256("test-secret"));
+        final TokenRevocation revocation = BloomTokenRevocation.createTokenRevocation();
+        final TokenAuthenticator authenticator = TokenAuthenticator.createTokenAuthenticator();
+        authenticator.setTokenCacheSize(Short.SIZE);
+        authenticator.setTokenRevocation(revocation);
+        final String token = JwtUtils.sign("user", Collections.emptyMap(), LIFETIME, keyRing);
+        final VerifiedToken verified = authenticator.authenticate(token, keyRing).getVerified();
+        assertNotNull(verified);
+        assertNotNull(authenticator.authenticate(token, keyRing).getAuthentication());
+        assertEquals(1L, authenticator.getTokenCache().getHitCount());
+        revocation.revoke(verified);
+        final TokenAuthenticator.Result result = authenticator.authenticate(token, keyRing);
+        assertEquals(2L, authenticator.getTokenCache().getHitCount());
+        assertNull(result.getAuthentication());
+        assertNull(result.getVerified());
+        /* 其他令牌不受影响 */
+        final String other = JwtUtils.sign("user", Collections.emptyMap(), LIFETIME, keyRing);
+        assertNotNull(authenticator.authenticate(other, keyRing).getAuthentication());
+    }
+}
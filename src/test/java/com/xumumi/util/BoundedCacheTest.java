@@ -0,0 +1,126 @@
+package com.xumumi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BoundedCache} 容量上限、单独过期、CLOCK 淘汰和命中统计的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class BoundedCacheTest {
+    /**
+     * 缓存容量
+     */
+    private static final int SIZE = 8;
+    /**
+     * 写入的条目数，远大于缓存容量
+     */
+    private static final int COUNT = 1000;
+    /**
+     * 较短的存活时长，单位毫秒
+     */
+    private static final long SHORT_LIFETIME = 50L;
+
+    /**
+     * 连续写入时条目数不超过容量，超出部分计入淘汰数
+     */
+    @Test
+    void boundsSizeOnPut() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(SIZE, 0L);
+        for (int i = 0; i < COUNT; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= SIZE, () -> "size " + cache.size());
+        }
+        assertEquals(SIZE, cache.size());
+        assertEquals(COUNT - SIZE, cache.getEvictionCount());
+    }
+
+    /**
+     * 键不存在时写入同样受容量限制，键已存在时返回原值且不覆盖
+     */
+    @Test
+    void boundsSizeOnPutIfAbsent() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(SIZE, 0L);
+        for (int i = 0; i < COUNT; i++) {
+            assertNull(cache.putIfAbsent(i, i));
+            assertTrue(cache.size() <= SIZE, () -> "size " + cache.size());
+        }
+        assertEquals(COUNT - SIZE, cache.getEvictionCount());
+        final int last = COUNT - 1;
+        assertEquals(last, cache.putIfAbsent(last, -1));
+        assertEquals(last, cache.get(last));
+    }
+
+    /**
+     * 每个条目按各自的过期时刻失效，默认存活时长为 0 时不过期
+     *
+     * @throws InterruptedException 等待中断
+     */
+    @Test
+    void expiresEntriesIndividually() throws InterruptedException {
+        final BoundedCache<String, String> cache = new BoundedCache<>(SIZE, 0L);
+        final long now = System.currentTimeMillis();
+        cache.put("short", "v", now + SHORT_LIFETIME);
+        cache.put("long", "v", now + SHORT_LIFETIME * 100);
+        cache.put("forever", "v");
+        cache.put("expired", "v", now - 1L);
+        assertNull(cache.get("expired"));
+        assertNotNull(cache.get("short"));
+        Thread.sleep(SHORT_LIFETIME * 2);
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("long"));
+        assertNotNull(cache.get("forever"));
+        /* 默认存活时长同样生效 */
+        final BoundedCache<String, String> timed = new BoundedCache<>(SIZE, SHORT_LIFETIME);
+        timed.put("default", "v");
+        assertNull(timed.putIfAbsent("absent", "v"));
+        Thread.sleep(SHORT_LIFETIME * 2);
+        assertNull(timed.get("default"));
+        assertNull(timed.putIfAbsent("absent", "w"));
+        assertEquals("w", timed.get("absent"));
+    }
+
+    /**
+     * 超出容量时最近被读取过的条目获得第二次机会，淘汰最早写入且未被读取的条目
+     */
+    @Test
+    void keepsReferencedEntries() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(SIZE, 0L);
+        for (int i = 0; i < SIZE; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(0, cache.get(0));
+        cache.put(SIZE, SIZE);
+        assertEquals(SIZE, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        assertEquals(0, cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(SIZE, cache.get(SIZE));
+    }
+
+    /**
+     * 命中和未命中分别计数，键不存在时写入计为未命中，键已存在时计为命中
+     */
+    @Test
+    void countsHitsAndMisses() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(SIZE, 0L);
+        assertEquals(0.0, cache.getHitRate());
+        assertNull(cache.get("key"));
+        cache.put("key", "v");
+        assertEquals("v", cache.get("key"));
+        assertEquals("v", cache.putIfAbsent("key", "w"));
+        assertNull(cache.putIfAbsent("other", "v"));
+        assertEquals("v", cache.computeIfAbsent("loaded", k -> "v"));
+        assertEquals(2L, cache.getHitCount());
+        assertEquals(3L, cache.getMissCount());
+        assertEquals(0.4, cache.getHitRate(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, 0L));
+    }
+}
@@ -0,0 +1,94 @@
+package com.xumumi.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link CookieUtils} 读取 Cookie 请求头的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class CookieUtilsTest {
+    /**
+     * 测试使用的 cookie 名
+     */
+    private static final String NAME = "USER-TOKEN";
+
+    /**
+     * 值两侧的双引号被去除
+     */
+    @Test
+    void stripsQuotes() {
+        assertEquals("abc", CookieUtils.getCookieValue("USER-TOKEN=\"abc\"", NAME));
+        assertEquals("\"abc", CookieUtils.getCookieValue("USER-TOKEN=\"abc", NAME));
+        assertEquals("a\"b", CookieUtils.getCookieValue("USER-TOKEN=a\"b", NAME));
+    }
+
+    /**
+     * 分隔符后和值两侧的空格、制表符被去除
+     */
+    @Test
+    void skipsWhitespace() {
+        assertEquals("abc", CookieUtils.getCookieValue("a=1;\tUSER-TOKEN=abc", NAME));
+        assertEquals("abc", CookieUtils.getCookieValue("a=1; \t USER-TOKEN= \tabc\t ;b=2", NAME));
+        assertEquals("abc", CookieUtils.getCookieValue("USER-TOKEN=\t\"abc\" ", NAME));
+    }
+
+    /**
+     * 名称只有前缀或后缀相同的 cookie 不会匹配
+     */
+    @Test
+    void ignoresSimilarNames() {
+        assertNull(CookieUtils.getCookieValue("XUSER-TOKEN=x", NAME));
+        assertNull(CookieUtils.getCookieValue("USER-TOKENX=x; user-token=y", NAME));
+        assertEquals("abc", CookieUtils.getCookieValue("XUSER-TOKEN=x; USER-TOKEN=abc", NAME));
+        assertEquals("abc", CookieUtils.getCookieValue("USER-TOKEN2=x;USER-TOKEN=abc", NAME));
+    }
+
+    /**
+     * 空值视为不存在，同名的后续非空值仍可读取
+     */
+    @Test
+    void treatsEmptyAsAbsent() {
+        assertNull(CookieUtils.getCookieValue("USER-TOKEN=", NAME));
+        assertNull(CookieUtils.getCookieValue("USER-TOKEN=\"\"", NAME));
+        assertNull(CookieUtils.getCookieValue("USER-TOKEN= ; a=1", NAME));
+        assertEquals("abc", CookieUtils.getCookieValue("USER-TOKEN=; USER-TOKEN=abc", NAME));
+        assertNull(CookieUtils.getCookieValue((String) null, NAME));
+        assertNull(CookieUtils.getCookieValue("", NAME));
+    }
+
+    /**
+     * 多个 Cookie 请求头依次扫描，同名 cookie 返回第一个非空的值
+     */
+    @Test
+    void scansMultipleHeaders() {
+        assertEquals("abc", CookieUtils.getCookieValue(request("a=1", "b=2; USER-TOKEN=abc"), NAME));
+        assertEquals("abc", CookieUtils.getCookieValue(request("USER-TOKEN=abc", "USER-TOKEN=def"), NAME));
+        assertEquals("def", CookieUtils.getCookieValue(request("USER-TOKEN=", "USER-TOKEN=def"), NAME));
+        assertNull(CookieUtils.getCookieValue(request("a=1", "XUSER-TOKEN=x"), NAME));
+        assertNull(CookieUtils.getCookieValue(request(), NAME));
+    }
+
+    /**
+     * 生成只有 Cookie 请求头的请求
+     *
+     * @param headers Cookie 请求头内容
+     * @return 请求
+     */
+    private static HttpServletRequest request(final String... headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(CookieUtilsTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getHeaders".equals(method.getName()) && HttpHeaders.COOKIE.equals(args[0]) ?
+                        Collections.enumeration(Arrays.asList(headers)) : null);
+    }
+}
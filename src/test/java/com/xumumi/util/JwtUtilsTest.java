@@ -0,0 +1,78 @@
+package com.xumumi.util;
+
+import com.auth0.jwt.JWT;
+import com.xumumi.metrics.impl.NoopSecurityMetrics;
+import com.xumumi.secret.KeyRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link JwtUtils} 使用别名签发、读取和刷新令牌，以及按给定 jti 签发的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class JwtUtilsTest {
+    /**
+     * 测试使用的密钥
+     */
+    private static final String SECRET = "test-secret";
+    /**
+     * 令牌有效期，小于默认刷新阈值
+     */
+    private static final long NEAR_EXPIRY = 30000L;
+
+    private final ClaimAliases aliases = ClaimAliases.of(Collections.singletonMap("role", "r"));
+    private final Map<String, String> claims = Collections.singletonMap("role", "ADMIN");
+
+    /**
+     * 按别名读取信息，不带别名表时按原字段名读取不到
+     */
+    @Test
+    void readsAliasedClaims() {
+        final String token = JwtUtils.sign("user", claims, NEAR_EXPIRY, JwtUtils.getKeyRing(SECRET), aliases);
+        assertEquals("ADMIN", JwtUtils.getClaimValue(token, SECRET, "role", aliases));
+        assertNull(JwtUtils.getClaimValue(token, SECRET, "role"));
+        assertEquals("ADMIN", JwtUtils.getClaimValue(token, SECRET, "r"));
+        assertNull(JwtUtils.getClaimValue(token, null, "role", aliases));
+    }
+
+    /**
+     * 带别名表刷新的令牌仍使用别名
+     */
+    @Test
+    void refreshKeepsAliases() {
+        final KeyRing keyRing = JwtUtils.getKeyRing(SECRET);
+        final String token = JwtUtils.sign("user", claims, NEAR_EXPIRY, keyRing, aliases);
+        final VerifiedToken verified = JwtUtils.verify(token, keyRing,
+                NoopSecurityMetrics.createSecurityMetrics(), aliases);
+        assertNotNull(verified);
+        final String refreshed = JwtUtils.refresh(verified, RefreshPolicy.DEFAULT, keyRing, aliases);
+        assertNotNull(refreshed);
+        assertEquals("ADMIN", JWT.decode(refreshed).getClaim("r").asString());
+        assertNull(JWT.decode(refreshed).getClaim("role").asString());
+        assertEquals("ADMIN", JwtUtils.getClaimValue(refreshed, SECRET, "role", aliases));
+    }
+
+    /**
+     * 以给定的 jti 和签发时刻签发，令牌中的 jti 和过期时刻与调用方计算的一致
+     */
+    @Test
+    void signsWithGivenId() {
+        final String tokenId = JwtUtils.newTokenId();
+        final long issuedAt = System.currentTimeMillis();
+        final String token = JwtUtils.sign("user", claims, NEAR_EXPIRY, JwtUtils.getKeyRing(SECRET), aliases,
+                tokenId, issuedAt);
+        assertNotNull(token);
+        assertEquals(tokenId, JWT.decode(token).getId());
+        assertEquals(TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(issuedAt + NEAR_EXPIRY)),
+                JWT.decode(token).getExpiresAt().getTime());
+    }
+}
@@ -0,0 +1,67 @@
+package com.xumumi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RefreshPolicy} 刷新窗口和新令牌有效期的测试
+ *
+ * @author XUMUMI
+ * @since 1.9
+ */
+class RefreshPolicyTest {
+    /**
+     * 测试使用的当前时刻
+     */
+    private static final long NOW = 1_000_000_000L;
+
+    /**
+     * 有效期大于阈值时按配置签发
+     */
+    @Test
+    void usesConfiguredLifetime() {
+        final RefreshPolicy policy = RefreshPolicy.DEFAULT.withThreshold(1000L).withLifetime(5000L);
+        assertEquals(5000L, policy.lifetimeOf(token(0L, NOW + 500L)));
+        assertEquals(9000L, policy.lifetimeOf(token(NOW - 8500L, NOW + 500L)));
+        assertEquals(5000L, policy.withKeepLifetime(false).lifetimeOf(token(NOW - 8500L, NOW + 500L)));
+    }
+
+    /**
+     * 有效期不大于阈值时延长，刷新后的令牌不在刷新窗口内
+     */
+    @Test
+    void keepsRefreshedTokenOutOfWindow() {
+        final RefreshPolicy policy = RefreshPolicy.DEFAULT.withThreshold(10000L).withLifetime(5000L);
+        final long lifetime = policy.lifetimeOf(token(0L, NOW + 500L));
+        assertEquals(20000L, lifetime);
+        assertFalse(policy.shouldRefresh(token(NOW, NOW + lifetime), NOW + 9999L));
+        assertTrue(policy.shouldRefresh(token(NOW, NOW + lifetime), NOW + 10001L));
+        assertEquals(20000L, policy.lifetimeOf(token(NOW - 10500L, NOW + 500L)));
+    }
+
+    /**
+     * 有最小间隔时新令牌至少在该间隔内不会落入刷新窗口
+     */
+    @Test
+    void coversMinInterval() {
+        final RefreshPolicy policy = RefreshPolicy.DEFAULT.withThreshold(1000L).withLifetime(500L)
+                .withMinInterval(3000L);
+        assertEquals(4000L, policy.lifetimeOf(token(NOW - 1000L, NOW + 500L)));
+    }
+
+    /**
+     * 生成已校验的令牌
+     *
+     * @param issuedAt  签发时刻，0 表示没有 iat
+     * @param expiresAt 过期时刻
+     * @return 令牌
+     */
+    private static VerifiedToken token(final long issuedAt, final long expiresAt) {
+        return new VerifiedToken("token", "user", expiresAt, issuedAt, null, Collections.emptyMap());
+    }
+}